@@ -48,6 +48,7 @@ public class BackendApplication {
                     // Avoid duplicates (e.g., "AI, AI")
                     if (!currentClass.contains(extraClass)) {
                         asset.setAssetClass(currentClass + ", " + extraClass);
+                        asset.setCategoryMask(null); // re-classified by the category backfill
                         repository.save(asset);
                     }
                 }
@@ -1,7 +1,8 @@
 package com.project.backend.config;
 
 import com.project.backend.entity.User;
-import com.project.backend.service.AdminMonitoringService;
+import com.project.backend.service.ApiMetricWriter;
+import com.project.backend.service.EndpointLatencyRecorder;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,17 +11,23 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 public class APIHealthInterceptor implements HandlerInterceptor {
 
-    private final AdminMonitoringService monitoringService;
+    // Requests no handler mapping matched (their URIs would be unbounded)
+    private static final String UNMATCHED = "(unmatched)";
+
+    private final ApiMetricWriter apiMetricWriter;
+    private final EndpointLatencyRecorder latencyRecorder;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         request.setAttribute("startTime", System.currentTimeMillis());
+        request.setAttribute("startNanos", System.nanoTime());
         return true;
     }
 
@@ -30,9 +37,14 @@ public class APIHealthInterceptor implements HandlerInterceptor {
             long startTime = (Long) request.getAttribute("startTime");
             int duration = (int) (System.currentTimeMillis() - startTime);
 
-            String endpoint = request.getRequestURI();
+            // The handler pattern ("/api/ipassets/{id}"), so ids in the path don't each become an endpoint
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = pattern != null ? pattern.toString() : UNMATCHED;
             String method = request.getMethod();
             int status = response.getStatus();
+
+            long micros = (System.nanoTime() - (Long) request.getAttribute("startNanos")) / 1000;
+            latencyRecorder.record(method, endpoint, micros, ex != null || status >= 400);
             
             Long userId = null;
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -57,7 +69,8 @@ public class APIHealthInterceptor implements HandlerInterceptor {
                 errorMessage = "HTTP Error " + status;
             }
 
-            monitoringService.logAPIMetric(
+            // Buffered; written in batches off the request thread
+            apiMetricWriter.record(
                 endpoint,
                 method,
                 duration,
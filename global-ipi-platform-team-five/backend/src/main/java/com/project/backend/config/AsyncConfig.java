@@ -31,4 +31,20 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // Federated search fan-out (UnifiedSearchService); kept apart so slow sources
+    // cannot starve the @Async work on taskExecutor
+    @Bean(name = "searchExecutor")
+    public ThreadPoolTaskExecutor searchExecutor(
+            @Value("${app.search.executor.core-pool-size:8}") int searchCorePoolSize,
+            @Value("${app.search.executor.max-pool-size:32}") int searchMaxPoolSize,
+            @Value("${app.search.executor.queue-capacity:100}") int searchQueueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(searchCorePoolSize);
+        executor.setMaxPoolSize(searchMaxPoolSize);
+        executor.setQueueCapacity(searchQueueCapacity);
+        executor.setThreadNamePrefix("GlobalIP-Search-");
+        executor.initialize();
+        return executor;
+    }
+}
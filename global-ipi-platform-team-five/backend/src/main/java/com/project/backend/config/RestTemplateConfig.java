@@ -1,14 +1,121 @@
 package com.project.backend.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Outbound HTTP (SerpAPI, Gemini, WIPO). All RestTemplates share one keep-alive connection
+ * pool with per-host limits, so repeated calls reuse TCP/TLS connections, and every call
+ * has connect, pool-lease and read timeouts. With app.http.http2=true one shared JDK client
+ * is used instead (HTTP/2, multiplexed over its own connections; the pool stays unused).
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${app.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${app.http.max-connections-per-host:20}")
+    private int maxConnectionsPerHost;
+
+    @Value("${app.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http.pool-timeout-ms:2000}")
+    private long poolTimeoutMs;
+
+    @Value("${app.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // Gemini generates the answer before responding, so it gets a longer read timeout
+    @Value("${app.http.gemini-read-timeout-ms:60000}")
+    private long geminiReadTimeoutMs;
+
+    @Value("${app.http.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.http.http2:false}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    // The clients share the manager, so HttpClientBuilder would not start an evictor for it
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public IdleConnectionEvictor outboundConnectionEvictor(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return new IdleConnectionEvictor(outboundConnectionManager, TimeValue.ofMilliseconds(idleTimeoutMs));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.http.http2", havingValue = "true")
+    public HttpClient outboundHttp2Client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Primary
+    public RestTemplate restTemplate(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                     ObjectProvider<HttpClient> outboundHttp2Client) {
+        return new RestTemplate(requestFactory(outboundConnectionManager, outboundHttp2Client, readTimeoutMs));
+    }
+
+    @Bean
+    public RestTemplate geminiRestTemplate(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                           ObjectProvider<HttpClient> outboundHttp2Client) {
+        return new RestTemplate(requestFactory(outboundConnectionManager, outboundHttp2Client, geminiReadTimeoutMs));
+    }
+
+    private ClientHttpRequestFactory requestFactory(PoolingHttpClientConnectionManager connectionManager,
+                                                    ObjectProvider<HttpClient> http2Client,
+                                                    long readTimeout) {
+        if (http2) {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(http2Client.getObject());
+            factory.setReadTimeout(Duration.ofMillis(readTimeout));
+            return factory;
+        }
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(client);
     }
 }
@@ -1,6 +1,14 @@
 package com.project.backend.config;
 
 import com.project.backend.service.AdminMonitoringService;
+import com.project.backend.service.ApiHealthRollupService;
+import com.project.backend.service.ApiMetricWriter;
+import com.project.backend.service.ApiResultWriter;
+import com.project.backend.service.AssetAnalyticsSnapshot;
+import com.project.backend.service.AssetCounterStore;
+import com.project.backend.service.AssetLeaderboards;
+import com.project.backend.service.AssetSuggestService;
+import com.project.backend.service.EndpointLatencyRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
@@ -15,10 +23,34 @@ public class ScheduledTasks {
     private static final Logger log = LoggerFactory.getLogger(ScheduledTasks.class);
     
     private final AdminMonitoringService monitoringService;
+    private final AssetAnalyticsSnapshot analyticsSnapshot;
+    private final AssetCounterStore assetCounterStore;
+    private final ApiResultWriter apiResultWriter;
+    private final AssetSuggestService assetSuggestService;
+    private final AssetLeaderboards assetLeaderboards;
+    private final ApiMetricWriter apiMetricWriter;
+    private final EndpointLatencyRecorder latencyRecorder;
+    private final ApiHealthRollupService apiHealthRollupService;
 
     // Manual Constructor Injection
-    public ScheduledTasks(AdminMonitoringService monitoringService) {
+    public ScheduledTasks(AdminMonitoringService monitoringService,
+                          AssetAnalyticsSnapshot analyticsSnapshot,
+                          AssetCounterStore assetCounterStore,
+                          ApiResultWriter apiResultWriter,
+                          AssetSuggestService assetSuggestService,
+                          AssetLeaderboards assetLeaderboards,
+                          ApiMetricWriter apiMetricWriter,
+                          EndpointLatencyRecorder latencyRecorder,
+                          ApiHealthRollupService apiHealthRollupService) {
         this.monitoringService = monitoringService;
+        this.analyticsSnapshot = analyticsSnapshot;
+        this.assetCounterStore = assetCounterStore;
+        this.apiResultWriter = apiResultWriter;
+        this.assetSuggestService = assetSuggestService;
+        this.assetLeaderboards = assetLeaderboards;
+        this.apiMetricWriter = apiMetricWriter;
+        this.latencyRecorder = latencyRecorder;
+        this.apiHealthRollupService = apiHealthRollupService;
     }
 
     @Scheduled(cron = "0 0 0 * * ?")
@@ -27,4 +59,83 @@ public class ScheduledTasks {
         monitoringService.cleanupOldMetrics();
         log.info("Scheduled cleanup completed.");
     }
-}
\ No newline at end of file
+
+    @Scheduled(fixedDelayString = "${app.analytics.snapshot-refresh-ms:60000}",
+               initialDelayString = "${app.analytics.snapshot-refresh-ms:60000}")
+    public void refreshAnalyticsSnapshot() {
+        try {
+            analyticsSnapshot.refresh();
+        } catch (Exception e) {
+            log.error("Analytics snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Verifies the incremental dashboard counters against the database
+    @Scheduled(fixedDelayString = "${app.analytics.counters-reconcile-ms:900000}",
+               initialDelayString = "${app.analytics.counters-reconcile-ms:900000}")
+    public void reconcileAssetCounters() {
+        try {
+            assetCounterStore.reconcile();
+        } catch (Exception e) {
+            log.error("Asset counter reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    // Persists SerpAPI results queued by searches
+    @Scheduled(fixedDelayString = "${app.api-results.flush-ms:2000}")
+    public void flushApiResults() {
+        try {
+            apiResultWriter.flush();
+        } catch (Exception e) {
+            log.error("API result flush failed: {}", e.getMessage());
+        }
+    }
+
+    // Writes the API health metrics buffered by APIHealthInterceptor
+    @Scheduled(fixedDelayString = "${app.metrics.flush-ms:1000}")
+    public void flushApiMetrics() {
+        try {
+            apiMetricWriter.flush();
+        } catch (Exception e) {
+            log.error("API metric flush failed: {}", e.getMessage());
+        }
+    }
+
+    // Closes the current minute of the endpoint latency histograms
+    @Scheduled(cron = "0 * * * * ?")
+    public void rotateLatencyHistograms() {
+        latencyRecorder.rotate();
+    }
+
+    // Downsamples the stored API health metrics into minute and hour rollups
+    @Scheduled(fixedDelayString = "${app.metrics.rollup-ms:60000}",
+               initialDelayString = "${app.metrics.rollup-ms:60000}")
+    public void rollupApiHealthMetrics() {
+        try {
+            apiHealthRollupService.rollup();
+        } catch (Exception e) {
+            log.error("API health rollup failed: {}", e.getMessage());
+        }
+    }
+
+    // Makes asset writes visible to /api/search/suggest
+    @Scheduled(fixedDelayString = "${app.suggest.refreeze-ms:5000}")
+    public void refreezeSuggestIndexes() {
+        try {
+            assetSuggestService.refreeze();
+        } catch (Exception e) {
+            log.error("Suggest index refreeze failed: {}", e.getMessage());
+        }
+    }
+
+    // Rebuilds the leaderboard sketches, dropping eviction error and rolling the year counts
+    @Scheduled(fixedDelayString = "${app.leaderboard.rebuild-ms:3600000}",
+               initialDelayString = "${app.leaderboard.rebuild-ms:3600000}")
+    public void rebuildLeaderboards() {
+        try {
+            assetLeaderboards.rebuild();
+        } catch (Exception e) {
+            log.error("Leaderboard rebuild failed: {}", e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.project.backend.controller;
 
 import com.project.backend.dto.*;
 import com.project.backend.service.AdminMonitoringService;
+import com.project.backend.service.ApiHealthRollupService;
+import com.project.backend.service.ApiMetricWriter;
+import com.project.backend.service.ApiResultWriter;
+import com.project.backend.service.ExternalIPService;
+import com.project.backend.service.MetricRetentionService;
 import com.project.backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 // import lombok.extern.slf4j.Slf4j; // REMOVED LOMBOK LOGGER
@@ -12,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/monitoring")
@@ -23,6 +29,11 @@ public class AdminMonitoringController {
     private static final Logger log = LoggerFactory.getLogger(AdminMonitoringController.class);
 
     private final AdminMonitoringService monitoringService;
+    private final ExternalIPService externalIPService;
+    private final ApiResultWriter apiResultWriter;
+    private final ApiMetricWriter apiMetricWriter;
+    private final ApiHealthRollupService apiHealthRollupService;
+    private final MetricRetentionService metricRetentionService;
     private final JwtUtil jwtUtil;
     
     /**
@@ -44,10 +55,11 @@ public class AdminMonitoringController {
     @GetMapping("/health/timeseries")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<APIHealthDTO.MetricDataPoint>> getHealthTimeSeries(
-            @RequestParam(defaultValue = "24") int hours) {
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "false") boolean raw) {
         log.info("Fetching API health time series for {} hours", hours);
         List<APIHealthDTO.MetricDataPoint> timeSeries = 
-            monitoringService.getAPIHealthTimeSeries(hours);
+            monitoringService.getAPIHealthTimeSeries(hours, raw);
         return ResponseEntity.ok(timeSeries);
     }
     
@@ -57,11 +69,25 @@ public class AdminMonitoringController {
      */
     @GetMapping("/health/endpoints")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<APIHealthDTO.EndpointStats>> getEndpointStatistics() {
+    public ResponseEntity<List<APIHealthDTO.EndpointStats>> getEndpointStatistics(
+            @RequestParam(defaultValue = "false") boolean raw) {
         log.info("Fetching endpoint statistics");
-        List<APIHealthDTO.EndpointStats> stats = monitoringService.getEndpointStatistics();
+        List<APIHealthDTO.EndpointStats> stats = monitoringService.getEndpointStatistics(raw);
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * GET /api/admin/monitoring/health/latency
+     * Get p50/p90/p99/p999/max latency per endpoint and method over the last minutes (up to a year)
+     */
+    @GetMapping("/health/latency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<APIHealthDTO.EndpointLatency>> getEndpointLatencies(
+            @RequestParam(defaultValue = "60") int minutes) {
+        log.info("Fetching endpoint latency percentiles for {} minutes", minutes);
+        int window = Math.max(1, Math.min(minutes, 365 * 24 * 60));
+        return ResponseEntity.ok(monitoringService.getEndpointLatencies(window));
+    }
     
     /**
      * GET /api/admin/monitoring/activity/trends
@@ -88,4 +114,82 @@ public class AdminMonitoringController {
         DashboardStatsDTO stats = monitoringService.getDashboardStatistics();
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+    
+    /**
+     * GET /api/admin/monitoring/cache/serpapi
+     * Get SerpAPI response cache hit/miss statistics
+     */
+    @GetMapping("/cache/serpapi")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSerpApiCacheStats() {
+        log.info("Fetching SerpAPI cache statistics");
+        return ResponseEntity.ok(externalIPService.getCacheStats());
+    }
+    
+    /**
+     * DELETE /api/admin/monitoring/cache/serpapi
+     * Drop all cached SerpAPI responses
+     */
+    @DeleteMapping("/cache/serpapi")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> clearSerpApiCache() {
+        log.info("Clearing SerpAPI cache");
+        externalIPService.clearCache();
+        return ResponseEntity.ok(externalIPService.getCacheStats());
+    }
+    
+    /**
+     * GET /api/admin/monitoring/http/pool
+     * Get outbound HTTP connection pool utilization
+     */
+    @GetMapping("/http/pool")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboundHttpPoolStats() {
+        log.info("Fetching outbound HTTP pool statistics");
+        return ResponseEntity.ok(monitoringService.getOutboundHttpPoolStats());
+    }
+    
+    /**
+     * GET /api/admin/monitoring/writers/api-results
+     * Get queue and flush statistics of the persist-behind SerpAPI result writer
+     */
+    @GetMapping("/writers/api-results")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getApiResultWriterStats() {
+        log.info("Fetching API result writer statistics");
+        return ResponseEntity.ok(apiResultWriter.getStats());
+    }
+
+    /**
+     * GET /api/admin/monitoring/writers/api-metrics
+     * Get buffer, drop and flush statistics of the asynchronous API metric writer
+     */
+    @GetMapping("/writers/api-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getApiMetricWriterStats() {
+        log.info("Fetching API metric writer statistics");
+        return ResponseEntity.ok(apiMetricWriter.getStats());
+    }
+
+    /**
+     * GET /api/admin/monitoring/writers/api-health-rollups
+     * Get watermarks and retention of the API health rollup tiers
+     */
+    @GetMapping("/writers/api-health-rollups")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getApiHealthRollupStats() {
+        log.info("Fetching API health rollup statistics");
+        return ResponseEntity.ok(apiHealthRollupService.getStats());
+    }
+
+    /**
+     * GET /api/admin/monitoring/retention
+     * Get rows removed, partitions dropped and duration per table of the last retention run
+     */
+    @GetMapping("/retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRetentionReport() {
+        log.info("Fetching metric retention report");
+        return ResponseEntity.ok(metricRetentionService.getLastRun());
+    }
+}
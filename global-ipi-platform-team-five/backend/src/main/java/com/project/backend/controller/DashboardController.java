@@ -92,6 +92,11 @@ public class DashboardController {
         return ResponseEntity.ok(analyticsService.getStatusTimeline(dateRange, type, jurisdiction));
     }
 
+    @GetMapping("/analytics/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(analyticsService.getSnapshotStats());
+    }
+
     // ===========================
     // 🌐 LANDSCAPE ANALYSIS
     // ===========================
@@ -106,8 +111,9 @@ public class DashboardController {
     @GetMapping("/analytics/landscape/competitors")
     public ResponseEntity<Map<String, Object>> getCompetitorAnalysis(
             @RequestParam(required = false) String field,
-            @RequestParam(defaultValue = "10") Integer topN) {
-        return ResponseEntity.ok(analyticsService.getCompetitorAnalysis(field, topN));
+            @RequestParam(defaultValue = "10") Integer topN,
+            @RequestParam(defaultValue = "auto") String mode) {
+        return ResponseEntity.ok(analyticsService.getCompetitorAnalysis(field, topN, mode));
     }
 
     @GetMapping("/analytics/landscape/innovation-trends")
@@ -120,8 +126,9 @@ public class DashboardController {
     @GetMapping("/analytics/landscape/top-inventors")
     public ResponseEntity<Map<String, Object>> getTopInventors(
             @RequestParam(required = false) String field,
-            @RequestParam(defaultValue = "10") Integer topN) {
-        return ResponseEntity.ok(analyticsService.getTopInventors(field, topN));
+            @RequestParam(defaultValue = "10") Integer topN,
+            @RequestParam(defaultValue = "auto") String mode) {
+        return ResponseEntity.ok(analyticsService.getTopInventors(field, topN, mode));
     }
 
     @GetMapping("/analytics/landscape/convergence")
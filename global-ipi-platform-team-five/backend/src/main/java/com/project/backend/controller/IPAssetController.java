@@ -1,32 +1,72 @@
 package com.project.backend.controller;
 
+import com.project.backend.dto.ImportJobDTO;
+import com.project.backend.dto.SyncSummaryDTO;
 import com.project.backend.entity.IPAsset;
+import com.project.backend.service.AssetImportService;
 import com.project.backend.service.IPAssetService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus; 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List; 
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ipassets")
 public class IPAssetController {
 
     private final IPAssetService ipAssetService;
+    private final AssetImportService assetImportService;
 
-    public IPAssetController(IPAssetService ipAssetService) {
+    public IPAssetController(IPAssetService ipAssetService, AssetImportService assetImportService) {
         this.ipAssetService = ipAssetService;
+        this.assetImportService = assetImportService;
     }
 
     @PostMapping("/sync")
-    public ResponseEntity<List<IPAsset>> syncAssets(@RequestBody List<IPAsset> assets) {
+    public ResponseEntity<SyncSummaryDTO> syncAssets(@RequestBody List<IPAsset> assets) {
         if (assets == null || assets.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
         
-        List<IPAsset> savedAssets = ipAssetService.saveOrUpdateAll(assets);
-        return ResponseEntity.ok(savedAssets); 
+        return ResponseEntity.ok(ipAssetService.saveOrUpdateAll(assets));
+    }
+
+    // Streaming bulk import: NDJSON (one asset per line) or CSV with a header row
+    @PostMapping("/import")
+    public ResponseEntity<ImportJobDTO> importAssets(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String jobId) throws IOException {
+
+        String resolvedFormat = format;
+        if (resolvedFormat == null) {
+            String contentType = request.getContentType();
+            resolvedFormat = contentType != null && contentType.toLowerCase().contains("csv")
+                    ? AssetImportService.FORMAT_CSV : AssetImportService.FORMAT_NDJSON;
+        }
+        resolvedFormat = resolvedFormat.toLowerCase();
+        if (!resolvedFormat.equals(AssetImportService.FORMAT_CSV) && !resolvedFormat.equals(AssetImportService.FORMAT_NDJSON)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        return ResponseEntity.ok(assetImportService.runImport(request.getInputStream(), resolvedFormat, jobId));
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<List<ImportJobDTO>> getImportJobs() {
+        return ResponseEntity.ok(assetImportService.getJobs());
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return assetImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -59,6 +99,26 @@ public class IPAssetController {
         ));
     }
 
+    @GetMapping("/search/cursor")
+    public ResponseEntity<?> searchByCursor(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "ALL") String type,
+            @RequestParam(required = false) String jurisdictions,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "all") String source,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "lastUpdated") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        try {
+            return ResponseEntity.ok(ipAssetService.searchByCursor(
+                    keyword, type, jurisdictions, status, source, cursor, size, sortBy, sortDirection, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<IPAsset> getById(@PathVariable Integer id) {
         return ipAssetService.getAssetById(id)
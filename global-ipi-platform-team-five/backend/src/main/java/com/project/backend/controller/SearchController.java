@@ -1,28 +1,41 @@
 package com.project.backend.controller;
 
+import com.project.backend.dto.FederatedSearchDTO;
 import com.project.backend.entity.IPAsset;
+import com.project.backend.service.AssetSuggestService;
 import com.project.backend.service.IPAssetService;
+import com.project.backend.service.UnifiedSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/search")
 @Tag(name = "Search API", description = "Search Patents & Trademarks with Analytics")
 public class SearchController {
 
+    private static final Logger log = LoggerFactory.getLogger(SearchController.class);
+
     private final IPAssetService ipAssetService;
+    private final UnifiedSearchService unifiedSearchService;
+    private final AssetSuggestService assetSuggestService;
 
-    public SearchController(IPAssetService ipAssetService) {
+    public SearchController(IPAssetService ipAssetService, UnifiedSearchService unifiedSearchService,
+                            AssetSuggestService assetSuggestService) {
         this.ipAssetService = ipAssetService;
+        this.unifiedSearchService = unifiedSearchService;
+        this.assetSuggestService = assetSuggestService;
     }
 
     @GetMapping
     @Operation(summary = "Unified Search with API + DB Persistence")
-    public Page<IPAsset> search(
+    public ResponseEntity<?> search(
             @RequestParam(name = "q", required = false, defaultValue = "") String keyword,
             @RequestParam(name = "source", required = false, defaultValue = "local") String source,
             @RequestParam(name = "type", required = false, defaultValue = "ALL") String type,
@@ -31,7 +44,8 @@ public class SearchController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "filingDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDirection
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean facets
     ) {
 
         System.out.println(
@@ -44,7 +58,17 @@ public class SearchController {
                 " | size=" + size
         );
 
-        return ipAssetService.search(
+        // With facets=true the page comes back as "results" next to the facet counts
+        if (facets) {
+            try {
+                return ResponseEntity.ok(ipAssetService.searchWithFacets(
+                        keyword, type, jurisdictions, status, source, page, size, sortBy, sortDirection));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+
+        return ResponseEntity.ok(ipAssetService.search(
                 keyword,
                 type,
                 jurisdictions,
@@ -54,7 +78,58 @@ public class SearchController {
                 size,
                 sortBy,
                 sortDirection
-        );
+        ));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Unified Search with cursor (keyset) pagination")
+    public ResponseEntity<?> searchByCursor(
+            @RequestParam(name = "q", required = false, defaultValue = "") String keyword,
+            @RequestParam(name = "source", required = false, defaultValue = "local") String source,
+            @RequestParam(name = "type", required = false, defaultValue = "ALL") String type,
+            @RequestParam(name = "jurisdictions", required = false) String jurisdictions,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "filingDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+
+        try {
+            return ResponseEntity.ok(ipAssetService.searchByCursor(
+                    keyword, type, jurisdictions, status, source, cursor, size, sortBy, sortDirection, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/federated")
+    @Operation(summary = "Search local DB and external sources in parallel, with per-source status")
+    public FederatedSearchDTO federatedSearch(
+            @RequestParam(name = "q", required = false, defaultValue = "") String keyword,
+            @RequestParam(name = "source", required = false, defaultValue = "global") String source,
+            @RequestParam(name = "type", required = false, defaultValue = "ALL") String type,
+            @RequestParam(name = "jurisdiction", required = false) String jurisdiction
+    ) {
+
+        log.debug("Federated search request: q={}, source={}, type={}", keyword, source, type);
+
+        return unifiedSearchService.searchWithStatus(keyword, source, type, jurisdiction);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Typeahead completions for titles, assignees, inventors and asset numbers")
+    public ResponseEntity<?> suggest(
+            @RequestParam(name = "q", required = false, defaultValue = "") String prefix,
+            @RequestParam(name = "field", required = false, defaultValue = "all") String field,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(assetSuggestService.suggest(prefix, field, Math.max(1, Math.min(limit, 50))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/analysis")
@@ -95,4 +95,60 @@ public class APIHealthDTO {
         }
         public static Builder builder() { return new Builder(); }
     }
-}
\ No newline at end of file
+
+    public static class EndpointLatency {
+        private String endpoint;
+        private String method;
+        private Long requestCount;
+        private Long errorCount;
+        private Double avgMs;
+        private Double p50Ms;
+        private Double p90Ms;
+        private Double p99Ms;
+        private Double p999Ms;
+        private Double maxMs;
+        private Integer windowMinutes;
+
+        // --- GETTERS & SETTERS ---
+        public String getEndpoint() { return endpoint; }
+        public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+        public Long getRequestCount() { return requestCount; }
+        public void setRequestCount(Long requestCount) { this.requestCount = requestCount; }
+        public Long getErrorCount() { return errorCount; }
+        public void setErrorCount(Long errorCount) { this.errorCount = errorCount; }
+        public Double getAvgMs() { return avgMs; }
+        public void setAvgMs(Double avgMs) { this.avgMs = avgMs; }
+        public Double getP50Ms() { return p50Ms; }
+        public void setP50Ms(Double p50Ms) { this.p50Ms = p50Ms; }
+        public Double getP90Ms() { return p90Ms; }
+        public void setP90Ms(Double p90Ms) { this.p90Ms = p90Ms; }
+        public Double getP99Ms() { return p99Ms; }
+        public void setP99Ms(Double p99Ms) { this.p99Ms = p99Ms; }
+        public Double getP999Ms() { return p999Ms; }
+        public void setP999Ms(Double p999Ms) { this.p999Ms = p999Ms; }
+        public Double getMaxMs() { return maxMs; }
+        public void setMaxMs(Double maxMs) { this.maxMs = maxMs; }
+        public Integer getWindowMinutes() { return windowMinutes; }
+        public void setWindowMinutes(Integer windowMinutes) { this.windowMinutes = windowMinutes; }
+
+        // --- BUILDER ---
+        public static class Builder {
+            private EndpointLatency e = new EndpointLatency();
+            public Builder endpoint(String v) { e.endpoint = v; return this; }
+            public Builder method(String v) { e.method = v; return this; }
+            public Builder requestCount(Long v) { e.requestCount = v; return this; }
+            public Builder errorCount(Long v) { e.errorCount = v; return this; }
+            public Builder avgMs(Double v) { e.avgMs = v; return this; }
+            public Builder p50Ms(Double v) { e.p50Ms = v; return this; }
+            public Builder p90Ms(Double v) { e.p90Ms = v; return this; }
+            public Builder p99Ms(Double v) { e.p99Ms = v; return this; }
+            public Builder p999Ms(Double v) { e.p999Ms = v; return this; }
+            public Builder maxMs(Double v) { e.maxMs = v; return this; }
+            public Builder windowMinutes(Integer v) { e.windowMinutes = v; return this; }
+            public EndpointLatency build() { return e; }
+        }
+        public static Builder builder() { return new Builder(); }
+    }
+}
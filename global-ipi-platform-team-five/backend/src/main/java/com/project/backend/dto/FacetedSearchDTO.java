@@ -0,0 +1,26 @@
+package com.project.backend.dto;
+
+import com.project.backend.entity.IPAsset;
+import org.springframework.data.domain.Page;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FacetedSearchDTO {
+    private Page<IPAsset> results;
+    // facet name (type, jurisdiction, status, source) -> value -> matching assets
+    private Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+
+    public FacetedSearchDTO() {}
+
+    public FacetedSearchDTO(Page<IPAsset> results, Map<String, Map<String, Long>> facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+
+    // --- GETTERS & SETTERS ---
+    public Page<IPAsset> getResults() { return results; }
+    public void setResults(Page<IPAsset> results) { this.results = results; }
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
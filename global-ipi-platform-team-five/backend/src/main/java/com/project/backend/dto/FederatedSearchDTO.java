@@ -0,0 +1,52 @@
+package com.project.backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FederatedSearchDTO {
+
+    public static final String OK = "ok";
+    public static final String TIMEOUT = "timeout";
+    public static final String ERROR = "error";
+
+    private List<PatentDTO> results;
+    private Map<String, SourceStatus> sources = new LinkedHashMap<>();
+    private Long durationMs;
+
+    // --- GETTERS & SETTERS ---
+    public List<PatentDTO> getResults() { return results; }
+    public void setResults(List<PatentDTO> results) { this.results = results; }
+    public Map<String, SourceStatus> getSources() { return sources; }
+    public void setSources(Map<String, SourceStatus> sources) { this.sources = sources; }
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public static class SourceStatus {
+        private String status;
+        private Integer resultCount;
+        private Long durationMs;
+        private String error;
+
+        // --- GETTERS & SETTERS ---
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public Integer getResultCount() { return resultCount; }
+        public void setResultCount(Integer resultCount) { this.resultCount = resultCount; }
+        public Long getDurationMs() { return durationMs; }
+        public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+
+        // --- BUILDER ---
+        public static class Builder {
+            private SourceStatus s = new SourceStatus();
+            public Builder status(String v) { s.status = v; return this; }
+            public Builder resultCount(Integer v) { s.resultCount = v; return this; }
+            public Builder durationMs(Long v) { s.durationMs = v; return this; }
+            public Builder error(String v) { s.error = v; return this; }
+            public SourceStatus build() { return s; }
+        }
+        public static Builder builder() { return new Builder(); }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ImportJobDTO {
+    private String jobId;
+    private String format;
+    private String state;          // RUNNING, COMPLETED, FAILED
+    private long recordsRead;
+    private long inserted;
+    private long updated;
+    private long skipped;
+    private long errors;
+    private List<String> errorSamples;
+    private String failure;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // --- GETTERS & SETTERS ---
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public long getRecordsRead() { return recordsRead; }
+    public void setRecordsRead(long recordsRead) { this.recordsRead = recordsRead; }
+    public long getInserted() { return inserted; }
+    public void setInserted(long inserted) { this.inserted = inserted; }
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+    public List<String> getErrorSamples() { return errorSamples; }
+    public void setErrorSamples(List<String> errorSamples) { this.errorSamples = errorSamples; }
+    public String getFailure() { return failure; }
+    public void setFailure(String failure) { this.failure = failure; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
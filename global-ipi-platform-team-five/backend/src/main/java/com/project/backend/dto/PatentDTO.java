@@ -19,6 +19,22 @@ public class PatentDTO {
 
     public PatentDTO() {}
 
+    public PatentDTO(PatentDTO other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.abstractText = other.abstractText;
+        this.status = other.status;
+        this.filingDate = other.filingDate;
+        this.inventor = other.inventor;
+        this.assignee = other.assignee;
+        this.jurisdiction = other.jurisdiction;
+        this.source = other.source;
+        this.imageUrl = other.imageUrl;
+        this.externalUrl = other.externalUrl;
+        this.assetNumber = other.assetNumber;
+        this.type = other.type;
+    }
+
     // Getters and Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -0,0 +1,37 @@
+package com.project.backend.dto;
+
+public class SyncSummaryDTO {
+    private int received;
+    private int inserted;
+    private int updated;
+    private int skipped;
+    private int chunks;
+    private long durationMs;
+
+    // --- GETTERS & SETTERS ---
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    // --- BUILDER ---
+    public static class Builder {
+        private SyncSummaryDTO s = new SyncSummaryDTO();
+        public Builder received(int v) { s.received = v; return this; }
+        public Builder inserted(int v) { s.inserted = v; return this; }
+        public Builder updated(int v) { s.updated = v; return this; }
+        public Builder skipped(int v) { s.skipped = v; return this; }
+        public Builder chunks(int v) { s.chunks = v; return this; }
+        public Builder durationMs(long v) { s.durationMs = v; return this; }
+        public SyncSummaryDTO build() { return s; }
+    }
+    public static Builder builder() { return new Builder(); }
+}
@@ -0,0 +1,34 @@
+package com.project.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary of the endpoint patterns APIHealthMetric rows refer to by id, e.g.
+ * "/api/ipassets/{id}" (the Spring MVC handler pattern rather than the request URI).
+ */
+@Entity
+@Table(name = "api_endpoints")
+public class APIEndpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 500)
+    private String pattern;
+
+    // --- CONSTRUCTORS ---
+    public APIEndpoint() {}
+
+    public APIEndpoint(Integer id, String pattern) {
+        this.id = id;
+        this.pattern = pattern;
+    }
+
+    // --- GETTERS & SETTERS ---
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public String getPattern() { return pattern; }
+    public void setPattern(String pattern) { this.pattern = pattern; }
+}
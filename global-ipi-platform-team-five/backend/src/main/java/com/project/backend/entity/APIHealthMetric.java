@@ -6,7 +6,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "api_health_metrics", indexes = {
     @Index(name = "idx_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_endpoint", columnList = "endpoint")
+    @Index(name = "idx_endpoint_id", columnList = "endpoint_id")
 })
 public class APIHealthMetric {
     
@@ -17,8 +17,13 @@ public class APIHealthMetric {
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
-    @Column(nullable = false, length = 500)
+    // Request URI of rows written before endpoint ids; new rows only carry endpointId
+    @Column(length = 500)
     private String endpoint;
+
+    // APIEndpoint id of the handler pattern
+    @Column(name = "endpoint_id")
+    private Integer endpointId;
     
     @Column(nullable = false)
     private Integer responseTime;
@@ -68,6 +73,9 @@ public class APIHealthMetric {
     public String getEndpoint() { return endpoint; }
     public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
 
+    public Integer getEndpointId() { return endpointId; }
+    public void setEndpointId(Integer endpointId) { this.endpointId = endpointId; }
+
     public Integer getResponseTime() { return responseTime; }
     public void setResponseTime(Integer responseTime) { this.responseTime = responseTime; }
 
@@ -103,6 +111,7 @@ public class APIHealthMetric {
         public Builder id(Long v) { m.id = v; return this; }
         public Builder timestamp(LocalDateTime v) { m.timestamp = v; return this; }
         public Builder endpoint(String v) { m.endpoint = v; return this; }
+        public Builder endpointId(Integer v) { m.endpointId = v; return this; }
         public Builder responseTime(Integer v) { m.responseTime = v; return this; }
         public Builder statusCode(Integer v) { m.statusCode = v; return this; }
         public Builder success(Boolean v) { m.success = v; return this; }
@@ -0,0 +1,91 @@
+package com.project.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per minute or per hour summary of the APIHealthMetric rows of one endpoint and method.
+ * Latencies are milliseconds; histogram holds the LatencyHistogram buckets (recorded in
+ * microseconds) so percentiles survive the downsampling.
+ */
+@Entity
+@Table(name = "api_health_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+        columnNames = {"granularity", "bucket_start", "endpoint", "method"}),
+    indexes = @Index(name = "idx_rollup_bucket", columnList = "granularity, bucket_start"))
+public class APIHealthRollup {
+
+    public enum Granularity { MINUTE, HOUR }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 500)
+    private String endpoint;
+
+    @Column(nullable = false, length = 10)
+    private String method;
+
+    @Column(nullable = false)
+    private Long requestCount;
+
+    @Column(nullable = false)
+    private Long errorCount;
+
+    @Column(nullable = false)
+    private Long sumMs;
+
+    @Column(nullable = false)
+    private Integer minMs;
+
+    @Column(nullable = false)
+    private Integer maxMs;
+
+    @Column(columnDefinition = "TEXT")
+    private String histogram;
+
+    // --- CONSTRUCTORS ---
+    public APIHealthRollup() {}
+
+    // --- GETTERS & SETTERS ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Granularity getGranularity() { return granularity; }
+    public void setGranularity(Granularity granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+
+    public Long getRequestCount() { return requestCount; }
+    public void setRequestCount(Long requestCount) { this.requestCount = requestCount; }
+
+    public Long getErrorCount() { return errorCount; }
+    public void setErrorCount(Long errorCount) { this.errorCount = errorCount; }
+
+    public Long getSumMs() { return sumMs; }
+    public void setSumMs(Long sumMs) { this.sumMs = sumMs; }
+
+    public Integer getMinMs() { return minMs; }
+    public void setMinMs(Integer minMs) { this.minMs = minMs; }
+
+    public Integer getMaxMs() { return maxMs; }
+    public void setMaxMs(Integer maxMs) { this.maxMs = maxMs; }
+
+    public String getHistogram() { return histogram; }
+    public void setHistogram(String histogram) { this.histogram = histogram; }
+}
@@ -1,11 +1,22 @@
 package com.project.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "ip_assets")
+@Table(name = "ip_assets", indexes = {
+        // Dashboard tiles filter on filing date, type and jurisdiction and group by status
+        @Index(name = "idx_ip_assets_dashboard", columnList = "filing_date, type, jurisdiction, status"),
+        // Conflict target of the bulk sync upsert (INSERT ... ON CONFLICT (asset_number))
+        @Index(name = "ux_ip_assets_asset_number", columnList = "asset_number", unique = true),
+        // Seek predicates of cursor-paged search: (sort column, id) > / < (?, ?)
+        @Index(name = "idx_ip_assets_filing_date_id", columnList = "filing_date, id"),
+        @Index(name = "idx_ip_assets_last_updated_id", columnList = "last_updated, id")
+})
 public class IPAsset {
 
     @Id
@@ -43,6 +54,20 @@ public class IPAsset {
     @Column(name = "class", length = 100)
     private String assetClass;
 
+    // Smart technology categories derived from assetClass when the asset is written
+    // (see AssetCategoryService). Bit mask for in-memory analytics, names for indexed lookups.
+    @JsonIgnore
+    @Column(name = "category_mask")
+    private Integer categoryMask;
+
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "ip_asset_categories",
+            joinColumns = @JoinColumn(name = "asset_id"),
+            indexes = @Index(name = "idx_asset_category", columnList = "category, asset_id"))
+    @Column(name = "category", length = 40)
+    private Set<String> categories = new HashSet<>();
+
     @Column(columnDefinition = "TEXT")
     private String details; 
 
@@ -102,6 +127,12 @@ public class IPAsset {
     public String getClassification() { return assetClass; }
     public void setClassification(String classification) { this.assetClass = classification; }
 
+    public Integer getCategoryMask() { return categoryMask; }
+    public void setCategoryMask(Integer categoryMask) { this.categoryMask = categoryMask; }
+
+    public Set<String> getCategories() { return categories; }
+    public void setCategories(Set<String> categories) { this.categories = categories; }
+
     public String getDetails() { return details; }
     public void setDetails(String details) { this.details = details; }
 
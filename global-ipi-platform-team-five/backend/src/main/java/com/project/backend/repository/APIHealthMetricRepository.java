@@ -18,9 +18,9 @@ public interface APIHealthMetricRepository extends JpaRepository<APIHealthMetric
         LocalDateTime end
     );
     
-    // Get metrics for specific endpoint
-    List<APIHealthMetric> findByEndpointAndTimestampBetween(
-        String endpoint, 
+    // Get metrics for specific endpoint (APIEndpoint id)
+    List<APIHealthMetric> findByEndpointIdAndTimestampBetween(
+        Integer endpointId, 
         LocalDateTime start, 
         LocalDateTime end
     );
@@ -51,10 +51,10 @@ public interface APIHealthMetricRepository extends JpaRepository<APIHealthMetric
            "FROM APIHealthMetric m WHERE m.timestamp >= :since")
     Double getUptimePercentage(@Param("since") LocalDateTime since);
     
-    // Get most frequently called endpoints
-    @Query("SELECT m.endpoint, COUNT(m) as count FROM APIHealthMetric m " +
+    // Get most frequently called endpoints (endpoint id, legacy URI, count)
+    @Query("SELECT m.endpointId, m.endpoint, COUNT(m) as count FROM APIHealthMetric m " +
            "WHERE m.timestamp >= :since " +
-           "GROUP BY m.endpoint ORDER BY count DESC")
+           "GROUP BY m.endpointId, m.endpoint ORDER BY count DESC")
     List<Object[]> getTopEndpoints(@Param("since") LocalDateTime since);
     
     // Delete old metrics (cleanup - keep last 30 days only)
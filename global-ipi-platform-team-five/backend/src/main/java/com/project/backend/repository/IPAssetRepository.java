@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,9 @@ import java.util.Optional;
 public interface IPAssetRepository extends JpaRepository<IPAsset, Integer> {
 
     boolean existsByAssetNumber(String assetNumber);
+
+    @Query("SELECT i.assetNumber FROM IPAsset i WHERE i.assetNumber IN :numbers")
+    List<String> findExistingAssetNumbers(@Param("numbers") Collection<String> numbers);
     Optional<IPAsset> findByAssetNumber(String assetNumber);
 
     @Query("SELECT p.status, COUNT(p) FROM IPAsset p GROUP BY p.status")
@@ -64,6 +69,22 @@ public interface IPAssetRepository extends JpaRepository<IPAsset, Integer> {
     @Query("SELECT a.jurisdiction, COUNT(a) FROM IPAsset a WHERE (:keyword IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) GROUP BY a.jurisdiction")
     List<Object[]> getJurisdictionCounts(@Param("keyword") String keyword);
 
+    // Assets whose smart categories have not been derived yet (category backfill)
+    List<IPAsset> findByCategoryMaskIsNull(Pageable pageable);
+
+    @Query("SELECT a FROM IPAsset a JOIN a.categories c WHERE c = :category " +
+           "AND (:cutoff IS NULL OR a.filingDate >= :cutoff) " +
+           "AND (:type IS NULL OR LOWER(a.type) = LOWER(:type)) " +
+           "AND (:jurisdiction IS NULL OR LOWER(a.jurisdiction) = LOWER(:jurisdiction)) " +
+           "ORDER BY a.id")
+    List<IPAsset> findByCategory(
+            @Param("category") String category,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("type") String type,
+            @Param("jurisdiction") String jurisdiction,
+            Pageable pageable
+    );
+
     @Query("SELECT a FROM IPAsset a WHERE FUNCTION('YEAR', a.filingDate) = :year")
     List<IPAsset> findByFilingDateYear(@Param("year") int year);
 
@@ -1,6 +1,7 @@
 package com.project.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import java.util.*;
 public class AIAnalysisService {
     
     @Autowired
+    @Qualifier("geminiRestTemplate")
     private RestTemplate restTemplate;
     
     @Autowired
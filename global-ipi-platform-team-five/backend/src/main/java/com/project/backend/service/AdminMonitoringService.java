@@ -4,13 +4,17 @@ import com.project.backend.dto.*;
 import com.project.backend.entity.*;
 import com.project.backend.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,21 +30,54 @@ public class AdminMonitoringService {
     private final IPAssetRepository patentRepo;
     private final UserFilingRepository filingRepo;
     private final SystemMetricRepository systemMetricRepo;
+    private final PoolingHttpClientConnectionManager outboundConnectionManager;
+    private final EndpointLatencyRecorder latencyRecorder;
+    private final ApiHealthRollupService rollupService;
+    private final EndpointDictionary endpointDictionary;
+    private final MetricRetentionService retentionService;
+
+    @Value("${app.http.http2:false}")
+    private boolean http2;
     
+    /**
+     * Utilization of the shared outbound HTTP connection pool (see RestTemplateConfig),
+     * in total and per host. In HTTP/2 mode the pool is unused and "http2" is true.
+     */
+    public Map<String, Object> getOutboundHttpPoolStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("http2", http2);
+        result.putAll(poolStats(outboundConnectionManager.getTotalStats()));
+        Map<String, Object> hosts = new TreeMap<>();
+        for (HttpRoute route : outboundConnectionManager.getRoutes()) {
+            hosts.put(route.getTargetHost().toURI(), poolStats(outboundConnectionManager.getStats(route)));
+        }
+        result.put("hosts", hosts);
+        return result;
+    }
+
+    private Map<String, Object> poolStats(PoolStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("leased", stats.getLeased());
+        result.put("available", stats.getAvailable());
+        result.put("pending", stats.getPending());
+        result.put("max", stats.getMax());
+        result.put("utilization", stats.getMax() > 0 ? (double) stats.getLeased() / stats.getMax() : 0.0);
+        return result;
+    }
+
+    /** Last 24 hours, read from the rollup tiers (see ApiHealthRollupService). */
     public APIHealthDTO.HealthSnapshot getAPIHealthSnapshot() {
         LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
+        ApiHealthRollupService.Totals totals = rollupService.getTotals(last24Hours);
         
-        Double uptime = healthMetricRepo.getUptimePercentage(last24Hours);
-        Double avgResponseTime = healthMetricRepo.getAverageResponseTime(last24Hours);
-        Long totalRequests = healthMetricRepo.countRequestsBetween(last24Hours, LocalDateTime.now());
-        Long errorCount = healthMetricRepo.countErrorsBetween(last24Hours, LocalDateTime.now());
-        
+        long totalRequests = totals.requests();
+        long errorCount = totals.errors();
         Double errorRate = totalRequests > 0 ? 
-            (errorCount.doubleValue() / totalRequests.doubleValue()) * 100 : 0.0;
+            ((double) errorCount / totalRequests) * 100 : 0.0;
         
         return APIHealthDTO.HealthSnapshot.builder()
-            .uptimePercentage(uptime != null ? uptime : 0.0)
-            .averageResponseTime(avgResponseTime != null ? avgResponseTime.intValue() : 0)
+            .uptimePercentage(totalRequests > 0 ? 100.0 - errorRate : 0.0)
+            .averageResponseTime((int) totals.avgMs())
             .totalRequests(totalRequests)
             .errorCount(errorCount)
             .errorRate(errorRate)
@@ -48,7 +85,28 @@ public class AdminMonitoringService {
             .build();
     }
     
-    public List<APIHealthDTO.MetricDataPoint> getAPIHealthTimeSeries(int hours) {
+    /**
+     * Hourly request, error and average latency points. Served from the in-memory latency
+     * histograms when they cover the window, otherwise from the rollup tiers; raw reads the
+     * stored APIHealthMetric rows instead.
+     */
+    public List<APIHealthDTO.MetricDataPoint> getAPIHealthTimeSeries(int hours, boolean raw) {
+        if (!raw) {
+            LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(hours - 1L);
+            if (hours <= 24 && !latencyRecorder.coveredSince().isAfter(from)) {
+                return latencyRecorder.getHourlySeries(hours);
+            }
+            DateTimeFormatter format = DateTimeFormatter.ofPattern(hours <= 24 ? "HH:00" : "MM-dd HH:00");
+            List<APIHealthDTO.MetricDataPoint> series = new ArrayList<>();
+            rollupService.getHourlyTotals(from).forEach((hour, totals) -> series.add(
+                APIHealthDTO.MetricDataPoint.builder()
+                    .time(hour.format(format))
+                    .responseTime((int) Math.round(totals.avgMs()))
+                    .requests(totals.requests())
+                    .errors(totals.errors())
+                    .build()));
+            return series;
+        }
         LocalDateTime startTime = LocalDateTime.now().minusHours(hours);
         List<APIHealthMetric> metrics = healthMetricRepo
             .findByTimestampBetweenOrderByTimestampAsc(startTime, LocalDateTime.now());
@@ -81,13 +139,29 @@ public class AdminMonitoringService {
             .collect(Collectors.toList());
     }
     
-    public List<APIHealthDTO.EndpointStats> getEndpointStatistics() {
+    /**
+     * Percentiles per endpoint and method over the last minutes: from the in-memory histograms
+     * when they cover the window, otherwise from the histograms stored with the rollups.
+     */
+    public List<APIHealthDTO.EndpointLatency> getEndpointLatencies(int minutes) {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(minutes);
+        if (minutes <= 24 * 60 && !latencyRecorder.coveredSince().isAfter(from)) {
+            return latencyRecorder.getLatencies(minutes);
+        }
+        return rollupService.getLatencies(minutes);
+    }
+
+    /** Top 10 endpoints of the last 24 hours; raw reads the stored APIHealthMetric rows. */
+    public List<APIHealthDTO.EndpointStats> getEndpointStatistics(boolean raw) {
+        if (!raw) {
+            return getEndpointStatisticsFromHistograms();
+        }
         LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
         List<APIHealthMetric> metrics = healthMetricRepo
             .findByTimestampBetweenOrderByTimestampAsc(last24Hours, LocalDateTime.now());
         
         Map<String, List<APIHealthMetric>> groupedByEndpoint = metrics.stream()
-            .collect(Collectors.groupingBy(APIHealthMetric::getEndpoint));
+            .collect(Collectors.groupingBy(endpointDictionary::endpointOf));
         
         return groupedByEndpoint.entrySet().stream()
             .map(entry -> {
@@ -114,6 +188,34 @@ public class AdminMonitoringService {
             .collect(Collectors.toList());
     }
     
+    // Methods of the same endpoint are combined, averages weighted by request count; read from
+    // the rollups when the histograms don't cover the whole day (e.g. shortly after a restart)
+    private List<APIHealthDTO.EndpointStats> getEndpointStatisticsFromHistograms() {
+        Map<String, long[]> byEndpoint = new HashMap<>();     // { requests, errors }
+        Map<String, Double> totalMs = new HashMap<>();
+        for (APIHealthDTO.EndpointLatency latency : getEndpointLatencies(24 * 60)) {
+            long[] counts = byEndpoint.computeIfAbsent(latency.getEndpoint(), e -> new long[2]);
+            counts[0] += latency.getRequestCount();
+            counts[1] += latency.getErrorCount();
+            totalMs.merge(latency.getEndpoint(), latency.getAvgMs() * latency.getRequestCount(), Double::sum);
+        }
+
+        return byEndpoint.entrySet().stream()
+            .filter(entry -> entry.getValue()[0] > 0)
+            .map(entry -> {
+                long count = entry.getValue()[0];
+                return APIHealthDTO.EndpointStats.builder()
+                    .endpoint(entry.getKey())
+                    .requestCount(count)
+                    .avgResponseTime(totalMs.get(entry.getKey()) / count)
+                    .errorRate((entry.getValue()[1] * 100.0) / count)
+                    .build();
+            })
+            .sorted(Comparator.comparing(APIHealthDTO.EndpointStats::getRequestCount).reversed())
+            .limit(10)
+            .collect(Collectors.toList());
+    }
+
     public List<UserActivityDTO.ActivityTrend> getActivityTrends(int days) {
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
         
@@ -179,31 +281,18 @@ public class AdminMonitoringService {
             .build();
     }
     
-    @Transactional
-    public void logAPIMetric(String endpoint, String method, int responseTime, 
-                            int statusCode, String errorMessage, Long userId, String ipAddress) {
-        
-        // Manual Builder usage since Lombok is removed from Entity
-        APIHealthMetric metric = new APIHealthMetric();
-        metric.setTimestamp(LocalDateTime.now());
-        metric.setEndpoint(endpoint);
-        metric.setMethod(method);
-        metric.setResponseTime(responseTime);
-        metric.setStatusCode(statusCode);
-        metric.setSuccess(statusCode < 400);
-        metric.setErrorMessage(errorMessage);
-        metric.setUserId(userId);
-        metric.setIpAddress(ipAddress);
-        
-        healthMetricRepo.save(metric);
-    }
-    
-    @Transactional
-    public void cleanupOldMetrics() {
+    /**
+     * Nightly retention: API health tiers per ApiHealthRollupService, activities and system
+     * metrics after 30 days. Partitions are dropped where the tables are partitioned, other
+     * rows deleted in small committed chunks (MetricRetentionService), so no single
+     * transaction spans the run.
+     */
+    public List<MetricRetentionService.Result> cleanupOldMetrics() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
-        healthMetricRepo.deleteByTimestampBefore(cutoff);
-        activityRepo.deleteByTimestampBefore(cutoff);
-        systemMetricRepo.deleteByTimestampBefore(cutoff);
-        log.info("Cleaned up metrics older than {}", cutoff);
+        List<MetricRetentionService.Result> results = new ArrayList<>(rollupService.applyRetention());
+        results.add(retentionService.purgeBefore("user_activities", cutoff));
+        results.add(retentionService.purgeBefore("system_metrics", cutoff));
+        retentionService.report(results);
+        return results;
     }
 }
\ No newline at end of file
@@ -2,80 +2,58 @@ package com.project.backend.service;
 
 import com.project.backend.entity.IPAsset;
 import com.project.backend.repository.IPAssetRepository;
+import com.project.backend.service.AssetAnalyticsSnapshot.Data;
+import com.project.backend.util.CategoryCooccurrence;
+import com.project.backend.util.RoaringBitmap;
+import com.project.backend.util.SpaceSaving;
+import com.project.backend.util.TechnologyCategories;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static com.project.backend.service.AssetAnalyticsSnapshot.NO_DATE;
+import static com.project.backend.service.AssetAnalyticsSnapshot.NULL_ID;
+
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final int EXACT = Integer.MIN_VALUE;
+
     private final IPAssetRepository ipAssetRepository;
+    private final DashboardQueryService dashboardQueries;
+    private final AssetAnalyticsSnapshot snapshot;
+    private final AssetCounterStore counterStore;
+    private final AssetLeaderboards leaderboards;
+
+    // Row ordinals of the snapshot that belong to the requested technology landscape
+    private int[] getRowsForLandscape(Data d, String field) {
+        String key = TechnologyCategories.landscapeKey(field);
+        if (key == null) {
+            return allRows(d);
+        }
 
-    private String getSmartCategoryName(String code) {
-        if (code == null || code.trim().isEmpty()) return "Unclassified";
-        String clean = code.trim().toUpperCase();
-
-        if (clean.contains("G06N") || clean.contains("CLASS 12") || clean.contains("12") || clean.contains("AI") || clean.contains("INTELLIGENCE") || clean.contains("MACHINE")) 
-            return "Artificial Intelligence";
-        
-        if (clean.contains("G06F") || clean.contains("CLASS 25") || clean.contains("25") || clean.contains("CLOUD") || clean.contains("COMPUTING")) 
-            return "Cloud Computing";
-        
-        if (clean.contains("H04W") || clean.contains("CLASS 28") || clean.contains("28") || clean.contains("5G") || clean.contains("WIRELESS")) 
-            return "5G & Wireless";
-        
-        if (clean.contains("A61K") || clean.contains("C12N") || clean.contains("CLASS 1") || clean.contains("1B") || clean.contains("BIO") || clean.contains("PHARMA")) 
-            return "Biotech & Pharma";
-        
-        if (clean.contains("B60") || clean.contains("CLASS 38") || clean.contains("38") || clean.contains("ELECTRIC") || clean.contains("VEHICLE")) 
-            return "Electric Vehicles";
-        
-        if (clean.contains("H02S") || clean.contains("CLASS 41") || clean.contains("41") || clean.contains("SOLAR") || clean.contains("RENEWABLE")) 
-            return "Renewable Energy";
-        
-        if (clean.contains("B25J") || clean.contains("ROBOT")) 
-            return "Robotics";
-            
-        if (clean.contains("H01L") || clean.contains("SEMICONDUCTOR")) 
-            return "Semiconductors";
-            
-        if (clean.contains("H04L") || clean.contains("SECURITY") || clean.contains("CYBER")) 
-            return "Cybersecurity";
-
-        return "Other Technologies"; 
-    }
-
-    private List<IPAsset> getAssetsForLandscape(String field) {
-        List<IPAsset> allAssets = ipAssetRepository.findAll();
-
-        if (field == null || field.equalsIgnoreCase("all") || field.equalsIgnoreCase("All Technologies")) {
-            return allAssets;
-        }
-
-        String searchKey = field.toUpperCase();
-        if (searchKey.contains("AI") || searchKey.contains("INTELLIGENCE")) searchKey = "ARTIFICIAL INTELLIGENCE";
-        else if (searchKey.contains("BIO") || searchKey.contains("PHARMA")) searchKey = "BIOTECH & PHARMA";
-        else if (searchKey.contains("5G") || searchKey.contains("WIRELESS")) searchKey = "5G & WIRELESS";
-        else if (searchKey.contains("CLOUD")) searchKey = "CLOUD COMPUTING";
-        else if (searchKey.contains("ELECTRIC") || searchKey.contains("VEHICLE")) searchKey = "ELECTRIC VEHICLES";
-        
-        String finalSearch = searchKey;
-
-        return allAssets.stream()
-                .filter(a -> {
-                    if (a.getAssetClass() == null) return false;
-                    String rawClass = a.getAssetClass().toUpperCase();
-                    String smartName = getSmartCategoryName(rawClass).toUpperCase();
-                    return rawClass.contains(finalSearch) || smartName.contains(finalSearch);
-                })
-                .collect(Collectors.toList());
+        // Stored category masks answer the category part; raw class codes are matched once per distinct class
+        int keyMask = TechnologyCategories.maskForLandscapeKey(key);
+        boolean[] classMatches = d.assetClasses.matching(raw -> raw.toUpperCase().contains(key));
+
+        int[] rows = new int[d.size];
+        int n = 0;
+        for (int r = 0; r < d.size; r++) {
+            if (d.assetClass[r] == NULL_ID) continue;
+            if ((d.categoryMask[r] & keyMask) != 0 || classMatches[d.assetClass[r]]) rows[n++] = r;
+        }
+        return Arrays.copyOf(rows, n);
     }
 
     public Map<String, Object> getDashboardStats() {
@@ -83,39 +61,42 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getDashboardSummary(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> filteredAssets = getFilteredAssets(dateRange, type, jurisdiction);
-        
-        long totalFilings = filteredAssets.size();
-        
-        long activePatents = filteredAssets.stream()
-                .filter(a -> isStatusActive(a.getStatus()))
-                .count();
-                
-        long pendingApplications = filteredAssets.stream()
-                .filter(a -> a.getStatus() != null && "PENDING".equalsIgnoreCase(a.getStatus().trim()))
-                .count();
-                
-        long expiringSoon = filteredAssets.stream()
-                .filter(this::isExpiringSoon)
-                .count();
+        if (counterStore.isLoaded()) {
+            return getDashboardSummaryFromCounters(dateRange, type, jurisdiction);
+        }
+        if (!snapshot.isLoaded()) {
+            return getDashboardSummaryFromDatabase(dateRange, type, jurisdiction);
+        }
+        Data d = snapshot.current();
+        RoaringBitmap rows = filteredRows(d, dateRange, type, jurisdiction);
+
+        // Every figure is the cardinality of an intersection, the rows themselves are never visited
+        ExpiryWindow expiry = new ExpiryWindow(LocalDate.now());
+        long activePatents = rows.andCardinality(d.rowsWhere(d.statuses, d.bitmaps.byStatus, AnalyticsService::isStatusActive));
+        long pendingApplications = rows.andCardinality(
+                d.rowsWhere(d.statuses, d.bitmaps.byStatus, s -> "PENDING".equalsIgnoreCase(s.trim())));
+        long expiringSoon = rows.andCardinality(d.rowsFiledFrom((int) expiry.firstFilingDate().toEpochDay()))
+                - rows.andCardinality(d.rowsFiledFrom((int) expiry.lastFilingDateExclusive().toEpochDay()));
 
         Map<String, Object> summary = new HashMap<>();
-        summary.put("totalFilings", totalFilings);
+        summary.put("totalFilings", (long) rows.cardinality());
         summary.put("activePatents", activePatents);
         summary.put("pendingApplications", pendingApplications);
         summary.put("expiringSoon", expiringSoon);
-        
+
         return summary;
     }
 
     public Map<String, Object> getStatusDistribution(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> assets = getFilteredAssets(dateRange, type, jurisdiction);
-        
-        Map<String, Long> statusCounts = assets.stream()
-                .collect(Collectors.groupingBy(
-                        a -> a.getStatus() != null ? a.getStatus().toUpperCase() : "UNKNOWN",
-                        Collectors.counting()
-                ));
+        Function<String, String> nameOf = s -> s != null ? s.toUpperCase() : "UNKNOWN";
+        Map<String, Long> statusCounts;
+        if (snapshot.isLoaded()) {
+            Data d = snapshot.current();
+            statusCounts = countByName(d.statuses, d.bitmaps.byStatus, filteredRows(d, dateRange, type, jurisdiction), nameOf);
+        } else {
+            statusCounts = countByName(dashboardQueries.countByStatus(
+                    getCutoffTime(dateRange), orNull(type), orNull(jurisdiction)), nameOf);
+        }
 
         List<Map<String, Object>> distribution = statusCounts.entrySet().stream()
                 .map(entry -> {
@@ -133,34 +114,41 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getFilingsTrend(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> assets = getFilteredAssets(dateRange, type, jurisdiction);
-        
-        Map<YearMonth, Long> monthlyPatents = new TreeMap<>();
-        Map<YearMonth, Long> monthlyTrademarks = new TreeMap<>();
-
-        for (IPAsset asset : assets) {
-            if (asset.getFilingDate() != null) {
-                YearMonth ym = YearMonth.from(asset.getFilingDate());
-                String assetType = asset.getType() != null ? asset.getType() : "PATENT";
-                
-                if ("PATENT".equalsIgnoreCase(assetType)) {
-                    monthlyPatents.merge(ym, 1L, Long::sum);
+        // long[] { patents, trademarks } per month index; assets without a type are counted as patents
+        Map<Integer, long[]> monthly = new TreeMap<>();
+
+        if (counterStore.isLoaded()) {
+            monthly = counterStore.countByMonth(bucketFilter(type, jurisdiction), getCutoff(dateRange),
+                    key -> key.type() == null || "PATENT".equalsIgnoreCase(key.type()) ? 0 : 1, 2);
+        } else if (snapshot.isLoaded()) {
+            Data d = snapshot.current();
+            boolean[] patentType = d.types.matching("PATENT"::equalsIgnoreCase);
+            for (int r : getFilteredRows(d, dateRange, type, jurisdiction)) {
+                int month = d.filingMonth[r];
+                if (month == NO_DATE) continue;
+                long[] counts = monthly.computeIfAbsent(month, m -> new long[2]);
+                if (d.type[r] == NULL_ID || patentType[d.type[r]]) {
+                    counts[0]++;
                 } else {
-                    monthlyTrademarks.merge(ym, 1L, Long::sum);
+                    counts[1]++;
                 }
             }
+        } else {
+            for (Object[] row : dashboardQueries.countByMonthAndType(
+                    getCutoffTime(dateRange), orNull(type), orNull(jurisdiction))) {
+                int month = AssetAnalyticsSnapshot.monthIndex(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+                String rowType = (String) row[2];
+                long[] counts = monthly.computeIfAbsent(month, m -> new long[2]);
+                counts[rowType == null || "PATENT".equalsIgnoreCase(rowType) ? 0 : 1] += ((Number) row[3]).longValue();
+            }
         }
 
         List<Map<String, Object>> trend = new ArrayList<>();
-        Set<YearMonth> allMonths = new TreeSet<>();
-        allMonths.addAll(monthlyPatents.keySet());
-        allMonths.addAll(monthlyTrademarks.keySet());
-
-        for (YearMonth ym : allMonths) {
+        for (Map.Entry<Integer, long[]> entry : monthly.entrySet()) {
             Map<String, Object> item = new HashMap<>();
-            item.put("month", ym.format(DateTimeFormatter.ofPattern("MMM yyyy")));
-            item.put("patents", monthlyPatents.getOrDefault(ym, 0L));
-            item.put("trademarks", monthlyTrademarks.getOrDefault(ym, 0L));
+            item.put("month", toYearMonth(entry.getKey()).format(MONTH_FORMAT));
+            item.put("patents", entry.getValue()[0]);
+            item.put("trademarks", entry.getValue()[1]);
             trend.add(item);
         }
 
@@ -174,13 +162,16 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getJurisdictionBreakdown(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> assets = getFilteredAssets(dateRange, type, jurisdiction);
-        
-        Map<String, Long> jurisdictionCounts = assets.stream()
-                .collect(Collectors.groupingBy(
-                        a -> a.getJurisdiction() != null ? a.getJurisdiction() : "Global",
-                        Collectors.counting()
-                ));
+        Function<String, String> nameOf = j -> j != null ? j : "Global";
+        Map<String, Long> jurisdictionCounts;
+        if (snapshot.isLoaded()) {
+            Data d = snapshot.current();
+            jurisdictionCounts = countByName(d.jurisdictions, d.bitmaps.byJurisdiction,
+                    filteredRows(d, dateRange, type, jurisdiction), nameOf);
+        } else {
+            jurisdictionCounts = countByName(dashboardQueries.countByJurisdiction(
+                    getCutoffTime(dateRange), orNull(type), orNull(jurisdiction)), nameOf);
+        }
 
         List<Map<String, Object>> breakdown = jurisdictionCounts.entrySet().stream()
                 .map(entry -> {
@@ -198,34 +189,42 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getStatusTimeline(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> assets = getFilteredAssets(dateRange, type, jurisdiction);
-        
-        Map<String, Map<String, Long>> quarterlyStatus = new TreeMap<>();
-
-        for (IPAsset asset : assets) {
-            if (asset.getFilingDate() != null) {
-                int year = asset.getFilingDate().getYear();
-                int quarter = (asset.getFilingDate().getMonthValue() - 1) / 3 + 1;
-                String key = "Q" + quarter + " " + year;
-                
-                quarterlyStatus.putIfAbsent(key, new HashMap<>());
-                Map<String, Long> statusMap = quarterlyStatus.get(key);
-                
-                if (isStatusActive(asset.getStatus())) {
-                    statusMap.merge("granted", 1L, Long::sum);
-                } 
-                else if ("PENDING".equalsIgnoreCase(asset.getStatus())) {
-                    statusMap.merge("filed", 1L, Long::sum);
-                }
+        // long[] { granted, filed, other } per filing month, rolled up to { granted, filed } per quarter
+        Map<Integer, long[]> monthly;
+        if (counterStore.isLoaded()) {
+            monthly = counterStore.countByMonth(bucketFilter(type, jurisdiction), getCutoff(dateRange),
+                    key -> isStatusActive(key.status()) ? 0 : "PENDING".equalsIgnoreCase(key.status()) ? 1 : 2, 3);
+        } else {
+            Data d = snapshot.current();
+            boolean[] active = d.statuses.matching(AnalyticsService::isStatusActive);
+            boolean[] pending = d.statuses.matching("PENDING"::equalsIgnoreCase);
+            monthly = new TreeMap<>();
+            for (int r : getFilteredRows(d, dateRange, type, jurisdiction)) {
+                int month = d.filingMonth[r];
+                if (month == NO_DATE) continue;
+                int column = flag(active, d.status[r]) ? 0 : flag(pending, d.status[r]) ? 1 : 2;
+                monthly.computeIfAbsent(month, m -> new long[3])[column]++;
             }
         }
 
+        // Keyed by year * 4 + quarter so the quarters come out in calendar order
+        Map<Integer, long[]> quarterly = new TreeMap<>();
+        for (Map.Entry<Integer, long[]> entry : monthly.entrySet()) {
+            long[] counts = quarterly.computeIfAbsent(entry.getKey() / 3, q -> new long[2]);
+            counts[0] += entry.getValue()[0];
+            counts[1] += entry.getValue()[1];
+        }
+        Map<String, long[]> quarterlyStatus = new LinkedHashMap<>();
+        for (Map.Entry<Integer, long[]> entry : quarterly.entrySet()) {
+            quarterlyStatus.put("Q" + (entry.getKey() % 4 + 1) + " " + (entry.getKey() / 4), entry.getValue());
+        }
+
         List<Map<String, Object>> timeline = quarterlyStatus.entrySet().stream()
                 .map(entry -> {
                     Map<String, Object> item = new HashMap<>();
                     item.put("quarter", entry.getKey());
-                    item.put("granted", entry.getValue().getOrDefault("granted", 0L));
-                    item.put("filed", entry.getValue().getOrDefault("filed", 0L));
+                    item.put("granted", entry.getValue()[0]);
+                    item.put("filed", entry.getValue()[1]);
                     return item;
                 })
                 .collect(Collectors.toList());
@@ -254,10 +253,23 @@ public class AnalyticsService {
     }
 
     public List<Map<String, Object>> getUpcomingDeadlines() {
-        return ipAssetRepository.findAll().stream()
-                .filter(this::isExpiringSoon)
-                .sorted(Comparator.comparing(IPAsset::getFilingDate))
+        Data d = snapshot.current();
+        ExpiryWindow expiry = new ExpiryWindow(LocalDate.now());
+
+        List<Integer> expiringRows = new ArrayList<>();
+        for (int r = 0; r < d.size; r++) {
+            if (expiry.contains(d.filingDay[r])) expiringRows.add(r);
+        }
+
+        // Only the ten rows that are actually shown get hydrated into entities
+        List<Integer> ids = expiringRows.stream()
+                .sorted(Comparator.comparingInt(r -> d.filingDay[r]))
                 .limit(10)
+                .map(r -> d.ids[r])
+                .collect(Collectors.toList());
+
+        return loadInOrder(ids).stream()
+                .filter(asset -> asset.getFilingDate() != null)
                 .map(asset -> {
                     Map<String, Object> item = new HashMap<>();
                     item.put("id", asset.getId());
@@ -270,31 +282,29 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getClassificationTrends(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
-
-        Map<String, Long> classificationCounts = new HashMap<>();
-        for (IPAsset asset : assets) {
-            if (asset.getAssetClass() != null && !asset.getAssetClass().isEmpty()) {
-                String[] codes = asset.getAssetClass().split(",");
-                Set<String> uniqueCategoriesForAsset = new HashSet<>();
-                for (String code : codes) {
-                    uniqueCategoriesForAsset.add(getSmartCategoryName(code));
-                }
-                
-                for (String category : uniqueCategoriesForAsset) {
-                    classificationCounts.merge(category, 1L, Long::sum);
-                }
+        Data d = snapshot.current();
+        int[] rows = getRowsForLandscape(d, field);
+
+        long[] categoryCounts = new long[TechnologyCategories.COUNT];
+        for (int r : rows) {
+            int mask = d.categoryMask[r];
+            while (mask != 0) {
+                categoryCounts[Integer.numberOfTrailingZeros(mask)]++;
+                mask &= mask - 1;
             }
         }
 
-        List<Map<String, Object>> trends = classificationCounts.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("code", entry.getKey()); 
-                    item.put("count", entry.getValue());
-                    item.put("description", "Technology Field");
-                    return item;
-                })
+        List<Map<String, Object>> trends = new ArrayList<>();
+        for (int c = 0; c < categoryCounts.length; c++) {
+            if (categoryCounts[c] == 0) continue;
+            Map<String, Object> item = new HashMap<>();
+            item.put("code", TechnologyCategories.name(c));
+            item.put("count", categoryCounts[c]);
+            item.put("description", "Technology Field");
+            trends.add(item);
+        }
+
+        trends = trends.stream()
                 .sorted((a, b) -> Long.compare((Long)b.get("count"), (Long)a.get("count")))
                 .limit(topN != null ? topN : 10)
                 .collect(Collectors.toList());
@@ -305,45 +315,49 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getTechnologyConvergence(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
-        
-        Map<String, Set<String>> fieldCooccurrence = new HashMap<>();
-        
-        for (IPAsset asset : assets) {
-            if (asset.getAssetClass() != null && !asset.getAssetClass().isEmpty()) {
-                String[] rawFields = asset.getAssetClass().split(",");
-                Set<String> uniqueCategories = new HashSet<>();
-                
-                for(String rf : rawFields) {
-                    uniqueCategories.add(getSmartCategoryName(rf));
-                }
-                List<String> fields = new ArrayList<>(uniqueCategories);
-
-                if (fields.size() > 1) {
-                    for (int i = 0; i < fields.size(); i++) {
-                        String field1 = fields.get(i);
-                        for (int j = i + 1; j < fields.size(); j++) {
-                            String field2 = fields.get(j);
-                            String key = field1.compareTo(field2) < 0 ? field1 + "|" + field2 : field2 + "|" + field1;
-                            fieldCooccurrence.putIfAbsent(key, new HashSet<>());
-                            fieldCooccurrence.get(key).add(asset.getAssetNumber());
-                        }
+        String key = TechnologyCategories.landscapeKey(field);
+        int landscapeMask = key == null ? CategoryCooccurrence.ALL : TechnologyCategories.maskForLandscapeKey(key);
+
+        long[] overlap;
+        if (counterStore.isLoaded() && landscapeMask != 0) {
+            // Maintained incrementally; the landscape is matched on category masks only
+            overlap = counterStore.cooccurrence(landscapeMask);
+        } else {
+            // Landscapes only matched by raw class text need the rows
+            Data d = snapshot.current();
+            overlap = new long[CategoryCooccurrence.PAIRS];
+            for (int r : getRowsForLandscape(d, field)) {
+                int mask = d.categoryMask[r];
+                if (Integer.bitCount(mask) < 2) continue;
+                for (int i = 0; i < TechnologyCategories.COUNT; i++) {
+                    if ((mask & (1 << i)) == 0) continue;
+                    for (int j = i + 1; j < TechnologyCategories.COUNT; j++) {
+                        if ((mask & (1 << j)) != 0) overlap[CategoryCooccurrence.index(i, j)]++;
                     }
                 }
             }
         }
 
-        List<Map<String, Object>> convergence = fieldCooccurrence.entrySet().stream()
-                .map(entry -> {
-                    String[] f = entry.getKey().split("\\|");
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("field1", f[0]);
-                    item.put("field2", f[1]);
-                    item.put("overlapCount", entry.getValue().size());
-                    item.put("strength", Math.min(100, entry.getValue().size() * 5));
-                    return item;
-                })
-                .sorted((a, b) -> Integer.compare((Integer)b.get("overlapCount"), (Integer)a.get("overlapCount")))
+        List<Map<String, Object>> convergence = new ArrayList<>();
+        for (int i = 0; i < TechnologyCategories.COUNT; i++) {
+            for (int j = i + 1; j < TechnologyCategories.COUNT; j++) {
+                long count = overlap[CategoryCooccurrence.index(i, j)];
+                if (count <= 0) continue;
+                String name1 = TechnologyCategories.name(i);
+                String name2 = TechnologyCategories.name(j);
+                boolean ordered = name1.compareTo(name2) < 0;
+
+                Map<String, Object> item = new HashMap<>();
+                item.put("field1", ordered ? name1 : name2);
+                item.put("field2", ordered ? name2 : name1);
+                item.put("overlapCount", count);
+                item.put("strength", Math.min(100, count * 5));
+                convergence.add(item);
+            }
+        }
+
+        convergence = convergence.stream()
+                .sorted((a, b) -> Long.compare((Long)b.get("overlapCount"), (Long)a.get("overlapCount")))
                 .limit(topN != null ? topN : 15)
                 .collect(Collectors.toList());
 
@@ -353,72 +367,129 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getCompetitorAnalysis(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
+        return getCompetitorAnalysis(field, topN, "auto");
+    }
+
+    /**
+     * @param mode exact (rank from the snapshot), approximate (streaming sketch) or auto:
+     *             the sketch for landscapes larger than app.leaderboard.exact-max-assets
+     */
+    public Map<String, Object> getCompetitorAnalysis(String field, Integer topN, String mode) {
+        int limit = topN != null ? topN : 10;
+        int category = sketchCategory(field, mode);
+        if (category != EXACT) {
+            return getCompetitorAnalysisFromSketch(category, limit);
+        }
 
-        Map<String, List<IPAsset>> assigneeMap = assets.stream()
-                .filter(a -> a.getAssignee() != null && !a.getAssignee().isEmpty())
-                .collect(Collectors.groupingBy(IPAsset::getAssignee));
+        Data d = snapshot.current();
+        int[] rows = getRowsForLandscape(d, field);
 
         int currentYear = LocalDate.now().getYear();
         int lastYear = currentYear - 1;
 
-        List<Map<String, Object>> competitors = assigneeMap.entrySet().stream()
-                .map(entry -> {
-                    String name = entry.getKey();
-                    List<IPAsset> assigneeAssets = entry.getValue();
-
-                    long total = assigneeAssets.size();
-                    long active = assigneeAssets.stream()
-                            .filter(a -> isStatusActive(a.getStatus()))
-                            .count();
-
-                    long thisYearCount = assigneeAssets.stream()
-                            .filter(a -> a.getFilingDate() != null && a.getFilingDate().getYear() == currentYear)
-                            .count();
-                    long lastYearCount = assigneeAssets.stream()
-                            .filter(a -> a.getFilingDate() != null && a.getFilingDate().getYear() == lastYear)
-                            .count();
-
-                    double growth;
-                    if (lastYearCount == 0) {
-                        growth = thisYearCount > 0 ? 100.0 : 0.0;
-                    } else {
-                        growth = ((double) (thisYearCount - lastYearCount) / lastYearCount) * 100.0;
-                    }
+        boolean[] active = d.statuses.matching(AnalyticsService::isStatusActive);
+        boolean[] named = d.assignees.matching(a -> !a.isEmpty());
+        int assignees = d.assignees.size();
+        long[] total = new long[assignees];
+        long[] activeCount = new long[assignees];
+        long[] thisYearCount = new long[assignees];
+        long[] lastYearCount = new long[assignees];
+
+        for (int r : rows) {
+            int a = d.assignee[r];
+            if (!flag(named, a)) continue;
+            total[a]++;
+            if (flag(active, d.status[r])) activeCount[a]++;
+            int month = d.filingMonth[r];
+            if (month != NO_DATE) {
+                int year = month / 12;
+                if (year == currentYear) thisYearCount[a]++;
+                else if (year == lastYear) lastYearCount[a]++;
+            }
+        }
 
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("assignee", name);
-                    item.put("patentCount", total);
-                    item.put("activeCount", active);
-                    item.put("growth", Math.round(growth * 100.0) / 100.0);
-                    return item;
-                })
+        List<Map<String, Object>> competitors = new ArrayList<>();
+        for (int a = 0; a < assignees; a++) {
+            if (total[a] == 0) continue;
+
+            double growth;
+            if (lastYearCount[a] == 0) {
+                growth = thisYearCount[a] > 0 ? 100.0 : 0.0;
+            } else {
+                growth = ((double) (thisYearCount[a] - lastYearCount[a]) / lastYearCount[a]) * 100.0;
+            }
+
+            Map<String, Object> item = new HashMap<>();
+            item.put("assignee", d.assignees.decode(a));
+            item.put("patentCount", total[a]);
+            item.put("activeCount", activeCount[a]);
+            item.put("growth", Math.round(growth * 100.0) / 100.0);
+            competitors.add(item);
+        }
+
+        competitors = competitors.stream()
                 .sorted((a, b) -> Long.compare((Long)b.get("patentCount"), (Long)a.get("patentCount")))
-                .limit(topN != null ? topN : 10)
+                .limit(limit)
                 .collect(Collectors.toList());
 
         Map<String, Object> result = new HashMap<>();
         result.put("data", competitors);
+        result.put("mode", "exact");
         return result;
     }
 
+    // Counts are upper bounds, each item's "error" says by how much they may overestimate
+    private Map<String, Object> getCompetitorAnalysisFromSketch(int category, int limit) {
+        AssetLeaderboards.Leaderboard board = leaderboards.topAssignees(category, limit);
+        List<Map<String, Object>> competitors = new ArrayList<>();
+        for (SpaceSaving.Entry<String> e : board.entries()) {
+            long thisYear = e.extras()[AssetLeaderboards.FILED_THIS_YEAR];
+            long lastYear = e.extras()[AssetLeaderboards.FILED_LAST_YEAR];
+            double growth = lastYear == 0
+                    ? (thisYear > 0 ? 100.0 : 0.0)
+                    : ((double) (thisYear - lastYear) / lastYear) * 100.0;
+
+            Map<String, Object> item = new HashMap<>();
+            item.put("assignee", e.item());
+            item.put("patentCount", e.count());
+            item.put("activeCount", e.extras()[AssetLeaderboards.ACTIVE]);
+            item.put("growth", Math.round(growth * 100.0) / 100.0);
+            item.put("error", e.error());
+            competitors.add(item);
+        }
+        return sketchResult(competitors, board);
+    }
+
     public Map<String, Object> getInnovationTrends(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
+        String key = TechnologyCategories.landscapeKey(field);
+        int landscapeMask = key == null ? CategoryCooccurrence.ALL : TechnologyCategories.maskForLandscapeKey(key);
 
         Map<Integer, Long> yearlyInnovations = new TreeMap<>();
-        for (IPAsset asset : assets) {
-            if (asset.getFilingDate() != null) {
-                yearlyInnovations.merge(asset.getFilingDate().getYear(), 1L, Long::sum);
+        if (counterStore.isLoaded() && landscapeMask != 0) {
+            // Yearly rollup of the monthly cube; the landscape is matched on category masks only
+            Map<Integer, long[]> monthly = counterStore.countByMonth(
+                    bucket -> landscapeMask == CategoryCooccurrence.ALL || (bucket.categoryMask() & landscapeMask) != 0,
+                    null, bucket -> 0, 1);
+            for (Map.Entry<Integer, long[]> entry : monthly.entrySet()) {
+                yearlyInnovations.merge(entry.getKey() / 12, entry.getValue()[0], Long::sum);
+            }
+        } else {
+            Data d = snapshot.current();
+            for (int r : getRowsForLandscape(d, field)) {
+                int month = d.filingMonth[r];
+                if (month != NO_DATE) {
+                    yearlyInnovations.merge(month / 12, 1L, Long::sum);
+                }
             }
         }
 
         List<Map<String, Object>> trends = new ArrayList<>();
-        Long prevCount = null; 
+        Long prevCount = null;
         for (Map.Entry<Integer, Long> entry : yearlyInnovations.entrySet()) {
             Map<String, Object> item = new HashMap<>();
             item.put("year", entry.getKey());
             item.put("innovations", entry.getValue());
-            
+
             if (prevCount != null && prevCount > 0) {
                 double growthRate = ((double)(entry.getValue() - prevCount) / prevCount) * 100.0;
                 item.put("growthRate", Math.round(growthRate * 100.0) / 100.0);
@@ -435,32 +506,94 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getTopInventors(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
+        return getTopInventors(field, topN, "auto");
+    }
 
-        Map<String, Long> inventorCounts = assets.stream()
-                .filter(a -> a.getInventor() != null && !a.getInventor().isEmpty())
-                .collect(Collectors.groupingBy(IPAsset::getInventor, Collectors.counting()));
+    public Map<String, Object> getTopInventors(String field, Integer topN, String mode) {
+        int limit = topN != null ? topN : 10;
+        int category = sketchCategory(field, mode);
+        if (category != EXACT) {
+            AssetLeaderboards.Leaderboard board = leaderboards.topInventors(category, limit);
+            List<Map<String, Object>> inventors = new ArrayList<>();
+            for (SpaceSaving.Entry<String> e : board.entries()) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("name", e.item());
+                item.put("patentCount", e.count());
+                item.put("error", e.error());
+                inventors.add(item);
+            }
+            return sketchResult(inventors, board);
+        }
 
-        List<Map<String, Object>> inventors = inventorCounts.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("name", entry.getKey());
-                    item.put("patentCount", entry.getValue());
-                    return item;
-                })
+        Data d = snapshot.current();
+        int[] rows = getRowsForLandscape(d, field);
+
+        boolean[] named = d.inventors.matching(i -> !i.isEmpty());
+        long[] inventorCounts = new long[d.inventors.size()];
+        for (int r : rows) {
+            if (flag(named, d.inventor[r])) inventorCounts[d.inventor[r]]++;
+        }
+
+        List<Map<String, Object>> inventors = new ArrayList<>();
+        for (int i = 0; i < inventorCounts.length; i++) {
+            if (inventorCounts[i] == 0) continue;
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", d.inventors.decode(i));
+            item.put("patentCount", inventorCounts[i]);
+            inventors.add(item);
+        }
+
+        inventors = inventors.stream()
                 .sorted((a, b) -> Long.compare((Long)b.get("patentCount"), (Long)a.get("patentCount")))
-                .limit(topN != null ? topN : 10)
+                .limit(limit)
                 .collect(Collectors.toList());
 
         Map<String, Object> result = new HashMap<>();
         result.put("data", inventors);
+        result.put("mode", "exact");
+        return result;
+    }
+
+    /**
+     * Which leaderboard sketch answers the landscape: -1 for all technologies, a category id,
+     * or EXACT when the snapshot has to be scanned. Sketches exist per single category, so
+     * landscapes spanning several categories (or none) are always exact, as are small ones
+     * in auto mode and everything while the sketches are not loaded or are a year behind.
+     */
+    private int sketchCategory(String field, String mode) {
+        if ("exact".equalsIgnoreCase(mode) || !leaderboards.isLoaded()
+                || leaderboards.year() != LocalDate.now().getYear()) {
+            return EXACT;
+        }
+        String key = TechnologyCategories.landscapeKey(field);
+        int category = -1;
+        if (key != null) {
+            int mask = TechnologyCategories.maskForLandscapeKey(key);
+            if (Integer.bitCount(mask) != 1) return EXACT;
+            category = Integer.numberOfTrailingZeros(mask);
+        }
+        if ("approximate".equalsIgnoreCase(mode) || !snapshot.isLoaded()) {
+            return category;
+        }
+        Data d = snapshot.current();
+        long assets = category < 0 ? d.size : d.bitmaps.byCategory[category].cardinality();
+        return assets <= leaderboards.exactMaxAssets() ? EXACT : category;
+    }
+
+    private Map<String, Object> sketchResult(List<Map<String, Object>> data, AssetLeaderboards.Leaderboard board) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("data", data);
+        result.put("mode", "approximate");
+        result.put("errorBound", board.errorBound());
+        result.put("total", board.total());
         return result;
     }
 
     public Map<String, Object> getLifecycleAnalysis(String field, Integer topN) {
-        List<IPAsset> assets = getAssetsForLandscape(field);
+        Data d = snapshot.current();
+        int[] rows = getRowsForLandscape(d, field);
 
-        if (assets.isEmpty()) {
+        if (rows.length == 0) {
             Map<String, Object> empty = new HashMap<>();
             empty.put("avgLifespan", 0);
             empty.put("activePhase", 0);
@@ -468,21 +601,23 @@ public class AnalyticsService {
             return empty;
         }
 
+        boolean[] active = d.statuses.matching(AnalyticsService::isStatusActive);
+        long today = LocalDate.now().toEpochDay();
         double totalAgeInYears = 0;
         long activeCount = 0;
         int countWithDates = 0;
 
-        for (IPAsset asset : assets) {
-            if (asset.getFilingDate() != null) {
-                long days = ChronoUnit.DAYS.between(asset.getFilingDate().toLocalDate(), LocalDate.now());
+        for (int r : rows) {
+            if (d.filingDay[r] != NO_DATE) {
+                long days = today - d.filingDay[r];
                 totalAgeInYears += (days / 365.0);
                 countWithDates++;
-                if (isStatusActive(asset.getStatus())) activeCount++;
+                if (flag(active, d.status[r])) activeCount++;
             }
         }
 
         double avgLifespan = countWithDates > 0 ? (totalAgeInYears / countWithDates) : 0.0;
-        double maturityRate = (double) activeCount / assets.size() * 100.0;
+        double maturityRate = (double) activeCount / rows.length * 100.0;
 
         Map<String, Object> lifecycle = new HashMap<>();
         lifecycle.put("avgLifespan", Math.round(avgLifespan * 10.0) / 10.0);
@@ -499,32 +634,41 @@ public class AnalyticsService {
         if (category != null && category.startsWith("Category:")) {
              return getAssetsByCategory(category.replace("Category:", "").trim(), dateRange, type, jurisdiction);
         }
-        
-        List<IPAsset> filteredAssets = getFilteredAssets(dateRange, type, jurisdiction);
-        List<IPAsset> finalAssets = filteredAssets;
-        
-        if (category != null && !category.isEmpty()) {
-             String search = category.toUpperCase();
-             
-             if (search.equals("ACTIVE") || search.equals("PENDING") || search.equals("EXPIRING")) {
-                 finalAssets = filteredAssets.stream()
-                    .filter(a -> {
-                        if (search.equals("ACTIVE")) return isStatusActive(a.getStatus());
-                        if (search.equals("PENDING")) return "PENDING".equalsIgnoreCase(a.getStatus());
-                        if (search.equals("EXPIRING")) return isExpiringSoon(a);
-                        return true;
-                    }).collect(Collectors.toList());
-             }
-             else {
-                 String searchLower = category.toLowerCase();
-                 finalAssets = filteredAssets.stream()
-                    .filter(a -> (a.getTitle() != null && a.getTitle().toLowerCase().contains(searchLower)) ||
-                                 (a.getAssetClass() != null && (a.getAssetClass().toLowerCase().contains(searchLower) || getSmartCategoryName(a.getAssetClass()).toLowerCase().contains(searchLower))) ||
-                                 (a.getAssignee() != null && a.getAssignee().toLowerCase().contains(searchLower)) ||
-                                 (a.getInventor() != null && a.getInventor().toLowerCase().contains(searchLower)) ||
-                                 (a.getDetails() != null && a.getDetails().toLowerCase().contains(searchLower))) 
-                    .collect(Collectors.toList());
-             }
+
+        List<IPAsset> finalAssets;
+        String search = category != null ? category.toUpperCase() : "";
+
+        if (search.isEmpty() || search.equals("ACTIVE") || search.equals("PENDING") || search.equals("EXPIRING")) {
+            // Status drill-downs resolve on the snapshot; only the returned page is loaded
+            Data d = snapshot.current();
+            boolean[] active = d.statuses.matching(AnalyticsService::isStatusActive);
+            boolean[] pending = d.statuses.matching("PENDING"::equalsIgnoreCase);
+            ExpiryWindow expiry = new ExpiryWindow(LocalDate.now());
+
+            List<Integer> ids = new ArrayList<>();
+            for (int r : getFilteredRows(d, dateRange, type, jurisdiction)) {
+                boolean match;
+                if (search.equals("ACTIVE")) match = flag(active, d.status[r]);
+                else if (search.equals("PENDING")) match = flag(pending, d.status[r]);
+                else if (search.equals("EXPIRING")) match = expiry.contains(d.filingDay[r]);
+                else match = true;
+
+                if (match) ids.add(d.ids[r]);
+                if (ids.size() == 100) break;
+            }
+            finalAssets = loadInOrder(ids);
+        }
+        else if (TechnologyCategories.idOf(category) >= 0) {
+            // Technology drill-down from the landscape charts: indexed lookup on the stored categories
+            finalAssets = ipAssetRepository.findByCategory(
+                    TechnologyCategories.name(TechnologyCategories.idOf(category)),
+                    getCutoffTime(dateRange), orNull(type), orNull(jurisdiction),
+                    PageRequest.of(0, 100));
+        }
+        else {
+            // Free text drill-down needs title/details, which the snapshot does not hold
+            finalAssets = loadInOrder(dashboardQueries.searchIds(category,
+                    getCutoffTime(dateRange), orNull(type), orNull(jurisdiction), 100));
         }
 
         List<Map<String, Object>> assetList = finalAssets.stream()
@@ -539,7 +683,7 @@ public class AnalyticsService {
                 m.put("filingDate", a.getFilingDate());
                 m.put("status", a.getStatus());
                 m.put("jurisdiction", a.getJurisdiction());
-                m.put("details", a.getDetails()); 
+                m.put("details", a.getDetails());
                 m.put("inventor", a.getInventor());
                 return m;
             })
@@ -548,38 +692,195 @@ public class AnalyticsService {
         return Map.of("data", assetList, "total", assetList.size());
     }
 
-    private List<IPAsset> getFilteredAssets(String dateRange, String type, String jurisdiction) {
-        List<IPAsset> assets = ipAssetRepository.findAll();
-        LocalDate cutoff = null;
-        
+    public Map<String, Object> getSnapshotStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(snapshot.getStats());
+        stats.put("counters", counterStore.getStats());
+        stats.put("leaderboards", leaderboards.getStats());
+        return stats;
+    }
+
+    // Row ordinals of the snapshot matching the dashboard filters, in ascending order
+    private int[] getFilteredRows(Data d, String dateRange, String type, String jurisdiction) {
+        return filteredRows(d, dateRange, type, jurisdiction).toArray();
+    }
+
+    // The dashboard filters as an intersection of the snapshot's bitmap indexes
+    private RoaringBitmap filteredRows(Data d, String dateRange, String type, String jurisdiction) {
+        RoaringBitmap rows = d.bitmaps.all;
+        LocalDate cutoff = getCutoff(dateRange);
+        if (cutoff != null) {
+            rows = rows.and(d.rowsFiledFrom((int) cutoff.toEpochDay()));
+        }
+        if (!isAll(type)) {
+            rows = rows.and(d.rowsWhere(d.types, d.bitmaps.byType, t -> t.equalsIgnoreCase(type)));
+        }
+        if (!isAll(jurisdiction)) {
+            rows = rows.and(d.rowsWhere(d.jurisdictions, d.bitmaps.byJurisdiction, j -> j.equalsIgnoreCase(jurisdiction)));
+        }
+        return rows;
+    }
+
+    // Dashboard summary from the incrementally maintained bucket counters
+    private Map<String, Object> getDashboardSummaryFromCounters(String dateRange, String type, String jurisdiction) {
+        LocalDate cutoff = getCutoff(dateRange);
+        Predicate<AssetCounterStore.BucketKey> filtered = bucketFilter(type, jurisdiction);
+        ExpiryWindow expiry = new ExpiryWindow(LocalDate.now());
+        LocalDate expiryFrom = cutoff != null && cutoff.isAfter(expiry.firstFilingDate()) ? cutoff : expiry.firstFilingDate();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalFilings", counterStore.count(filtered, cutoff, null));
+        summary.put("activePatents", counterStore.count(filtered.and(key -> isStatusActive(key.status())), cutoff, null));
+        summary.put("pendingApplications", counterStore.count(
+                filtered.and(key -> key.status() != null && "PENDING".equalsIgnoreCase(key.status().trim())), cutoff, null));
+        summary.put("expiringSoon", counterStore.count(filtered, expiryFrom, expiry.lastFilingDateExclusive()));
+        return summary;
+    }
+
+    // The dashboard type / jurisdiction filters on counter buckets
+    private Predicate<AssetCounterStore.BucketKey> bucketFilter(String type, String jurisdiction) {
+        return key -> (isAll(type) || type.equalsIgnoreCase(key.type()))
+                && (isAll(jurisdiction) || jurisdiction.equalsIgnoreCase(key.jurisdiction()));
+    }
+
+    // Dashboard summary computed with SQL aggregates, used while no snapshot is loaded
+    private Map<String, Object> getDashboardSummaryFromDatabase(String dateRange, String type, String jurisdiction) {
+        LocalDateTime cutoff = getCutoffTime(dateRange);
+        long totalFilings = 0;
+        long activePatents = 0;
+        long pendingApplications = 0;
+        for (Object[] row : dashboardQueries.countByStatus(cutoff, orNull(type), orNull(jurisdiction))) {
+            String status = (String) row[0];
+            long count = ((Number) row[1]).longValue();
+            totalFilings += count;
+            if (isStatusActive(status)) activePatents += count;
+            if (status != null && "PENDING".equalsIgnoreCase(status.trim())) pendingApplications += count;
+        }
+
+        // Expiring soon as a filing date range, so it is a single range count on the index
+        ExpiryWindow expiry = new ExpiryWindow(LocalDate.now());
+        long expiringSoon = dashboardQueries.countFiledBetween(
+                expiry.firstFilingDate().atStartOfDay(), expiry.lastFilingDateExclusive().atStartOfDay(),
+                cutoff, orNull(type), orNull(jurisdiction));
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalFilings", totalFilings);
+        summary.put("activePatents", activePatents);
+        summary.put("pendingApplications", pendingApplications);
+        summary.put("expiringSoon", expiringSoon);
+        return summary;
+    }
+
+    private LocalDate getCutoff(String dateRange) {
         if ("week".equalsIgnoreCase(dateRange)) {
-            cutoff = LocalDate.now().minusWeeks(1);
+            return LocalDate.now().minusWeeks(1);
         } else if ("month".equalsIgnoreCase(dateRange)) {
-            cutoff = LocalDate.now().minusMonths(1);
+            return LocalDate.now().minusMonths(1);
         } else if ("quarter".equalsIgnoreCase(dateRange)) {
-            cutoff = LocalDate.now().minusMonths(3);
+            return LocalDate.now().minusMonths(3);
         } else if ("year".equalsIgnoreCase(dateRange)) {
-            cutoff = LocalDate.now().minusYears(1);
+            return LocalDate.now().minusYears(1);
         }
+        return null;
+    }
 
-        LocalDate finalCutoff = cutoff;
-        
-        return assets.stream()
-            .filter(a -> finalCutoff == null || (a.getFilingDate() != null && !a.getFilingDate().toLocalDate().isBefore(finalCutoff)))
-            .filter(a -> type == null || "all".equalsIgnoreCase(type) || (a.getType() != null && a.getType().equalsIgnoreCase(type)))
-            .filter(a -> jurisdiction == null || "all".equalsIgnoreCase(jurisdiction) || (a.getJurisdiction() != null && a.getJurisdiction().equalsIgnoreCase(jurisdiction)))
-            .collect(Collectors.toList());
+    private LocalDateTime getCutoffTime(String dateRange) {
+        LocalDate cutoff = getCutoff(dateRange);
+        return cutoff != null ? cutoff.atStartOfDay() : null;
+    }
+
+    // Loads the given ids and returns them in the same order
+    private List<IPAsset> loadInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Integer, IPAsset> byId = ipAssetRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(IPAsset::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Groups dictionary-encoded values by a derived display name, one intersection count per value
+    private Map<String, Long> countByName(AssetAnalyticsSnapshot.Dictionary dictionary, RoaringBitmap[] index,
+                                          RoaringBitmap rows, Function<String, String> nameOf) {
+        Map<String, Long> byName = new HashMap<>();
+        long nullCount = rows.cardinality();
+        for (int i = 0; i < index.length; i++) {
+            long count = rows.andCardinality(index[i]);
+            nullCount -= count;
+            if (count > 0) byName.merge(nameOf.apply(dictionary.decode(i)), count, Long::sum);
+        }
+        if (nullCount > 0) byName.merge(nameOf.apply(null), nullCount, Long::sum);
+        return byName;
+    }
+
+    // Groups (value, count) aggregate rows by a derived display name
+    private Map<String, Long> countByName(List<Object[]> groupedCounts, Function<String, String> nameOf) {
+        Map<String, Long> byName = new HashMap<>();
+        for (Object[] row : groupedCounts) {
+            byName.merge(nameOf.apply((String) row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        return byName;
+    }
+
+    private int[] allRows(Data d) {
+        int[] rows = new int[d.size];
+        for (int r = 0; r < rows.length; r++) rows[r] = r;
+        return rows;
+    }
+
+    private static boolean flag(boolean[] flags, int id) {
+        return id != NULL_ID && flags[id];
     }
 
-    private boolean isStatusActive(String status) {
+    private static boolean isAll(String value) {
+        return value == null || "all".equalsIgnoreCase(value);
+    }
+
+    // Filter parameter for the repository queries, where null means "all"
+    private static String orNull(String value) {
+        return isAll(value) ? null : value;
+    }
+
+    private static YearMonth toYearMonth(int monthIndex) {
+        return YearMonth.of(monthIndex / 12, monthIndex % 12 + 1);
+    }
+
+    static boolean isStatusActive(String status) {
         if (status == null) return false;
         String s = status.trim().toUpperCase();
         return s.equals("ACTIVE") || s.equals("GRANTED") || s.equals("REGISTERED") || s.equals("LIVE") || s.equals("PUBLISHED");
     }
-    
-    private boolean isExpiringSoon(IPAsset a) {
-        if (a.getFilingDate() == null) return false;
-        LocalDate expiry = a.getFilingDate().toLocalDate().plusYears(20);
-        return expiry.isAfter(LocalDate.now()) && expiry.isBefore(LocalDate.now().plusMonths(6));
+
+    /**
+     * A patent is expiring soon when filing date + 20 years falls in the next six months.
+     * Rows outside the matching filing-date range are rejected on the epoch day alone.
+     */
+    private static final class ExpiryWindow {
+        private final LocalDate today;
+        private final LocalDate horizon;
+        private final long fromDay;
+        private final long toDay;
+
+        ExpiryWindow(LocalDate today) {
+            this.today = today;
+            this.horizon = today.plusMonths(6);
+            this.fromDay = today.minusYears(20).toEpochDay() - 1;
+            this.toDay = horizon.minusYears(20).toEpochDay() + 1;
+        }
+
+        // The same window as a half-open filing date range: filing + 20 years after today and before the horizon
+        LocalDate firstFilingDate() {
+            return today.minusYears(20).plusDays(1);
+        }
+
+        LocalDate lastFilingDateExclusive() {
+            return horizon.minusYears(20);
+        }
+
+        boolean contains(int filingDay) {
+            if (filingDay == NO_DATE || filingDay < fromDay || filingDay > toDay) return false;
+            LocalDate expiry = LocalDate.ofEpochDay(filingDay).plusYears(20);
+            return expiry.isAfter(today) && expiry.isBefore(horizon);
+        }
     }
-}
\ No newline at end of file
+}
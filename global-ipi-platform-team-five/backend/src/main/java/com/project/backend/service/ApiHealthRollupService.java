@@ -0,0 +1,356 @@
+package com.project.backend.service;
+
+import com.project.backend.dto.APIHealthDTO;
+import com.project.backend.entity.APIHealthRollup.Granularity;
+import com.project.backend.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Downsampling of api_health_metrics into api_health_rollups (APIHealthRollup): raw rows are
+ * summed per minute, endpoint and method once they are app.metrics.rollup.lag-seconds old,
+ * and minute rows per hour once the hour is complete. Each tier is kept for its own
+ * retention (raw, minute, hour days), and only after it has been rolled into the next one.
+ * Window queries stitch the tiers together, reading each part of the window from the
+ * coarsest tier that still covers it: hours, then minutes, then raw rows for the tail.
+ * Everything before the watermarks is rolled up; they live in memory and are re-read from
+ * the table after a restart.
+ */
+@Service
+public class ApiHealthRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiHealthRollupService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO api_health_rollups (granularity, bucket_start, endpoint, method, request_count, " +
+            "error_count, sum_ms, min_ms, max_ms, histogram) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, bucket_start, endpoint, method) DO NOTHING";
+
+    // Rows written before endpoint ids carry the request URI instead
+    private static final String RAW_SQL =
+            "SELECT m.timestamp, COALESCE(e.pattern, m.endpoint), m.method, m.response_time, m.success " +
+            "FROM api_health_metrics m LEFT JOIN api_endpoints e ON e.id = m.endpoint_id " +
+            "WHERE m.timestamp >= ? AND m.timestamp < ?";
+
+    private static final String ROLLUP_SQL =
+            "SELECT bucket_start, endpoint, method, request_count, error_count, sum_ms, min_ms, max_ms, histogram " +
+            "FROM api_health_rollups WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private static final int BATCH_SIZE = 500;
+
+    /** Requests, errors and summed latency of a window. */
+    public record Totals(long requests, long errors, long sumMs) {
+        public static final Totals EMPTY = new Totals(0, 0, 0);
+
+        public Totals plus(Totals other) {
+            return new Totals(requests + other.requests, errors + other.errors, sumMs + other.sumMs);
+        }
+
+        public double avgMs() {
+            return requests == 0 ? 0.0 : (double) sumMs / requests;
+        }
+    }
+
+    // Part of a query window and the tier it is read from; a null granularity means raw rows
+    private record Range(Granularity granularity, LocalDateTime from, LocalDateTime to) {}
+
+    private record BucketKey(LocalDateTime start, String endpoint, String method) {}
+
+    // Raw response times (microseconds) or finer rollups gathered for one bucket
+    private static final class Bucket {
+        private long[] values = new long[8];
+        private int size;
+        private long errors;
+        private final List<LatencyHistogram.Snapshot> parts = new ArrayList<>();
+        private int minMs = Integer.MAX_VALUE;
+
+        void addRaw(int responseTimeMs, boolean success) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = responseTimeMs * 1000L;
+            if (!success) errors++;
+            minMs = Math.min(minMs, responseTimeMs);
+        }
+
+        void addRollup(LatencyHistogram.Snapshot snapshot, int rollupMinMs) {
+            parts.add(snapshot);
+            minMs = Math.min(minMs, rollupMinMs);
+        }
+
+        LatencyHistogram.Snapshot snapshot() {
+            List<LatencyHistogram.Snapshot> all = new ArrayList<>(parts);
+            if (size > 0) all.add(LatencyHistogram.snapshotOf(values, size, errors));
+            return all.isEmpty() ? LatencyHistogram.Snapshot.EMPTY : LatencyHistogram.Snapshot.merge(all);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricRetentionService retentionService;
+    private final int lagSeconds;
+    private final int chunkMinutes;
+    private final int rawDays;
+    private final int minuteDays;
+    private final int hourDays;
+
+    // Exclusive ends of the rolled-up minutes and hours; null until first read. Guarded by this
+    private volatile LocalDateTime minuteWatermark;
+    private volatile LocalDateTime hourWatermark;
+
+    public ApiHealthRollupService(JdbcTemplate jdbcTemplate,
+                                  MetricRetentionService retentionService,
+                                  @Value("${app.metrics.rollup.lag-seconds:120}") int lagSeconds,
+                                  @Value("${app.metrics.rollup.chunk-minutes:60}") int chunkMinutes,
+                                  @Value("${app.metrics.retention.raw-days:2}") int rawDays,
+                                  @Value("${app.metrics.retention.minute-days:14}") int minuteDays,
+                                  @Value("${app.metrics.retention.hour-days:365}") int hourDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionService = retentionService;
+        this.lagSeconds = lagSeconds;
+        this.chunkMinutes = Math.max(1, chunkMinutes);
+        this.rawDays = rawDays;
+        this.minuteDays = minuteDays;
+        this.hourDays = hourDays;
+    }
+
+    /** Rolls up every complete minute and hour not rolled up yet. */
+    public synchronized void rollup() {
+        LocalDateTime minuteEnd = LocalDateTime.now().minusSeconds(lagSeconds).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime from = minuteWatermark(minuteEnd);
+        int minuteRows = 0;
+        while (from.isBefore(minuteEnd)) {
+            LocalDateTime to = earliest(from.plusMinutes(chunkMinutes), minuteEnd);
+            Map<BucketKey, Bucket> buckets = new HashMap<>();
+            jdbcTemplate.query(RAW_SQL, rs -> {
+                BucketKey key = new BucketKey(rs.getTimestamp(1).toLocalDateTime().truncatedTo(ChronoUnit.MINUTES),
+                        rs.getString(2), method(rs.getString(3)));
+                buckets.computeIfAbsent(key, k -> new Bucket()).addRaw(rs.getInt(4), rs.getBoolean(5));
+            }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+            minuteRows += write(Granularity.MINUTE, buckets);
+            minuteWatermark = from = to;
+        }
+
+        LocalDateTime hourEnd = minuteWatermark.truncatedTo(ChronoUnit.HOURS);
+        from = hourWatermark(hourEnd);
+        int hourRows = 0;
+        while (from.isBefore(hourEnd)) {
+            LocalDateTime to = earliest(from.plusHours(Math.max(1, chunkMinutes / 60)), hourEnd);
+            Map<BucketKey, Bucket> buckets = new HashMap<>();
+            readRollups(Granularity.MINUTE, from, to, (start, endpoint, method, snapshot, minMs) ->
+                    buckets.computeIfAbsent(new BucketKey(start.truncatedTo(ChronoUnit.HOURS), endpoint, method),
+                            k -> new Bucket()).addRollup(snapshot, minMs));
+            hourRows += write(Granularity.HOUR, buckets);
+            hourWatermark = from = to;
+        }
+
+        if (minuteRows > 0 || hourRows > 0) {
+            log.debug("Rolled up {} minute and {} hour API health rows", minuteRows, hourRows);
+        }
+    }
+
+    /**
+     * Removes raw rows after raw-days, minute rows after minute-days and hour rows after
+     * hour-days; raw and minute rows not rolled into the next tier yet are kept.
+     */
+    public List<MetricRetentionService.Result> applyRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MetricRetentionService.Result> results = new ArrayList<>(3);
+        if (minuteWatermark != null) {
+            results.add(retentionService.purgeBefore("api_health_metrics", earliest(now.minusDays(rawDays), minuteWatermark)));
+        }
+        if (hourWatermark != null) {
+            results.add(retentionService.purgeWhere("api_health_rollups", "granularity = ? AND bucket_start < ?",
+                    Granularity.MINUTE.name(), Timestamp.valueOf(earliest(now.minusDays(minuteDays), hourWatermark))));
+        }
+        results.add(retentionService.purgeWhere("api_health_rollups", "granularity = ? AND bucket_start < ?",
+                Granularity.HOUR.name(), Timestamp.valueOf(now.minusDays(hourDays))));
+        return results;
+    }
+
+    /** Totals since the given time (aligned down to the minute). */
+    public Totals getTotals(LocalDateTime since) {
+        Totals totals = Totals.EMPTY;
+        for (Totals hour : getHourlyTotals(since).values()) totals = totals.plus(hour);
+        return totals;
+    }
+
+    /** Totals per hour since the given time (aligned down to the minute), oldest first. */
+    public SortedMap<LocalDateTime, Totals> getHourlyTotals(LocalDateTime since) {
+        SortedMap<LocalDateTime, Totals> hourly = new TreeMap<>();
+        for (Range range : plan(since)) {
+            List<Object[]> rows;
+            if (range.granularity() == null) {
+                rows = jdbcTemplate.query(
+                        "SELECT date_trunc('hour', timestamp), COUNT(*), " +
+                        "SUM(CASE WHEN success THEN 0 ELSE 1 END), SUM(response_time) " +
+                        "FROM api_health_metrics WHERE timestamp >= ? AND timestamp < ? GROUP BY 1",
+                        ApiHealthRollupService::totalsRow, Timestamp.valueOf(range.from()), Timestamp.valueOf(range.to()));
+            } else {
+                rows = jdbcTemplate.query(
+                        "SELECT date_trunc('hour', bucket_start), SUM(request_count), SUM(error_count), SUM(sum_ms) " +
+                        "FROM api_health_rollups WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ? GROUP BY 1",
+                        ApiHealthRollupService::totalsRow, range.granularity().name(),
+                        Timestamp.valueOf(range.from()), Timestamp.valueOf(range.to()));
+            }
+            for (Object[] row : rows) hourly.merge((LocalDateTime) row[0], (Totals) row[1], Totals::plus);
+        }
+        return hourly;
+    }
+
+    /** Percentiles per endpoint and method over the last minutes, from the stored histograms. */
+    public List<APIHealthDTO.EndpointLatency> getLatencies(int windowMinutes) {
+        Map<BucketKey, Bucket> buckets = new HashMap<>();
+        for (Range range : plan(LocalDateTime.now().minusMinutes(windowMinutes))) {
+            if (range.granularity() == null) {
+                jdbcTemplate.query(RAW_SQL, rs -> {
+                    buckets.computeIfAbsent(new BucketKey(null, rs.getString(2), method(rs.getString(3))),
+                            k -> new Bucket()).addRaw(rs.getInt(4), rs.getBoolean(5));
+                }, Timestamp.valueOf(range.from()), Timestamp.valueOf(range.to()));
+            } else {
+                readRollups(range.granularity(), range.from(), range.to(), (start, endpoint, method, snapshot, minMs) ->
+                        buckets.computeIfAbsent(new BucketKey(null, endpoint, method), k -> new Bucket())
+                                .addRollup(snapshot, minMs));
+            }
+        }
+
+        List<APIHealthDTO.EndpointLatency> result = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> result.add(EndpointLatencyRecorder.toLatency(
+                new EndpointLatencyRecorder.EndpointKey(key.method(), key.endpoint()), bucket.snapshot(), windowMinutes)));
+        result.sort(Comparator.comparing(APIHealthDTO.EndpointLatency::getRequestCount).reversed());
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("minuteWatermark", minuteWatermark);
+        stats.put("hourWatermark", hourWatermark);
+        stats.put("rawRetentionDays", rawDays);
+        stats.put("minuteRetentionDays", minuteDays);
+        stats.put("hourRetentionDays", hourDays);
+        return stats;
+    }
+
+    /*
+     * Splits [since, now) by tier: the partial first hour from minute rows, whole hours from
+     * hour rows, the rest of the rolled-up minutes from minute rows and the tail from raw rows.
+     * When the minute rows of the first hour are past their retention that hour is read whole.
+     */
+    private List<Range> plan(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = since.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime minuteEnd = minuteWatermark != null ? latest(earliest(minuteWatermark, now), from) : from;
+        LocalDateTime hourEnd = hourWatermark != null ? latest(earliest(hourWatermark, minuteEnd), from) : from;
+        LocalDateTime hourStart = from.isBefore(now.minusDays(minuteDays))
+                ? from.truncatedTo(ChronoUnit.HOURS)
+                : ceilHour(from);
+
+        List<Range> ranges = new ArrayList<>(4);
+        LocalDateTime cursor = from;
+        if (hourStart.isBefore(hourEnd)) {
+            if (from.isBefore(hourStart)) ranges.add(new Range(Granularity.MINUTE, from, hourStart));
+            ranges.add(new Range(Granularity.HOUR, hourStart, hourEnd));
+            cursor = hourEnd;
+        }
+        if (cursor.isBefore(minuteEnd)) {
+            ranges.add(new Range(Granularity.MINUTE, cursor, minuteEnd));
+            cursor = minuteEnd;
+        }
+        ranges.add(new Range(null, cursor, now));
+        return ranges;
+    }
+
+    private LocalDateTime minuteWatermark(LocalDateTime end) {
+        if (minuteWatermark == null) {
+            LocalDateTime last = jdbcTemplate.queryForObject(
+                    "SELECT MAX(bucket_start) FROM api_health_rollups WHERE granularity = ?",
+                    LocalDateTime.class, Granularity.MINUTE.name());
+            LocalDateTime first = last != null ? null : jdbcTemplate.queryForObject(
+                    "SELECT MIN(timestamp) FROM api_health_metrics", LocalDateTime.class);
+            minuteWatermark = last != null ? last.plusMinutes(1)
+                    : first != null ? first.truncatedTo(ChronoUnit.MINUTES) : end;
+        }
+        return minuteWatermark;
+    }
+
+    private LocalDateTime hourWatermark(LocalDateTime end) {
+        if (hourWatermark == null) {
+            LocalDateTime last = jdbcTemplate.queryForObject(
+                    "SELECT MAX(bucket_start) FROM api_health_rollups WHERE granularity = ?",
+                    LocalDateTime.class, Granularity.HOUR.name());
+            LocalDateTime first = last != null ? null : jdbcTemplate.queryForObject(
+                    "SELECT MIN(bucket_start) FROM api_health_rollups WHERE granularity = ?",
+                    LocalDateTime.class, Granularity.MINUTE.name());
+            hourWatermark = last != null ? last.plusHours(1)
+                    : first != null ? first.truncatedTo(ChronoUnit.HOURS) : end;
+        }
+        return hourWatermark;
+    }
+
+    private interface RollupRowHandler {
+        void row(LocalDateTime start, String endpoint, String method, LatencyHistogram.Snapshot snapshot, int minMs);
+    }
+
+    private void readRollups(Granularity granularity, LocalDateTime from, LocalDateTime to, RollupRowHandler handler) {
+        jdbcTemplate.query(ROLLUP_SQL, rs -> {
+            // Latencies are stored in milliseconds, the histogram buckets in microseconds
+            LatencyHistogram.Snapshot snapshot = LatencyHistogram.Snapshot.decode(rs.getString(9),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6) * 1000, rs.getInt(8) * 1000L);
+            handler.row(rs.getTimestamp(1).toLocalDateTime(), rs.getString(2), rs.getString(3), snapshot, rs.getInt(7));
+        }, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private int write(Granularity granularity, Map<BucketKey, Bucket> buckets) {
+        List<Object[]> args = new ArrayList<>(Math.min(buckets.size(), BATCH_SIZE));
+        int written = 0;
+        for (Map.Entry<BucketKey, Bucket> e : buckets.entrySet()) {
+            BucketKey key = e.getKey();
+            Bucket bucket = e.getValue();
+            LatencyHistogram.Snapshot s = bucket.snapshot();
+            args.add(new Object[] {
+                    granularity.name(), Timestamp.valueOf(key.start()), key.endpoint(), key.method(),
+                    s.getTotal(), s.getErrors(), s.getSum() / 1000, bucket.minMs, (int) (s.getMax() / 1000), s.encode()
+            });
+            if (args.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                written += args.size();
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+            written += args.size();
+        }
+        return written;
+    }
+
+    private static Object[] totalsRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Object[] {
+                rs.getTimestamp(1).toLocalDateTime(), new Totals(rs.getLong(2), rs.getLong(3), rs.getLong(4))
+        };
+    }
+
+    private static String method(String method) {
+        return method != null ? method : "";
+    }
+
+    private static LocalDateTime ceilHour(LocalDateTime t) {
+        LocalDateTime hour = t.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(t) ? hour : hour.plusHours(1);
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
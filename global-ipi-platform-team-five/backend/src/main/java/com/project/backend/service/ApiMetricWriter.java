@@ -0,0 +1,158 @@
+package com.project.backend.service;
+
+import com.project.backend.entity.APIHealthMetric;
+import com.project.backend.util.RingBuffer;
+import com.project.backend.util.StringUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for the per request API health metrics recorded by APIHealthInterceptor.
+ * {@link #record} only puts the metric in a bounded lock-free ring buffer; ScheduledTasks
+ * drains it every app.metrics.flush-ms (or sooner once a batch is waiting) and writes the
+ * rows with JDBC batch inserts. When the buffer is full the drop policy decides which
+ * metric is lost: drop-newest (the one being recorded) or drop-oldest (the oldest queued).
+ */
+@Component
+public class ApiMetricWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiMetricWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO api_health_metrics (timestamp, endpoint_id, response_time, status_code, success, " +
+            "method, error_message, user_id, ip_address) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum DropPolicy { DROP_NEWEST, DROP_OLDEST }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EndpointDictionary endpointDictionary;
+    private final Executor taskExecutor;
+    private final RingBuffer<APIHealthMetric> buffer;
+    private final DropPolicy dropPolicy;
+    private final int batchSize;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public ApiMetricWriter(JdbcTemplate jdbcTemplate,
+                           EndpointDictionary endpointDictionary,
+                           @Qualifier("taskExecutor") Executor taskExecutor,
+                           @Value("${app.metrics.buffer-size:8192}") int bufferSize,
+                           @Value("${app.metrics.batch-size:500}") int batchSize,
+                           @Value("${app.metrics.drop-policy:drop-newest}") String dropPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.endpointDictionary = endpointDictionary;
+        this.taskExecutor = taskExecutor;
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.dropPolicy = DropPolicy.valueOf(dropPolicy.trim().toUpperCase().replace('-', '_'));
+    }
+
+    /** Queues one metric; no I/O, never blocks. The endpoint is a handler pattern, see EndpointDictionary. */
+    public void record(String endpoint, String method, int responseTime,
+                       int statusCode, String errorMessage, Long userId, String ipAddress) {
+        APIHealthMetric metric = APIHealthMetric.builder()
+                .timestamp(LocalDateTime.now())
+                .endpoint(StringUtil.truncate(endpoint, 500))
+                .method(StringUtil.truncate(method, 10))
+                .responseTime(responseTime)
+                .statusCode(statusCode)
+                .success(statusCode < 400)
+                .errorMessage(errorMessage)
+                .userId(userId)
+                .ipAddress(StringUtil.truncate(ipAddress, 50))
+                .build();
+
+        recorded.incrementAndGet();
+        if (!buffer.offer(metric)) {
+            if (dropPolicy == DropPolicy.DROP_OLDEST) {
+                // A concurrent flush may have emptied the ring, and then nothing was evicted
+                if (buffer.poll() != null) dropped.incrementAndGet();
+                if (!buffer.offer(metric)) dropped.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(this::flush);
+            } catch (RuntimeException rejected) {
+                // Left for the scheduled flush
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /** Writes everything buffered so far in batches; concurrent calls return without waiting. */
+    public void flush() {
+        flushRequested.set(false);
+        if (!flushLock.tryLock()) return;
+        try {
+            List<APIHealthMetric> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(batch));
+                    flushed.addAndGet(batch.size());
+                    flushes.incrementAndGet();
+                } catch (Exception e) {
+                    // Metrics are best effort: a failed batch is counted and not retried
+                    failed.addAndGet(batch.size());
+                    log.error("Writing {} API metrics failed: {}", batch.size(), e.getMessage());
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buffered", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("dropPolicy", dropPolicy.name().toLowerCase().replace('_', '-'));
+        stats.put("recorded", recorded.get());
+        stats.put("dropped", dropped.get());
+        stats.put("flushed", flushed.get());
+        stats.put("flushes", flushes.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    // The endpoint pattern is stored as its dictionary id
+    private List<Object[]> toArgs(List<APIHealthMetric> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (APIHealthMetric m : batch) {
+            args.add(new Object[] {
+                    Timestamp.valueOf(m.getTimestamp()), endpointDictionary.idOf(m.getEndpoint()), m.getResponseTime(), m.getStatusCode(),
+                    m.getSuccess(), m.getMethod(), m.getErrorMessage(), m.getUserId(), m.getIpAddress()
+            });
+        }
+        return args;
+    }
+}
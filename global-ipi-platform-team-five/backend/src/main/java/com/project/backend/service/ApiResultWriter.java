@@ -0,0 +1,197 @@
+package com.project.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.backend.dto.PatentDTO;
+import com.project.backend.dto.SyncSummaryDTO;
+import com.project.backend.entity.IPAsset;
+import com.project.backend.util.StringUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persist-behind writer for SerpAPI results. Searches hand their results over and return
+ * at once; the assets are queued by asset number, so concurrent searches returning the same
+ * patent queue it once, and written with {@link AssetBulkUpsertService#insertMissing} by
+ * ScheduledTasks every app.api-results.flush-ms, or sooner once a batch is full.
+ */
+@Component
+public class ApiResultWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiResultWriter.class);
+
+    private final AssetBulkUpsertService assetBulkUpsertService;
+    private final Executor taskExecutor;
+
+    private final Map<String, IPAsset> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Asset numbers written recently, with the System.nanoTime() the write finished;
+    // repeated searches do not queue them again
+    private final Cache<String, Long> recentlyWritten;
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Value("${app.api-results.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.api-results.max-pending:20000}")
+    private int maxPending;
+
+    public ApiResultWriter(AssetBulkUpsertService assetBulkUpsertService,
+                           @Qualifier("taskExecutor") Executor taskExecutor,
+                           @Value("${app.api-results.remember-minutes:30}") long rememberMinutes) {
+        this.assetBulkUpsertService = assetBulkUpsertService;
+        this.taskExecutor = taskExecutor;
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(rememberMinutes))
+                .build();
+    }
+
+    /** Same field mapping the inline save used; the asset is not persisted. */
+    public IPAsset toAsset(PatentDTO dto) {
+        String assetId = (dto.getAssetNumber() != null && !dto.getAssetNumber().isEmpty())
+                ? dto.getAssetNumber() : dto.getId();
+
+        IPAsset asset = new IPAsset();
+        asset.setAssetNumber(assetId);
+        asset.setTitle(StringUtil.truncate(dto.getTitle(), 255));
+        asset.setDetails(StringUtil.truncate(dto.getAbstractText(), 1000));
+        asset.setType("PATENT");
+        asset.setStatus("ACTIVE");
+        asset.setJurisdiction(dto.getJurisdiction() != null ? dto.getJurisdiction() : "US");
+        asset.setAssignee(StringUtil.truncate(dto.getAssignee(), 255));
+        asset.setInventor(StringUtil.truncate(dto.getInventor(), 255));
+        asset.setFilingDate(parseDate(dto.getFilingDate()));
+        asset.setApiSource("api");
+        asset.setLastUpdated(LocalDateTime.now());
+        return asset;
+    }
+
+    /** Queues the assets for the next flush and returns immediately. */
+    public void enqueue(Collection<IPAsset> assets) {
+        for (IPAsset asset : assets) {
+            String assetNumber = asset.getAssetNumber();
+            if (assetNumber == null || assetNumber.isEmpty()) continue;
+            if (recentlyWritten.getIfPresent(assetNumber) != null) {
+                deduplicated.incrementAndGet();
+                continue;
+            }
+            if (pending.size() >= maxPending) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            if (pending.putIfAbsent(assetNumber, asset) == null) {
+                queued.incrementAndGet();
+            } else {
+                deduplicated.incrementAndGet();
+            }
+        }
+        if (pending.size() >= batchSize) {
+            try {
+                taskExecutor.execute(this::flush);
+            } catch (RuntimeException rejected) {
+                // Left for the scheduled flush
+            }
+        }
+    }
+
+    /** Synchronous bulk write for callers that read the rows right after. */
+    public SyncSummaryDTO writeNow(Collection<IPAsset> assets) {
+        List<String> numbers = assets.stream().map(IPAsset::getAssetNumber).filter(Objects::nonNull).toList();
+        writing.addAll(numbers);
+        try {
+            SyncSummaryDTO summary = assetBulkUpsertService.insertMissing(new ArrayList<>(assets));
+            long now = System.nanoTime();
+            for (String number : numbers) recentlyWritten.put(number, now);
+            inserted.addAndGet(summary.getInserted());
+            return summary;
+        } finally {
+            numbers.forEach(writing::remove);
+        }
+    }
+
+    /**
+     * Whether the asset may have been committed after {@code since} (a System.nanoTime()
+     * reading): its write is in flight or finished later. A query started at {@code since}
+     * may not have seen such a row even if it is in the table now.
+     */
+    public boolean writtenSince(String assetNumber, long since) {
+        if (writing.contains(assetNumber)) return true;
+        Long writtenAt = recentlyWritten.getIfPresent(assetNumber);
+        return writtenAt != null && writtenAt - since > 0;
+    }
+
+    /** Writes everything queued so far in batches; concurrent calls return without waiting. */
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            while (!pending.isEmpty()) {
+                List<IPAsset> batch = new ArrayList<>(batchSize);
+                Iterator<Map.Entry<String, IPAsset>> it = pending.entrySet().iterator();
+                while (it.hasNext() && batch.size() < batchSize) {
+                    batch.add(it.next().getValue());
+                    it.remove();
+                }
+                try {
+                    writeNow(batch);
+                    flushes.incrementAndGet();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    log.error("Persisting {} API results failed, retrying on the next flush: {}", batch.size(), e.getMessage());
+                    for (IPAsset asset : batch) pending.putIfAbsent(asset.getAssetNumber(), asset);
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("queued", queued.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("dropped", dropped.get());
+        stats.put("inserted", inserted.get());
+        stats.put("flushes", flushes.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    private LocalDateTime parseDate(String dateStr) {
+        try {
+            if (dateStr == null || dateStr.isEmpty()) return LocalDateTime.now();
+            return LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE).atStartOfDay();
+        } catch (Exception e) {
+            return LocalDateTime.now();
+        }
+    }
+}
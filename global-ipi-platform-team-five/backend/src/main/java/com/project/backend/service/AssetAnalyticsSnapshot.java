@@ -0,0 +1,404 @@
+package com.project.backend.service;
+
+import com.project.backend.util.RoaringBitmap;
+import com.project.backend.util.TechnologyCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Read-only columnar copy of the ip_assets table used by the analytics endpoints.
+ * Every row is stored as primitive ints: filing date as epoch day / month index and the
+ * low-cardinality text columns as dictionary ids. A refresh builds a complete new copy
+ * off to the side and swaps it in atomically, so readers never see a half built snapshot.
+ * Each snapshot also carries bitmap indexes over its rows (see {@link Bitmaps}).
+ */
+@Component
+public class AssetAnalyticsSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetAnalyticsSnapshot.class);
+
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    public static final int NULL_ID = -1;
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT id, filing_date, status, type, jurisdiction, assignee, inventor, class, category_mask, api_source " +
+            "FROM ip_assets ORDER BY id";
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<Data> current = new AtomicReference<>();
+    private final Object refreshLock = new Object();
+
+    public AssetAnalyticsSnapshot(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Initial analytics snapshot load failed, will load on first request: {}", e.getMessage());
+        }
+    }
+
+    // Returns the current snapshot, loading it synchronously if nothing has been built yet
+    public Data current() {
+        Data data = current.get();
+        if (data != null) return data;
+        synchronized (refreshLock) {
+            data = current.get();
+            return data != null ? data : refresh();
+        }
+    }
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    public Data refresh() {
+        synchronized (refreshLock) {
+            long start = System.currentTimeMillis();
+            Builder builder = new Builder();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SNAPSHOT_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                Timestamp filing = rs.getTimestamp("filing_date");
+                int mask = rs.getInt("category_mask");
+                Integer storedMask = rs.wasNull() ? null : mask;
+                builder.add(
+                        rs.getInt("id"),
+                        filing != null ? filing.toLocalDateTime() : null,
+                        rs.getString("status"),
+                        rs.getString("type"),
+                        rs.getString("jurisdiction"),
+                        rs.getString("assignee"),
+                        rs.getString("inventor"),
+                        rs.getString("class"),
+                        storedMask,
+                        rs.getString("api_source")
+                );
+            });
+            Data data = builder.build(System.currentTimeMillis() - start);
+            current.set(data);
+            log.info("Analytics snapshot refreshed: {} rows in {} ms", data.size, data.buildMillis);
+            return data;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Data data = current.get();
+        stats.put("loaded", data != null);
+        if (data == null) return stats;
+
+        stats.put("rows", data.size);
+        stats.put("builtAt", data.builtAt);
+        stats.put("ageSeconds", (System.currentTimeMillis() - data.builtAtMillis) / 1000);
+        stats.put("buildMillis", data.buildMillis);
+        stats.put("approxBytes", data.approxBytes());
+        stats.put("bitmapBytes", data.bitmaps.sizeInBytes());
+
+        Map<String, Integer> dictionaries = new LinkedHashMap<>();
+        dictionaries.put("status", data.statuses.size());
+        dictionaries.put("type", data.types.size());
+        dictionaries.put("jurisdiction", data.jurisdictions.size());
+        dictionaries.put("assignee", data.assignees.size());
+        dictionaries.put("inventor", data.inventors.size());
+        dictionaries.put("assetClass", data.assetClasses.size());
+        dictionaries.put("apiSource", data.sources.size());
+        stats.put("dictionaries", dictionaries);
+        return stats;
+    }
+
+    public static int monthIndex(int year, int month) {
+        return year * 12 + (month - 1);
+    }
+
+    // ===========================
+    // COLUMN DATA
+    // ===========================
+
+    /** Immutable column arrays, all indexed by row ordinal. */
+    public static final class Data {
+        public final int size;
+        public final int[] ids;
+        public final int[] filingDay;       // epoch day or NO_DATE
+        public final int[] filingMonth;     // year * 12 + (month - 1) or NO_DATE
+        public final int[] status;
+        public final int[] type;
+        public final int[] jurisdiction;
+        public final int[] assignee;
+        public final int[] inventor;
+        public final int[] assetClass;
+        public final int[] categoryMask;    // TechnologyCategories bit mask, 0 when unclassified
+        public final int[] apiSource;
+
+        public final Dictionary statuses;
+        public final Dictionary types;
+        public final Dictionary jurisdictions;
+        public final Dictionary assignees;
+        public final Dictionary inventors;
+        public final Dictionary assetClasses;
+        public final Dictionary sources;
+
+        public final Bitmaps bitmaps;
+
+        public final LocalDateTime builtAt;
+        public final long builtAtMillis;
+        public final long buildMillis;
+
+        private Data(Builder b, long buildMillis) {
+            this.size = b.size;
+            this.ids = Arrays.copyOf(b.ids, b.size);
+            this.filingDay = Arrays.copyOf(b.filingDay, b.size);
+            this.filingMonth = Arrays.copyOf(b.filingMonth, b.size);
+            this.status = Arrays.copyOf(b.status, b.size);
+            this.type = Arrays.copyOf(b.type, b.size);
+            this.jurisdiction = Arrays.copyOf(b.jurisdiction, b.size);
+            this.assignee = Arrays.copyOf(b.assignee, b.size);
+            this.inventor = Arrays.copyOf(b.inventor, b.size);
+            this.assetClass = Arrays.copyOf(b.assetClass, b.size);
+            this.categoryMask = Arrays.copyOf(b.categoryMask, b.size);
+            this.apiSource = Arrays.copyOf(b.apiSource, b.size);
+            this.statuses = b.statuses;
+            this.types = b.types;
+            this.jurisdictions = b.jurisdictions;
+            this.assignees = b.assignees;
+            this.inventors = b.inventors;
+            this.assetClasses = b.assetClasses;
+            this.sources = b.sources;
+            this.bitmaps = new Bitmaps(this);
+            this.builtAt = LocalDateTime.now();
+            this.builtAtMillis = System.currentTimeMillis();
+            this.buildMillis = buildMillis;
+        }
+
+        long approxBytes() {
+            return (long) size * 11 * Integer.BYTES + bitmaps.sizeInBytes();
+        }
+
+        /** Rows whose value in the column satisfies the predicate (null values never match). */
+        public RoaringBitmap rowsWhere(Dictionary dictionary, RoaringBitmap[] index, Predicate<String> predicate) {
+            boolean[] flags = dictionary.matching(predicate);
+            List<RoaringBitmap> matching = new ArrayList<>();
+            for (int i = 0; i < flags.length; i++) {
+                if (flags[i]) matching.add(index[i]);
+            }
+            return RoaringBitmap.or(matching);
+        }
+
+        /** Rows filed on or after the epoch day; rows without a filing date never match. */
+        public RoaringBitmap rowsFiledFrom(int fromDay) {
+            int fromYear = LocalDate.ofEpochDay(fromDay).getYear();
+            List<RoaringBitmap> years = new ArrayList<>();
+            for (Map.Entry<Integer, RoaringBitmap> e : bitmaps.byFilingYear.tailMap(fromYear, false).entrySet()) {
+                years.add(e.getValue());
+            }
+            RoaringBitmap boundary = bitmaps.byFilingYear.get(fromYear);
+            if (boundary != null) {
+                RoaringBitmap.Builder partial = new RoaringBitmap.Builder();
+                for (int r : boundary.toArray()) {
+                    if (filingDay[r] >= fromDay) partial.add(r);
+                }
+                years.add(partial.build());
+            }
+            return RoaringBitmap.or(years);
+        }
+    }
+
+    /**
+     * Compressed bitmap indexes over the row ordinals, one bitmap per value of each
+     * low-cardinality column (arrays indexed by dictionary id), per technology category and
+     * per filing year. A filter combination is an AND/OR of bitmaps and its count is the
+     * cardinality of the result, without touching the column arrays.
+     */
+    public static final class Bitmaps {
+        public final RoaringBitmap all;
+        public final RoaringBitmap[] byStatus;
+        public final RoaringBitmap[] byType;
+        public final RoaringBitmap[] byJurisdiction;
+        public final RoaringBitmap[] bySource;
+        public final RoaringBitmap[] byCategory;   // indexed by TechnologyCategories id
+        public final NavigableMap<Integer, RoaringBitmap> byFilingYear;
+
+        private Bitmaps(Data d) {
+            RoaringBitmap.Builder allRows = new RoaringBitmap.Builder();
+            RoaringBitmap.Builder[] status = builders(d.statuses.size());
+            RoaringBitmap.Builder[] type = builders(d.types.size());
+            RoaringBitmap.Builder[] jurisdiction = builders(d.jurisdictions.size());
+            RoaringBitmap.Builder[] source = builders(d.sources.size());
+            RoaringBitmap.Builder[] category = builders(TechnologyCategories.COUNT);
+            TreeMap<Integer, RoaringBitmap.Builder> year = new TreeMap<>();
+
+            for (int r = 0; r < d.size; r++) {
+                allRows.add(r);
+                if (d.status[r] != NULL_ID) status[d.status[r]].add(r);
+                if (d.type[r] != NULL_ID) type[d.type[r]].add(r);
+                if (d.jurisdiction[r] != NULL_ID) jurisdiction[d.jurisdiction[r]].add(r);
+                if (d.apiSource[r] != NULL_ID) source[d.apiSource[r]].add(r);
+                for (int mask = d.categoryMask[r]; mask != 0; mask &= mask - 1) {
+                    category[Integer.numberOfTrailingZeros(mask)].add(r);
+                }
+                if (d.filingMonth[r] != NO_DATE) {
+                    year.computeIfAbsent(d.filingMonth[r] / 12, y -> new RoaringBitmap.Builder()).add(r);
+                }
+            }
+
+            this.all = allRows.build();
+            this.byStatus = build(status);
+            this.byType = build(type);
+            this.byJurisdiction = build(jurisdiction);
+            this.bySource = build(source);
+            this.byCategory = build(category);
+            TreeMap<Integer, RoaringBitmap> years = new TreeMap<>();
+            year.forEach((y, b) -> years.put(y, b.build()));
+            this.byFilingYear = Collections.unmodifiableNavigableMap(years);
+        }
+
+        long sizeInBytes() {
+            long bytes = all.sizeInBytes();
+            for (RoaringBitmap[] index : List.of(byStatus, byType, byJurisdiction, bySource, byCategory)) {
+                for (RoaringBitmap b : index) bytes += b.sizeInBytes();
+            }
+            for (RoaringBitmap b : byFilingYear.values()) bytes += b.sizeInBytes();
+            return bytes;
+        }
+
+        private static RoaringBitmap.Builder[] builders(int n) {
+            RoaringBitmap.Builder[] builders = new RoaringBitmap.Builder[n];
+            for (int i = 0; i < n; i++) builders[i] = new RoaringBitmap.Builder();
+            return builders;
+        }
+
+        private static RoaringBitmap[] build(RoaringBitmap.Builder[] builders) {
+            RoaringBitmap[] bitmaps = new RoaringBitmap[builders.length];
+            for (int i = 0; i < builders.length; i++) bitmaps[i] = builders[i].build();
+            return bitmaps;
+        }
+    }
+
+    /** Append-only string dictionary. Null values are never stored, they map to NULL_ID. */
+    public static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) return NULL_ID;
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        public String decode(int code) {
+            return code == NULL_ID ? null : values.get(code);
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        // One flag per dictionary id: true when the predicate accepts the value
+        public boolean[] matching(Predicate<String> predicate) {
+            boolean[] flags = new boolean[values.size()];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = predicate.test(values.get(i));
+            }
+            return flags;
+        }
+    }
+
+    private static final class Builder {
+        private int size;
+        private int[] ids = new int[1024];
+        private int[] filingDay = new int[1024];
+        private int[] filingMonth = new int[1024];
+        private int[] status = new int[1024];
+        private int[] type = new int[1024];
+        private int[] jurisdiction = new int[1024];
+        private int[] assignee = new int[1024];
+        private int[] inventor = new int[1024];
+        private int[] assetClass = new int[1024];
+        private int[] categoryMask = new int[1024];
+        private int[] apiSource = new int[1024];
+
+        private final Dictionary statuses = new Dictionary();
+        private final Dictionary types = new Dictionary();
+        private final Dictionary jurisdictions = new Dictionary();
+        private final Dictionary assignees = new Dictionary();
+        private final Dictionary inventors = new Dictionary();
+        private final Dictionary assetClasses = new Dictionary();
+        private final Dictionary sources = new Dictionary();
+
+        // Category masks are computed once per distinct class string
+        private final Map<String, Integer> maskCache = new HashMap<>();
+
+        void add(int id, LocalDateTime filing, String statusValue, String typeValue, String jurisdictionValue,
+                 String assigneeValue, String inventorValue, String classValue, Integer storedMask,
+                 String sourceValue) {
+            if (size == ids.length) grow();
+            ids[size] = id;
+            if (filing != null) {
+                LocalDate date = filing.toLocalDate();
+                filingDay[size] = (int) date.toEpochDay();
+                filingMonth[size] = monthIndex(date.getYear(), date.getMonthValue());
+            } else {
+                filingDay[size] = NO_DATE;
+                filingMonth[size] = NO_DATE;
+            }
+            status[size] = statuses.encode(statusValue);
+            type[size] = types.encode(typeValue);
+            jurisdiction[size] = jurisdictions.encode(jurisdictionValue);
+            assignee[size] = assignees.encode(assigneeValue);
+            inventor[size] = inventors.encode(inventorValue);
+            assetClass[size] = assetClasses.encode(classValue);
+            apiSource[size] = sources.encode(sourceValue);
+            // Stored masks are used as-is; rows not yet backfilled are classified here
+            if (storedMask != null) {
+                categoryMask[size] = storedMask;
+            } else {
+                categoryMask[size] = classValue == null ? 0
+                        : maskCache.computeIfAbsent(classValue, TechnologyCategories::categoryMask);
+            }
+            size++;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            filingDay = Arrays.copyOf(filingDay, capacity);
+            filingMonth = Arrays.copyOf(filingMonth, capacity);
+            status = Arrays.copyOf(status, capacity);
+            type = Arrays.copyOf(type, capacity);
+            jurisdiction = Arrays.copyOf(jurisdiction, capacity);
+            assignee = Arrays.copyOf(assignee, capacity);
+            inventor = Arrays.copyOf(inventor, capacity);
+            assetClass = Arrays.copyOf(assetClass, capacity);
+            categoryMask = Arrays.copyOf(categoryMask, capacity);
+            apiSource = Arrays.copyOf(apiSource, capacity);
+        }
+
+        Data build(long buildMillis) {
+            return new Data(this, buildMillis);
+        }
+    }
+}
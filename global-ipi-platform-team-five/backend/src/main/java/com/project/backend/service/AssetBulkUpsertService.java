@@ -0,0 +1,252 @@
+package com.project.backend.service;
+
+import com.project.backend.dto.SyncSummaryDTO;
+import com.project.backend.entity.IPAsset;
+import com.project.backend.util.StringUtil;
+import com.project.backend.util.TechnologyCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bulk upsert behind /api/ipassets/sync. Each chunk is one transaction that resolves the
+ * existing asset numbers with a single IN lookup, then writes JDBC batches: UPDATE by id for
+ * known assets and INSERT ... ON CONFLICT (asset_number) DO NOTHING for new ones.
+ * Field mapping matches the per-entity path in IPAssetService.
+ */
+@Service
+public class AssetBulkUpsertService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetBulkUpsertService.class);
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT id, asset_number, status, type, jurisdiction, filing_date, category_mask, class, title, assignee, inventor " +
+            "FROM ip_assets WHERE asset_number IN (:numbers)";
+
+    private static final String SELECT_IDS_SQL =
+            "SELECT id, asset_number FROM ip_assets WHERE asset_number IN (:numbers)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE ip_assets SET title = ?, status = ?, class = ?, assignee = ?, details = ?, jurisdiction = ?, " +
+            "api_source = 'api', last_updated = ?, category_mask = ? WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ip_assets (type, asset_number, title, assignee, inventor, jurisdiction, filing_date, " +
+            "publication_date, status, class, category_mask, details, api_source, last_updated, synced_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'api', ?, ?) " +
+            "ON CONFLICT (asset_number) DO NOTHING";
+
+    private static final String DELETE_CATEGORIES_SQL =
+            "DELETE FROM ip_asset_categories WHERE asset_id IN (:ids)";
+
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO ip_asset_categories (asset_id, category) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.sync.chunk-size:1000}")
+    private int chunkSize;
+
+    public AssetBulkUpsertService(JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedJdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public SyncSummaryDTO upsert(List<IPAsset> assets) {
+        return write(assets, true);
+    }
+
+    /**
+     * Inserts the assets whose asset number is not stored yet; existing rows are left untouched (skipped).
+     * Unlike sync, a missing class stays null (unclassified) instead of becoming "Unknown".
+     */
+    public SyncSummaryDTO insertMissing(List<IPAsset> assets) {
+        return write(assets, false);
+    }
+
+    private SyncSummaryDTO write(List<IPAsset> assets, boolean updateExisting) {
+        long start = System.currentTimeMillis();
+        int[] totals = new int[3]; // inserted, updated, skipped
+        int chunks = 0;
+
+        for (int from = 0; from < assets.size(); from += chunkSize) {
+            List<IPAsset> chunk = assets.subList(from, Math.min(from + chunkSize, assets.size()));
+            int[] result = transactionTemplate.execute(status -> upsertChunk(chunk, updateExisting));
+            for (int i = 0; i < totals.length; i++) totals[i] += result[i];
+            chunks++;
+        }
+
+        SyncSummaryDTO summary = SyncSummaryDTO.builder()
+                .received(assets.size())
+                .inserted(totals[0])
+                .updated(totals[1])
+                .skipped(totals[2])
+                .chunks(chunks)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+        log.info("Asset {}: {} received, {} inserted, {} updated, {} skipped in {} ms",
+                updateExisting ? "sync" : "insert", summary.getReceived(), summary.getInserted(), summary.getUpdated(), summary.getSkipped(), summary.getDurationMs());
+        return summary;
+    }
+
+    // Returns { inserted, updated, skipped } for the chunk
+    private int[] upsertChunk(List<IPAsset> chunk, boolean updateExisting) {
+        int skipped = 0;
+
+        // Last occurrence of an asset number in the chunk wins
+        Map<String, IPAsset> byNumber = new LinkedHashMap<>();
+        for (IPAsset asset : chunk) {
+            String assetNumber = asset.getAssetNumber();
+            if (assetNumber == null || assetNumber.trim().isEmpty()) {
+                skipped++;
+                continue;
+            }
+            if (byNumber.put(assetNumber, asset) != null) skipped++;
+        }
+        if (byNumber.isEmpty()) return new int[] { 0, 0, skipped };
+
+        Map<String, ExistingRow> existing = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_EXISTING_SQL, new MapSqlParameterSource("numbers", byNumber.keySet()), rs -> {
+            Timestamp filing = rs.getTimestamp("filing_date");
+            int mask = rs.getInt("category_mask");
+            Integer storedMask = rs.wasNull() ? null : mask;
+            existing.put(rs.getString("asset_number"), new ExistingRow(
+                    rs.getInt("id"), rs.getString("status"), rs.getString("type"), rs.getString("jurisdiction"),
+                    filing != null ? filing.toLocalDateTime() : null, storedMask, rs.getString("class"),
+                    rs.getString("asset_number"), rs.getString("title"), rs.getString("assignee"), rs.getString("inventor")));
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Integer> recategorized = new ArrayList<>();
+        List<Object[]> categoryRows = new ArrayList<>();
+        IPAssetChangeEvent.Collector changes = new IPAssetChangeEvent.Collector();
+        List<IPAsset> newAssets = new ArrayList<>();
+
+        for (IPAsset asset : byNumber.values()) {
+            ExistingRow row = existing.get(asset.getAssetNumber());
+            if (row != null && !updateExisting) {
+                skipped++;
+            } else if (row != null) {
+                int mask = TechnologyCategories.categoryMask(asset.getAssetClass());
+                updates.add(new Object[] {
+                        StringUtil.truncate(asset.getTitle(), 255), asset.getStatus(), asset.getAssetClass(),
+                        StringUtil.truncate(asset.getAssignee(), 255), StringUtil.truncate(asset.getDetails(), 1000), asset.getJurisdiction(),
+                        Timestamp.valueOf(now), mask, row.id
+                });
+                if (!Objects.equals(row.categoryMask, mask)) {
+                    recategorized.add(row.id);
+                    addCategoryRows(categoryRows, row.id, mask);
+                }
+                IPAssetChangeEvent.Facts before = row.facts();
+                changes.add(before, new IPAssetChangeEvent.Facts(row.id, asset.getStatus(), before.type(),
+                        asset.getJurisdiction(), before.filingDate(), mask,
+                        before.assetNumber(), StringUtil.truncate(asset.getTitle(), 255), StringUtil.truncate(asset.getAssignee(), 255),
+                        before.inventor()));
+            } else {
+                String assetClass = insertedClass(asset, updateExisting);
+                inserts.add(new Object[] {
+                        asset.getType(), asset.getAssetNumber(), asset.getTitle(), asset.getAssignee(), asset.getInventor(),
+                        asset.getJurisdiction(), timestamp(asset.getFilingDate()), timestamp(asset.getPublicationDate()),
+                        asset.getStatus(), assetClass, TechnologyCategories.categoryMask(assetClass), asset.getDetails(),
+                        Timestamp.valueOf(now), timestamp(asset.getSyncedAt())
+                });
+                newAssets.add(asset);
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+
+        int inserted = 0;
+        if (!inserts.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            // Rows that lost an ON CONFLICT race report 0 and are left to the concurrent writer
+            // (a driver reporting SUCCESS_NO_INFO counts as written)
+            List<IPAsset> written = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) written.add(newAssets.get(i));
+                else skipped++;
+            }
+            inserted = written.size();
+
+            Map<String, Integer> ids = new HashMap<>();
+            List<String> numbers = written.stream().map(IPAsset::getAssetNumber).toList();
+            if (!numbers.isEmpty()) {
+                namedJdbcTemplate.query(SELECT_IDS_SQL, new MapSqlParameterSource("numbers", numbers),
+                        rs -> { ids.put(rs.getString("asset_number"), rs.getInt("id")); });
+            }
+            for (IPAsset asset : written) {
+                Integer id = ids.get(asset.getAssetNumber());
+                if (id == null) continue;
+                String assetClass = insertedClass(asset, updateExisting);
+                int mask = TechnologyCategories.categoryMask(assetClass);
+                addCategoryRows(categoryRows, id, mask);
+                changes.add(null, new IPAssetChangeEvent.Facts(id, asset.getStatus(), asset.getType(), asset.getJurisdiction(),
+                        asset.getFilingDate() != null ? asset.getFilingDate().toLocalDate() : null, mask,
+                        asset.getAssetNumber(), asset.getTitle(), asset.getAssignee(), asset.getInventor()));
+            }
+        }
+
+        if (!recategorized.isEmpty()) {
+            namedJdbcTemplate.update(DELETE_CATEGORIES_SQL, new MapSqlParameterSource("ids", recategorized));
+        }
+        if (!categoryRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, categoryRows);
+        }
+
+        // Delivered to the analytics listeners once this chunk commits
+        IPAssetChangeEvent event = changes.toEvent();
+        if (!event.isEmpty()) {
+            eventPublisher.publishEvent(event);
+        }
+        return new int[] { inserted, updates.size(), skipped };
+    }
+
+    private static void addCategoryRows(List<Object[]> rows, int assetId, int mask) {
+        for (String category : TechnologyCategories.names(mask)) {
+            rows.add(new Object[] { assetId, category });
+        }
+    }
+
+    // Sync stores "Unknown" for a missing class, as the per-entity sync did
+    private static String insertedClass(IPAsset asset, boolean sync) {
+        return asset.getAssetClass() != null || !sync ? asset.getAssetClass() : "Unknown";
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private record ExistingRow(int id, String status, String type, String jurisdiction,
+                               LocalDateTime filingDate, Integer categoryMask, String assetClass,
+                               String assetNumber, String title, String assignee, String inventor) {
+
+        IPAssetChangeEvent.Facts facts() {
+            int mask = categoryMask != null ? categoryMask : TechnologyCategories.categoryMask(assetClass);
+            return new IPAssetChangeEvent.Facts(id, status, type, jurisdiction,
+                    filingDate != null ? filingDate.toLocalDate() : null, mask, assetNumber, title, assignee, inventor);
+        }
+    }
+}
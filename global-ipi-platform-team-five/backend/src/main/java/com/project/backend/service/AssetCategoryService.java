@@ -0,0 +1,81 @@
+package com.project.backend.service;
+
+import com.project.backend.entity.IPAsset;
+import com.project.backend.repository.IPAssetRepository;
+import com.project.backend.util.TechnologyCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the stored smart categories of ip_assets in sync with assetClass.
+ * The write path calls {@link #apply(IPAsset)}; rows written by other means (seed loaders,
+ * manual SQL) are picked up by the backfill job, which only looks at rows without a mask.
+ */
+@Service
+public class AssetCategoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetCategoryService.class);
+
+    private final IPAssetRepository ipAssetRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.categories.backfill-batch-size:500}")
+    private int batchSize;
+
+    public AssetCategoryService(IPAssetRepository ipAssetRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.ipAssetRepository = ipAssetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Derives the categories of the asset's class; no-op when they are already current
+    public void apply(IPAsset asset) {
+        int mask = TechnologyCategories.categoryMask(asset.getAssetClass());
+        if (Objects.equals(asset.getCategoryMask(), mask)) return;
+
+        asset.setCategoryMask(mask);
+        if (asset.getCategories() == null) {
+            asset.setCategories(new HashSet<>());
+        }
+        asset.getCategories().clear();
+        asset.getCategories().addAll(TechnologyCategories.names(mask));
+    }
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    // Classifies every asset that has no stored categories yet, one committed batch at a time
+    public int backfill() {
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<IPAsset> batch = ipAssetRepository.findByCategoryMaskIsNull(PageRequest.of(0, batchSize));
+                batch.forEach(this::apply);
+                ipAssetRepository.saveAll(batch);
+                return batch.size();
+            });
+            if (updated == null || updated == 0) break;
+            total += updated;
+            if (updated < batchSize) break;
+        }
+        if (total > 0) {
+            log.info("Backfilled smart categories for {} assets", total);
+        }
+        return total;
+    }
+}
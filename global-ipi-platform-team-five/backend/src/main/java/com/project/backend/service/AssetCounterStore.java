@@ -0,0 +1,309 @@
+package com.project.backend.service;
+
+import com.project.backend.util.CategoryCooccurrence;
+import com.project.backend.util.TechnologyCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import static com.project.backend.service.AssetAnalyticsSnapshot.NO_DATE;
+
+/**
+ * Asset counts per (status, type, jurisdiction, filing month, category mask) bucket, kept
+ * current by applying the deltas of every {@link IPAssetChangeEvent} after commit.
+ * Each bucket also keeps its per-day counts so day precise windows (last week, expiring
+ * in the next six months) can be answered at the month boundaries.
+ * Reads cost O(buckets) regardless of the table size. Rows written outside IPAssetService
+ * are picked up by {@link #reconcile()}, which rebuilds the buckets from the database;
+ * changes delivered while it runs are buffered and replayed onto the rebuilt buckets.
+ * The same deltas maintain the technology category co-occurrence counts.
+ * The buckets double as the filing time cube behind the trend charts: see {@link #countByMonth}.
+ */
+@Component
+public class AssetCounterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetCounterStore.class);
+
+    private static final String RECONCILE_SQL =
+            "SELECT status, type, jurisdiction, CAST(filing_date AS DATE) AS filing_day, category_mask, " +
+            "CASE WHEN category_mask IS NULL THEN class END AS class, COUNT(*) AS cnt " +
+            "FROM ip_assets " +
+            "GROUP BY status, type, jurisdiction, CAST(filing_date AS DATE), category_mask, " +
+            "CASE WHEN category_mask IS NULL THEN class END";
+
+    public record BucketKey(String status, String type, String jurisdiction, int month, int categoryMask) {}
+
+    private static final class Bucket {
+        long total;
+        final long[] days = new long[31];   // by day of month - 1, dated buckets only
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Object lock = new Object();
+
+    private Map<BucketKey, Bucket> buckets;         // null until the first reconcile
+    private PendingChanges pending;                 // non-null while a reconcile runs
+    private CategoryCooccurrence cooccurrence;
+    private LocalDateTime lastReconciled;
+    private long lastDrift;
+
+    public AssetCounterStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // One snapshot for the aggregate and the re-reads of changed assets
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Initial asset counter load failed, dashboard falls back to scans: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        synchronized (lock) {
+            return buckets != null;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssetChange(IPAssetChangeEvent event) {
+        synchronized (lock) {
+            if (pending != null) pending.add(event.getChanges());
+            if (buckets == null) return;
+            for (IPAssetChangeEvent.Change change : event.getChanges()) {
+                if (change.before() != null) {
+                    add(buckets, change.before(), -1);
+                    cooccurrence.add(change.before().categoryMask(), -1);
+                }
+                if (change.after() != null) {
+                    add(buckets, change.after(), 1);
+                    cooccurrence.add(change.after().categoryMask(), 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the counters from the database and swaps them in.
+     * Returns the number of assets by which the incremental counters had drifted.
+     */
+    public synchronized long reconcile() {
+        PendingChanges buffered = new PendingChanges();
+        synchronized (lock) {
+            pending = buffered;
+        }
+        try {
+            Long drift = snapshotTemplate.execute(status -> rebuild(buffered));
+            return drift != null ? drift : 0;
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+
+    private long rebuild(PendingChanges buffered) {
+        Map<BucketKey, Bucket> rebuilt = new HashMap<>();
+        CategoryCooccurrence rebuiltCooccurrence = new CategoryCooccurrence();
+        Map<String, Integer> maskCache = new HashMap<>();
+        jdbcTemplate.query(RECONCILE_SQL, rs -> {
+            Date day = rs.getDate("filing_day");
+            int mask = rs.getInt("category_mask");
+            if (rs.wasNull()) {
+                // Not backfilled yet: classify the same way Facts.of does
+                String assetClass = rs.getString("class");
+                mask = assetClass == null ? 0 : maskCache.computeIfAbsent(assetClass, TechnologyCategories::categoryMask);
+            }
+            long count = rs.getLong("cnt");
+            add(rebuilt, rs.getString("status"), rs.getString("type"), rs.getString("jurisdiction"),
+                    day != null ? day.toLocalDate() : null, mask, count);
+            rebuiltCooccurrence.add(mask, count);
+        });
+
+        while (true) {
+            Set<Integer> unread;
+            synchronized (lock) {
+                unread = buffered.unread();
+                if (unread.isEmpty()) {
+                    // Everything delivered so far is read; nothing can arrive until the swap
+                    buffered.replay(facts -> {
+                        add(rebuilt, facts, -1);
+                        rebuiltCooccurrence.add(facts.categoryMask(), -1);
+                    }, facts -> {
+                        add(rebuilt, facts, 1);
+                        rebuiltCooccurrence.add(facts.categoryMask(), 1);
+                    });
+                    long drift = buckets == null ? 0 : drift(buckets, rebuilt);
+                    if (drift > 0) {
+                        log.warn("Asset counters drifted by {} assets, replaced with database counts", drift);
+                    }
+                    log.debug("Replayed {} asset changes delivered during reconcile", buffered.size());
+                    buckets = rebuilt;
+                    cooccurrence = rebuiltCooccurrence;
+                    lastReconciled = LocalDateTime.now();
+                    lastDrift = drift;
+                    return drift;
+                }
+            }
+            Map<Integer, IPAssetChangeEvent.Facts> states = PendingChanges.read(jdbcTemplate, unread);
+            synchronized (lock) {
+                buffered.putSnapshot(states);
+            }
+        }
+    }
+
+    /**
+     * Number of assets in buckets accepted by the filter whose filing date lies in
+     * [from, toExclusive). Either bound may be null; undated assets only count when both are.
+     */
+    public long count(Predicate<BucketKey> filter, LocalDate from, LocalDate toExclusive) {
+        int fromMonth = from != null ? monthOf(from) : Integer.MIN_VALUE;
+        int toMonth = toExclusive != null ? monthOf(toExclusive) : Integer.MAX_VALUE;
+
+        synchronized (lock) {
+            if (buckets == null) throw new IllegalStateException("Asset counters are not loaded");
+            long count = 0;
+            for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+                BucketKey key = entry.getKey();
+                Bucket bucket = entry.getValue();
+                if (bucket.total == 0 || !filter.test(key)) continue;
+
+                if (from == null && toExclusive == null) {
+                    count += bucket.total;
+                    continue;
+                }
+                int month = key.month();
+                if (month == NO_DATE || month < fromMonth || month > toMonth) continue;
+
+                if (month > fromMonth && month < toMonth) {
+                    count += bucket.total;
+                } else {
+                    // Boundary month: only the days inside the window
+                    int firstDay = month == fromMonth ? from.getDayOfMonth() : 1;
+                    int lastDay = month == toMonth ? toExclusive.getDayOfMonth() - 1 : 31;
+                    for (int day = firstDay; day <= lastDay; day++) {
+                        count += bucket.days[day - 1];
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Per filing month (AssetAnalyticsSnapshot.monthIndex) counts of the dated assets filed
+     * on or after {@code from} (null for no bound) in buckets accepted by the filter, split
+     * into {@code width} columns by {@code column} (buckets mapped to a negative column are
+     * skipped). Coarser grains are rollups of the returned months.
+     */
+    public SortedMap<Integer, long[]> countByMonth(Predicate<BucketKey> filter, LocalDate from,
+                                                   ToIntFunction<BucketKey> column, int width) {
+        int fromMonth = from != null ? monthOf(from) : Integer.MIN_VALUE;
+        SortedMap<Integer, long[]> months = new TreeMap<>();
+        synchronized (lock) {
+            if (buckets == null) throw new IllegalStateException("Asset counters are not loaded");
+            for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+                BucketKey key = entry.getKey();
+                Bucket bucket = entry.getValue();
+                if (bucket.total == 0 || key.month() == NO_DATE || key.month() < fromMonth || !filter.test(key)) continue;
+                int col = column.applyAsInt(key);
+                if (col < 0) continue;
+
+                long count = bucket.total;
+                if (key.month() == fromMonth) {
+                    count = 0;
+                    for (int day = from.getDayOfMonth(); day <= 31; day++) {
+                        count += bucket.days[day - 1];
+                    }
+                    if (count == 0) continue;
+                }
+                months.computeIfAbsent(key.month(), m -> new long[width])[col] += count;
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Upper-triangular pair counts (see {@link CategoryCooccurrence#index}) over the assets
+     * whose category mask intersects the landscape mask, or over all assets for
+     * {@link CategoryCooccurrence#ALL}.
+     */
+    public long[] cooccurrence(int landscapeMask) {
+        synchronized (lock) {
+            if (cooccurrence == null) throw new IllegalStateException("Asset counters are not loaded");
+            return cooccurrence.pairs(landscapeMask);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("loaded", buckets != null);
+            if (buckets == null) return stats;
+            stats.put("buckets", buckets.size());
+            stats.put("assets", buckets.values().stream().mapToLong(b -> b.total).sum());
+            stats.put("lastReconciled", lastReconciled);
+            stats.put("lastDrift", lastDrift);
+        }
+        return stats;
+    }
+
+    private static void add(Map<BucketKey, Bucket> target, IPAssetChangeEvent.Facts facts, long delta) {
+        add(target, facts.status(), facts.type(), facts.jurisdiction(), facts.filingDate(), facts.categoryMask(), delta);
+    }
+
+    private static void add(Map<BucketKey, Bucket> target, String status, String type, String jurisdiction,
+                            LocalDate filingDate, int categoryMask, long delta) {
+        int month = filingDate != null ? monthOf(filingDate) : NO_DATE;
+        Bucket bucket = target.computeIfAbsent(
+                new BucketKey(status, type, jurisdiction, month, categoryMask), k -> new Bucket());
+        bucket.total += delta;
+        if (filingDate != null) {
+            bucket.days[filingDate.getDayOfMonth() - 1] += delta;
+        }
+    }
+
+    // Sum of absolute per-day differences between the two bucket maps
+    private static long drift(Map<BucketKey, Bucket> current, Map<BucketKey, Bucket> expected) {
+        Set<BucketKey> keys = new HashSet<>(current.keySet());
+        keys.addAll(expected.keySet());
+        long drift = 0;
+        for (BucketKey key : keys) {
+            Bucket a = current.get(key);
+            Bucket b = expected.get(key);
+            if (key.month() == NO_DATE) {
+                drift += Math.abs((a != null ? a.total : 0) - (b != null ? b.total : 0));
+                continue;
+            }
+            for (int day = 0; day < 31; day++) {
+                drift += Math.abs((a != null ? a.days[day] : 0) - (b != null ? b.days[day] : 0));
+            }
+        }
+        return drift;
+    }
+
+    private static int monthOf(LocalDate date) {
+        return AssetAnalyticsSnapshot.monthIndex(date.getYear(), date.getMonthValue());
+    }
+}
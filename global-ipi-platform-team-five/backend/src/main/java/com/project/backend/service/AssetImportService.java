@@ -0,0 +1,283 @@
+package com.project.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.project.backend.dto.ImportJobDTO;
+import com.project.backend.dto.SyncSummaryDTO;
+import com.project.backend.entity.IPAsset;
+import com.project.backend.util.CsvRecordReader;
+import com.project.backend.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming bulk import of IP assets from NDJSON or CSV.
+ * Records are parsed one at a time from the request stream and written through
+ * {@link AssetBulkUpsertService} in batches of app.import.batch-size. Parsing waits while a
+ * batch is written, so a slow database throttles the upload instead of buffering it, and
+ * memory stays bounded by one batch whatever the size of the feed.
+ */
+@Service
+public class AssetImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetImportService.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int MAX_ERROR_SAMPLES = 50;
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final AssetBulkUpsertService assetBulkUpsertService;
+    private final ObjectReader assetReader;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    public AssetImportService(AssetBulkUpsertService assetBulkUpsertService, ObjectMapper objectMapper) {
+        this.assetBulkUpsertService = assetBulkUpsertService;
+        this.assetReader = objectMapper.readerFor(IPAsset.class);
+    }
+
+    /** A job id was reused while the import under that id is still running. */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public static class JobRunningException extends RuntimeException {
+        public JobRunningException(String jobId) {
+            super("Import job already running: " + jobId);
+        }
+    }
+
+    /**
+     * Imports the stream on the calling thread and returns the final job status.
+     * Progress is visible through {@link #getJob(String)} while the import runs.
+     * A finished job's id may be reused; reusing a running one throws {@link JobRunningException}.
+     */
+    public ImportJobDTO runImport(InputStream in, String format, String requestedJobId) {
+        String jobId = requestedJobId != null && !requestedJobId.isBlank() ? requestedJobId : UUID.randomUUID().toString();
+        Job job = new Job(jobId, format);
+        // Check and replace in one step, so two requests can't both take over a finished id
+        jobs.compute(jobId, (id, previous) -> {
+            if (previous != null && "RUNNING".equals(previous.state)) throw new JobRunningException(id);
+            return job;
+        });
+        pruneFinishedJobs();
+
+        log.info("Import {} started ({})", jobId, format);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<IPAsset> batch = new ArrayList<>(batchSize);
+            skipByteOrderMark(reader);
+            if (FORMAT_CSV.equals(format)) {
+                readCsv(reader, job, batch);
+            } else {
+                readNdjson(reader, job, batch);
+            }
+            flush(batch, job);
+            job.state = "COMPLETED";
+        } catch (Exception e) {
+            job.state = "FAILED";
+            job.failure = e.getMessage();
+            log.error("Import {} failed after {} records: {}", jobId, job.recordsRead.get(), e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        log.info("Import {} {}: {} read, {} inserted, {} updated, {} skipped, {} errors", jobId, job.state,
+                job.recordsRead.get(), job.inserted.get(), job.updated.get(), job.skipped.get(), job.errors.get());
+        return job.toDTO();
+    }
+
+    public Optional<ImportJobDTO> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? Optional.of(job.toDTO()) : Optional.empty();
+    }
+
+    public List<ImportJobDTO> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job j) -> j.startedAt).reversed())
+                .map(Job::toDTO)
+                .toList();
+    }
+
+    // ===========================
+    // PARSING
+    // ===========================
+
+    // Excel and other Windows tools start UTF-8 exports with a BOM, which trim() keeps
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') reader.reset();
+    }
+
+    private void readNdjson(BufferedReader reader, Job job, List<IPAsset> batch) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            job.recordsRead.incrementAndGet();
+            try {
+                accept(assetReader.readValue(line), "line " + lineNumber, job, batch);
+            } catch (JsonProcessingException e) {
+                job.error("line " + lineNumber + ": " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Job job, List<IPAsset> batch) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = header.get(i).trim().replace("_", "").toLowerCase();
+        }
+
+        List<String> values;
+        while ((values = csv.next()) != null) {
+            job.recordsRead.incrementAndGet();
+            String position = "record " + csv.getRecordNumber();
+            try {
+                IPAsset asset = new IPAsset();
+                for (int i = 0; i < columns.length && i < values.size(); i++) {
+                    setField(asset, columns[i], values.get(i));
+                }
+                accept(asset, position, job, batch);
+            } catch (RuntimeException e) {
+                job.error(position + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void setField(IPAsset asset, String column, String raw) {
+        String value = raw == null || raw.isBlank() ? null : raw.trim();
+        switch (column) {
+            case "assetnumber" -> asset.setAssetNumber(value);
+            case "type" -> asset.setType(value);
+            case "title" -> asset.setTitle(value);
+            case "assignee" -> asset.setAssignee(value);
+            case "inventor" -> asset.setInventor(value);
+            case "jurisdiction" -> asset.setJurisdiction(value);
+            case "status" -> asset.setStatus(value);
+            case "class", "assetclass" -> asset.setAssetClass(value);
+            case "details" -> asset.setDetails(value);
+            case "filingdate" -> asset.setFilingDate(parseDateTime(value));
+            case "publicationdate" -> asset.setPublicationDate(parseDateTime(value));
+            default -> { }
+        }
+    }
+
+    private LocalDateTime parseDateTime(String value) {
+        if (value == null) return null;
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    // ===========================
+    // VALIDATION & WRITING
+    // ===========================
+
+    private void accept(IPAsset asset, String position, Job job, List<IPAsset> batch) {
+        if (asset == null || asset.getAssetNumber() == null || asset.getAssetNumber().trim().isEmpty()) {
+            job.error(position + ": missing assetNumber");
+            return;
+        }
+        normalize(asset);
+        batch.add(asset);
+        if (batch.size() >= batchSize) {
+            flush(batch, job);
+        }
+    }
+
+    // Same normalization as the per-entity write path in IPAssetService
+    private void normalize(IPAsset asset) {
+        asset.setId(null);
+        asset.setAssetNumber(asset.getAssetNumber().trim());
+        asset.setTitle(StringUtil.truncate(asset.getTitle(), 255));
+        asset.setAssignee(StringUtil.truncate(asset.getAssignee(), 255));
+        asset.setInventor(StringUtil.truncate(asset.getInventor(), 255));
+        asset.setDetails(StringUtil.truncate(asset.getDetails(), 1000));
+        if (asset.getAssetClass() == null) {
+            asset.setAssetClass("Unknown");
+        }
+        asset.setApiSource("api");
+    }
+
+    private void flush(List<IPAsset> batch, Job job) {
+        if (batch.isEmpty()) return;
+        SyncSummaryDTO summary = assetBulkUpsertService.upsert(batch);
+        job.inserted.addAndGet(summary.getInserted());
+        job.updated.addAndGet(summary.getUpdated());
+        job.skipped.addAndGet(summary.getSkipped());
+        batch.clear();
+    }
+
+    private void pruneFinishedJobs() {
+        List<Job> finished = jobs.values().stream()
+                .filter(j -> !"RUNNING".equals(j.state))
+                .sorted(Comparator.comparing((Job j) -> j.startedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).jobId, finished.get(i));
+        }
+    }
+
+    private static final class Job {
+        final String jobId;
+        final String format;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong recordsRead = new AtomicLong();
+        final AtomicLong inserted = new AtomicLong();
+        final AtomicLong updated = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
+        volatile String state = "RUNNING";
+        volatile String failure;
+        volatile LocalDateTime finishedAt;
+
+        Job(String jobId, String format) {
+            this.jobId = jobId;
+            this.format = format;
+        }
+
+        void error(String message) {
+            errors.incrementAndGet();
+            if (errorSamples.size() < MAX_ERROR_SAMPLES) errorSamples.add(message);
+        }
+
+        ImportJobDTO toDTO() {
+            ImportJobDTO dto = new ImportJobDTO();
+            dto.setJobId(jobId);
+            dto.setFormat(format);
+            dto.setState(state);
+            dto.setRecordsRead(recordsRead.get());
+            dto.setInserted(inserted.get());
+            dto.setUpdated(updated.get());
+            dto.setSkipped(skipped.get());
+            dto.setErrors(errors.get());
+            synchronized (errorSamples) {
+                dto.setErrorSamples(new ArrayList<>(errorSamples));
+            }
+            dto.setFailure(failure);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
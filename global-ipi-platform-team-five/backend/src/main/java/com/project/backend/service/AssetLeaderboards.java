@@ -0,0 +1,240 @@
+package com.project.backend.service;
+
+import com.project.backend.util.SpaceSaving;
+import com.project.backend.util.TechnologyCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Streaming top-N assignees and inventors for the landscape leaderboards, one
+ * {@link SpaceSaving} summary per technology category plus one over all assets, each with
+ * a fixed number of counters. Built from ip_assets at startup and kept current from
+ * IPAssetChangeEvents; {@link #rebuild()} replaces them periodically, which also drops the
+ * error accumulated by evictions and moves the per-year counts to a new calendar year.
+ * Changes delivered while it reads the table are buffered and replayed onto the new sketches.
+ * <p>
+ * Assignee counters carry three side counts: active assets, assets filed this year and
+ * assets filed last year (relative to {@link #year()}).
+ */
+@Component
+public class AssetLeaderboards {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetLeaderboards.class);
+
+    public static final int ACTIVE = 0;
+    public static final int FILED_THIS_YEAR = 1;
+    public static final int FILED_LAST_YEAR = 2;
+
+    private static final String BUILD_SQL =
+            "SELECT status, filing_date, assignee, inventor, category_mask, class FROM ip_assets";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final int capacity;
+    private final int exactMaxAssets;
+    private final Object lock = new Object();
+
+    private Sketches sketches;  // null until the first build
+    private PendingChanges pending;  // non-null while a rebuild runs
+
+    public AssetLeaderboards(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.leaderboard.capacity:1000}") int capacity,
+                             @Value("${app.leaderboard.exact-max-assets:20000}") int exactMaxAssets) {
+        this.jdbcTemplate = jdbcTemplate;
+        // One snapshot for the build and the re-reads of changed assets
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.capacity = capacity;
+        this.exactMaxAssets = exactMaxAssets;
+    }
+
+    private final class Sketches {
+        final int year = LocalDate.now().getYear();
+        final SpaceSaving<String> allAssignees = new SpaceSaving<>(capacity, 3);
+        final SpaceSaving<String> allInventors = new SpaceSaving<>(capacity, 0);
+        final List<SpaceSaving<String>> assignees = new ArrayList<>();
+        final List<SpaceSaving<String>> inventors = new ArrayList<>();
+
+        Sketches() {
+            for (int i = 0; i < TechnologyCategories.COUNT; i++) {
+                assignees.add(new SpaceSaving<>(capacity, 3));
+                inventors.add(new SpaceSaving<>(capacity, 0));
+            }
+        }
+
+        void apply(IPAssetChangeEvent.Facts facts, boolean add) {
+            apply(facts.status(), facts.filingDate(), facts.assignee(), facts.inventor(), facts.categoryMask(), add);
+        }
+
+        void apply(String status, LocalDate filingDate, String assignee, String inventor, int mask, boolean add) {
+            String a = name(assignee);
+            String i = name(inventor);
+            long[] extras = new long[3];
+            extras[ACTIVE] = AnalyticsService.isStatusActive(status) ? 1 : 0;
+            if (filingDate != null) {
+                extras[FILED_THIS_YEAR] = filingDate.getYear() == year ? 1 : 0;
+                extras[FILED_LAST_YEAR] = filingDate.getYear() == year - 1 ? 1 : 0;
+            }
+            update(allAssignees, a, extras, add);
+            update(allInventors, i, null, add);
+            for (int m = mask; m != 0; m &= m - 1) {
+                int category = Integer.numberOfTrailingZeros(m);
+                update(assignees.get(category), a, extras, add);
+                update(inventors.get(category), i, null, add);
+            }
+        }
+
+        private void update(SpaceSaving<String> sketch, String item, long[] extras, boolean add) {
+            if (add) sketch.add(item, extras);
+            else sketch.remove(item, extras);
+        }
+    }
+
+    /** A top-N answer: entries highest first, and the bound on any count's overestimate. */
+    public record Leaderboard(List<SpaceSaving.Entry<String>> entries, long errorBound, long total, int year) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Initial leaderboard build failed, landscape leaderboards use exact counts: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        PendingChanges buffered = new PendingChanges();
+        synchronized (lock) {
+            pending = buffered;
+        }
+        try {
+            snapshotTemplate.executeWithoutResult(status -> build(buffered));
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+
+    private void build(PendingChanges buffered) {
+        long start = System.currentTimeMillis();
+        Sketches rebuilt = new Sketches();
+        Map<String, Integer> maskCache = new HashMap<>();
+        jdbcTemplate.query(BUILD_SQL, rs -> {
+            Timestamp filing = rs.getTimestamp("filing_date");
+            int mask = rs.getInt("category_mask");
+            if (rs.wasNull()) {
+                String assetClass = rs.getString("class");
+                mask = assetClass == null ? 0 : maskCache.computeIfAbsent(assetClass, TechnologyCategories::categoryMask);
+            }
+            rebuilt.apply(rs.getString("status"), filing != null ? filing.toLocalDateTime().toLocalDate() : null,
+                    rs.getString("assignee"), rs.getString("inventor"), mask, true);
+        });
+        while (true) {
+            Set<Integer> unread;
+            synchronized (lock) {
+                unread = buffered.unread();
+                if (unread.isEmpty()) {
+                    // Everything delivered so far is read; nothing can arrive until the swap
+                    buffered.replay(facts -> rebuilt.apply(facts, false), facts -> rebuilt.apply(facts, true));
+                    sketches = rebuilt;
+                    break;
+                }
+            }
+            Map<Integer, IPAssetChangeEvent.Facts> states = PendingChanges.read(jdbcTemplate, unread);
+            synchronized (lock) {
+                buffered.putSnapshot(states);
+            }
+        }
+        log.info("Leaderboard sketches built in {} ms ({} assignee occurrences, {} counters per sketch)",
+                System.currentTimeMillis() - start, rebuilt.allAssignees.total(), capacity);
+    }
+
+    public boolean isLoaded() {
+        synchronized (lock) {
+            return sketches != null;
+        }
+    }
+
+    /** Landscapes up to this many assets are ranked exactly from the snapshot in auto mode. */
+    public int exactMaxAssets() {
+        return exactMaxAssets;
+    }
+
+    /** Calendar year the per-year side counts refer to, or 0 when not loaded. */
+    public int year() {
+        synchronized (lock) {
+            return sketches != null ? sketches.year : 0;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssetChange(IPAssetChangeEvent event) {
+        synchronized (lock) {
+            if (pending != null) pending.add(event.getChanges());
+            if (sketches == null) return;
+            for (IPAssetChangeEvent.Change change : event.getChanges()) {
+                if (change.before() != null) sketches.apply(change.before(), false);
+                if (change.after() != null) sketches.apply(change.after(), true);
+            }
+        }
+    }
+
+    /** Top assignees over all assets (category -1) or within one technology category. */
+    public Leaderboard topAssignees(int category, int n) {
+        synchronized (lock) {
+            if (sketches == null) throw new IllegalStateException("Leaderboards are not loaded");
+            return leaderboard(category < 0 ? sketches.allAssignees : sketches.assignees.get(category), n);
+        }
+    }
+
+    public Leaderboard topInventors(int category, int n) {
+        synchronized (lock) {
+            if (sketches == null) throw new IllegalStateException("Leaderboards are not loaded");
+            return leaderboard(category < 0 ? sketches.allInventors : sketches.inventors.get(category), n);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("loaded", sketches != null);
+            if (sketches == null) return stats;
+            stats.put("capacity", capacity);
+            stats.put("year", sketches.year);
+            stats.put("exactMaxAssets", exactMaxAssets);
+            stats.put("assigneeOccurrences", sketches.allAssignees.total());
+            stats.put("assignees", sketches.allAssignees.size());
+            stats.put("assigneeErrorBound", sketches.allAssignees.errorBound());
+            stats.put("inventorOccurrences", sketches.allInventors.total());
+            stats.put("inventors", sketches.allInventors.size());
+            stats.put("inventorErrorBound", sketches.allInventors.errorBound());
+        }
+        return stats;
+    }
+
+    private Leaderboard leaderboard(SpaceSaving<String> sketch, int n) {
+        return new Leaderboard(sketch.top(n), sketch.errorBound(), sketch.total(), sketches.year);
+    }
+
+    // Same rule as the snapshot leaderboards: blank names are not ranked
+    private static String name(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,538 @@
+package com.project.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.backend.dto.CursorPageDTO;
+import com.project.backend.dto.FacetedSearchDTO;
+import com.project.backend.entity.IPAsset;
+import com.project.backend.repository.IPAssetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyword search over ip_assets backed by a PostgreSQL full-text index.
+ * search_vector is a generated tsvector column (kept current by the database on every write)
+ * with a GIN index. Fields are weighted so each query only matches the columns its LIKE
+ * predecessor looked at: A = title, B = assignee and asset number, C = details.
+ * Keywords become prefix terms that must appear in order ("machine lea" -> machine:* <-> lea:*).
+ * Prefix terms only match at word starts; with pg_trgm the title is also matched as a
+ * substring ("ology" finds "Biotechnology") through a trigram index, without it title
+ * matches are word prefixes only. Details (searchByKeyword) are word prefixes either way.
+ * When the index is unavailable (other databases, DDL not permitted) every method falls back
+ * to the original LIKE queries in IPAssetRepository.
+ *
+ * Substring filters on assignee, inventor and asset number use pg_trgm GIN indexes on the
+ * lower-cased columns. Without the extension they are resolved to candidate ids by the
+ * in-process {@link AssetTrigramIndex} instead.
+ *
+ * The column and indexes are created at startup only when missing, the indexes with
+ * CREATE INDEX CONCURRENTLY so writes continue while they build. Adding search_vector
+ * rewrites ip_assets once; on a large table run {@link #SEARCH_VECTOR_DDL} ahead of the
+ * deployment.
+ */
+@Service
+public class AssetSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetSearchService.class);
+
+    static final String SEARCH_VECTOR_DDL =
+            "ALTER TABLE ip_assets ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(assignee, '') || ' ' || coalesce(asset_number, '')), 'B') || " +
+                    "setweight(to_tsvector('simple', coalesce(details, '')), 'C')) STORED";
+
+    // Index name -> definition on ip_assets
+    private static final Map<String, String> FULL_TEXT_INDEXES = Map.of(
+            "idx_ip_assets_search_vector", "USING GIN (search_vector)"
+    );
+
+    private static final Map<String, String> TRIGRAM_INDEXES = new LinkedHashMap<>();
+    static {
+        TRIGRAM_INDEXES.put("idx_ip_assets_assignee_trgm", "USING GIN (LOWER(assignee) gin_trgm_ops)");
+        TRIGRAM_INDEXES.put("idx_ip_assets_inventor_trgm", "USING GIN (LOWER(inventor) gin_trgm_ops)");
+        TRIGRAM_INDEXES.put("idx_ip_assets_asset_number_trgm", "USING GIN (LOWER(asset_number) gin_trgm_ops)");
+        TRIGRAM_INDEXES.put("idx_ip_assets_title_trgm", "USING GIN (LOWER(title) gin_trgm_ops)");
+    }
+
+    // Above this many matches an id list is no better than the plain LIKE scan
+    private static final int MAX_INDEXED_IDS = 10000;
+
+    // Facet name -> column of the GROUPING SETS result
+    private static final Map<String, String> FACET_COLUMNS = new LinkedHashMap<>();
+    static {
+        FACET_COLUMNS.put("type", "type");
+        FACET_COLUMNS.put("jurisdiction", "jurisdiction");
+        FACET_COLUMNS.put("status", "status");
+        FACET_COLUMNS.put("source", "api_source");
+    }
+
+    // Sort properties usable for cursor paging, each backed by a (column, id) index
+    private static final Map<String, String> KEYSET_COLUMNS = Map.of(
+            "filingDate", "filing_date",
+            "lastUpdated", "last_updated"
+    );
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final String TITLE = "A";
+    private static final String TITLE_DETAILS = "AC";
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    // Sortable entity properties and their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("type", "type"),
+            Map.entry("assetNumber", "asset_number"),
+            Map.entry("title", "title"),
+            Map.entry("assignee", "assignee"),
+            Map.entry("inventor", "inventor"),
+            Map.entry("jurisdiction", "jurisdiction"),
+            Map.entry("filingDate", "filing_date"),
+            Map.entry("publicationDate", "publication_date"),
+            Map.entry("status", "status"),
+            Map.entry("assetClass", "class"),
+            Map.entry("apiSource", "api_source"),
+            Map.entry("lastUpdated", "last_updated")
+    );
+
+    private final IPAssetRepository ipAssetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetTrigramIndex trigramIndex;
+
+    @Value("${app.search.full-text.enabled:true}")
+    private boolean fullTextEnabled;
+
+    private volatile boolean fullTextAvailable;
+    private volatile boolean trigramAvailable;
+
+    // Cursor-paging totals per filter combination
+    private final Cache<String, Long> totalCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
+
+    public AssetSearchService(IPAssetRepository ipAssetRepository, JdbcTemplate jdbcTemplate,
+                              AssetTrigramIndex trigramIndex) {
+        this.ipAssetRepository = ipAssetRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.trigramIndex = trigramIndex;
+    }
+
+    // Idempotent: creates the generated column and the GIN indexes that are missing; runs
+    // outside a transaction, which CREATE INDEX CONCURRENTLY requires
+    @EventListener(ApplicationReadyEvent.class)
+    public void initSearchIndexes() {
+        if (fullTextEnabled) {
+            try {
+                if (!columnExists("search_vector")) {
+                    log.info("Adding search_vector to ip_assets (rewrites the table once)");
+                    jdbcTemplate.execute(SEARCH_VECTOR_DDL);
+                }
+                FULL_TEXT_INDEXES.forEach((name, definition) -> ensureIndex(jdbcTemplate, name, definition));
+                fullTextAvailable = true;
+                log.info("Full-text search index ready");
+            } catch (Exception e) {
+                log.warn("Full-text search index unavailable, using LIKE queries: {}", e.getMessage());
+            }
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            TRIGRAM_INDEXES.forEach((name, definition) -> ensureIndex(jdbcTemplate, name, definition));
+            trigramAvailable = true;
+            log.info("pg_trgm substring indexes ready");
+        } catch (Exception e) {
+            log.warn("pg_trgm unavailable ({}), building in-process trigram index", e.getMessage());
+            try {
+                trigramIndex.build();
+            } catch (Exception buildFailure) {
+                log.warn("In-process trigram index failed, substring filters use LIKE: {}", buildFailure.getMessage());
+            }
+        }
+    }
+
+    private boolean columnExists(String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'ip_assets' AND column_name = ?",
+                Integer.class, column);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Builds the ip_assets index with CREATE INDEX CONCURRENTLY unless a valid one exists; a
+     * concurrent build that failed leaves an invalid index behind, which is dropped and rebuilt.
+     * Must not run inside a transaction.
+     */
+    static void ensureIndex(JdbcTemplate jdbcTemplate, String name, String definition) {
+        List<Boolean> valid = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = ?",
+                Boolean.class, name);
+        if (valid.contains(Boolean.TRUE)) return;
+        if (!valid.isEmpty()) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        log.info("Building index {}", name);
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON ip_assets " + definition);
+    }
+
+    public boolean isFullTextAvailable() {
+        return fullTextAvailable;
+    }
+
+    /**
+     * Same filters as {@link IPAssetRepository#searchAssets}: the keyword matches the title
+     * (full-text) or is a substring of the assignee or asset number (trigram).
+     * sortBy "relevance" orders by rank.
+     */
+    public Page<IPAsset> searchAssets(String keyword, String type, String jurisdictions, String status,
+                                      String source, Pageable pageable) {
+        String query = fullTextQuery(keyword, TITLE);
+        if (query == null) {
+            return ipAssetRepository.searchAssets(keyword, type, jurisdictions, status, source,
+                    withoutRelevanceSort(pageable));
+        }
+
+        List<Object> params = new ArrayList<>();
+        String where = searchWhere(keyword, type, jurisdictions, status, source, params);
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, Long.class, params.toArray());
+        return page(where, params, pageable, total != null ? total : 0);
+    }
+
+    /**
+     * searchAssets plus counts per type, jurisdiction, status and source of everything the
+     * query matches. The facets come from one GROUPING SETS scan whose empty set is also the
+     * page total, so the facets replace the COUNT rather than adding scans.
+     */
+    public FacetedSearchDTO searchAssetsWithFacets(String keyword, String type, String jurisdictions, String status,
+                                                   String source, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        String where = searchWhere(keyword, type, jurisdictions, status, source, params);
+        if (keyword == null || keyword.isEmpty() || fullTextQuery(keyword, TITLE) == null) {
+            pageable = withoutRelevanceSort(pageable);
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : FACET_COLUMNS.keySet()) {
+            facets.put(facet, new LinkedHashMap<>());
+        }
+        long[] total = new long[1];
+        jdbcTemplate.query("SELECT a.type, a.jurisdiction, a.status, a.api_source, " +
+                "GROUPING(a.type) AS g_type, GROUPING(a.jurisdiction) AS g_jurisdiction, " +
+                "GROUPING(a.status) AS g_status, GROUPING(a.api_source) AS g_source, COUNT(*) AS cnt" + where +
+                " GROUP BY GROUPING SETS ((a.type), (a.jurisdiction), (a.status), (a.api_source), ())" +
+                " ORDER BY cnt DESC", rs -> {
+            long count = rs.getLong("cnt");
+            for (Map.Entry<String, String> facet : FACET_COLUMNS.entrySet()) {
+                if (rs.getInt("g_" + facet.getKey()) == 0) {
+                    String value = rs.getString(facet.getValue());
+                    facets.get(facet.getKey()).put(value != null ? value : "Unknown", count);
+                    return;
+                }
+            }
+            total[0] = count;
+        }, params.toArray());
+
+        return new FacetedSearchDTO(page(where, params, pageable, total[0]), facets);
+    }
+
+    private Page<IPAsset> page(String where, List<Object> params, Pageable pageable, long total) {
+        List<Object> pageParams = new ArrayList<>(params);
+        pageParams.add(pageable.getPageSize());
+        pageParams.add(pageable.getOffset());
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT a.id" + where + " ORDER BY " + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                Integer.class, pageParams.toArray());
+
+        return new PageImpl<>(loadInOrder(ids), pageable, total);
+    }
+
+    /**
+     * Seek pagination over the searchAssets filters, ordered by a nullable timestamp column and id.
+     * Rows with a sort key come first, in (key, id) order using the (column, id) index; rows
+     * without one follow in id order. The cursor encodes the phase, the last key and the last id,
+     * so every page is one indexed range read however deep it is. The total is only counted
+     * when asked for and is cached per filter combination.
+     */
+    public CursorPageDTO<IPAsset> searchAssetsByCursor(String keyword, String type, String jurisdictions, String status,
+                                                       String source, String sortBy, boolean ascending,
+                                                       String cursor, int size, boolean withTotal) {
+        String column = KEYSET_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Cursor paging supports sortBy " + KEYSET_COLUMNS.keySet());
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        size = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        SearchCursor position = SearchCursor.decode(cursor);
+
+        List<Object> params = new ArrayList<>();
+        String where = searchWhere(keyword, type, jurisdictions, status, source, params);
+        String direction = ascending ? " ASC" : " DESC";
+
+        List<Integer> ids = new ArrayList<>();
+        String nextCursor = null;
+
+        // Phase 1: rows with a sort key
+        if (position == null || !position.nullPhase()) {
+            List<Object> keyParams = new ArrayList<>(params);
+            StringBuilder sql = new StringBuilder("SELECT a.id, a.").append(column).append(" AS sort_key")
+                    .append(where).append(" AND a.").append(column).append(" IS NOT NULL");
+            if (position != null) {
+                sql.append(" AND (a.").append(column).append(", a.id) ").append(ascending ? ">" : "<").append(" (?, ?)");
+                keyParams.add(Timestamp.valueOf(position.sortKey()));
+                keyParams.add(position.id());
+            }
+            sql.append(" ORDER BY a.").append(column).append(direction).append(", a.id").append(direction).append(" LIMIT ?");
+            keyParams.add(size + 1);
+
+            List<SearchCursor> rows = jdbcTemplate.query(sql.toString(),
+                    (rs, i) -> new SearchCursor(false, rs.getTimestamp("sort_key").toLocalDateTime(), rs.getInt("id")),
+                    keyParams.toArray());
+            for (int i = 0; i < Math.min(size, rows.size()); i++) {
+                ids.add(rows.get(i).id());
+            }
+            if (rows.size() > size) {
+                nextCursor = rows.get(size - 1).encode();
+            }
+        }
+
+        // Phase 2: rows without a sort key, once the keyed rows are exhausted
+        if (nextCursor == null) {
+            int remaining = size - ids.size();
+            int afterId = position != null && position.nullPhase() ? position.id() : -1;
+            List<Object> nullParams = new ArrayList<>(params);
+            nullParams.add(afterId);
+            nullParams.add(remaining + 1);
+            List<Integer> rows = jdbcTemplate.queryForList(
+                    "SELECT a.id" + where + " AND a." + column + " IS NULL AND a.id > ? ORDER BY a.id LIMIT ?",
+                    Integer.class, nullParams.toArray());
+            ids.addAll(rows.subList(0, Math.min(remaining, rows.size())));
+            if (rows.size() > remaining) {
+                int lastId = remaining > 0 ? rows.get(remaining - 1) : afterId;
+                nextCursor = new SearchCursor(true, null, lastId).encode();
+            }
+        }
+
+        Long total = null;
+        if (withTotal) {
+            total = totalCache.get(where + params, k ->
+                    jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, Long.class, params.toArray()));
+        }
+        return new CursorPageDTO<>(loadInOrder(ids), size, nextCursor, total);
+    }
+
+    /** Title or details match, best ranked first (replaces IPAssetRepository#searchByKeyword). */
+    public List<IPAsset> searchByKeyword(String keyword) {
+        String query = fullTextQuery(keyword, TITLE_DETAILS);
+        if (query == null) {
+            return ipAssetRepository.searchByKeyword(keyword);
+        }
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT a.id FROM ip_assets a, to_tsquery('simple', ?) q WHERE a.search_vector @@ q " +
+                "ORDER BY ts_rank(a.search_vector, q) DESC, a.id",
+                Integer.class, query);
+        return loadInOrder(ids);
+    }
+
+    /**
+     * Same filters as {@link IPAssetRepository#advancedSearch}: keyword on the title index,
+     * assignee and inventor as indexed substring matches.
+     */
+    public List<IPAsset> advancedSearch(String keyword, String assignee, String inventor, String jurisdiction) {
+        if (!fullTextAvailable && !trigramAvailable && !trigramIndex.isLoaded()) {
+            return ipAssetRepository.advancedSearch(keyword, assignee, inventor, jurisdiction);
+        }
+
+        String query = fullTextQuery(keyword, TITLE);
+        StringBuilder sql = new StringBuilder("SELECT a.id FROM ip_assets a");
+        List<Object> params = new ArrayList<>();
+        if (query != null) {
+            sql.append(", to_tsquery('simple', ?) q WHERE (a.search_vector @@ q");
+            params.add(query);
+            appendTitleSubstring(sql, params, keyword);
+            sql.append(")");
+        } else if (keyword != null) {
+            sql.append(" WHERE LOWER(a.title) LIKE ?");
+            params.add("%" + keyword.toLowerCase(Locale.ROOT) + "%");
+        } else {
+            sql.append(" WHERE 1 = 1");
+        }
+        if (assignee != null) {
+            sql.append(" AND ");
+            appendContains(sql, params, AssetTrigramIndex.ASSIGNEE, assignee);
+        }
+        if (inventor != null) {
+            sql.append(" AND ");
+            appendContains(sql, params, AssetTrigramIndex.INVENTOR, inventor);
+        }
+        if (jurisdiction != null) {
+            sql.append(" AND LOWER(a.jurisdiction) = LOWER(?)");
+            params.add(jurisdiction);
+        }
+        sql.append(query != null ? " ORDER BY ts_rank(a.search_vector, q) DESC, a.id" : " ORDER BY a.id");
+
+        return loadInOrder(jdbcTemplate.queryForList(sql.toString(), Integer.class, params.toArray()));
+    }
+
+    /**
+     * FROM/WHERE clause with the searchAssets filters; always ends in a WHERE so callers can
+     * append further "AND ..." predicates. The tsquery, when there is one, is available as q.
+     */
+    private String searchWhere(String keyword, String type, String jurisdictions, String status,
+                               String source, List<Object> params) {
+        StringBuilder where = new StringBuilder(" FROM ip_assets a");
+        String query = keyword != null && !keyword.isEmpty() ? fullTextQuery(keyword, TITLE) : null;
+        if (query != null) {
+            where.append(", to_tsquery('simple', ?) q WHERE (a.search_vector @@ q");
+            params.add(query);
+            appendTitleSubstring(where, params, keyword);
+            where.append(" OR ");
+            appendContains(where, params, AssetTrigramIndex.ASSIGNEE, keyword);
+            where.append(" OR ");
+            appendContains(where, params, AssetTrigramIndex.ASSET_NUMBER, keyword);
+            where.append(")");
+        } else if (keyword != null && !keyword.isEmpty()) {
+            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+            where.append(" WHERE (LOWER(a.title) LIKE ? OR LOWER(a.asset_number) LIKE ? OR LOWER(a.assignee) LIKE ?)");
+            params.addAll(List.of(pattern, pattern, pattern));
+        } else {
+            where.append(" WHERE 1 = 1");
+        }
+        if (!"ALL".equals(type)) {
+            where.append(" AND a.type = ?");
+            params.add(type);
+        }
+        if (!"all".equals(source)) {
+            where.append(" AND a.api_source = ?");
+            params.add(source);
+        }
+        if (jurisdictions != null && !jurisdictions.isEmpty()) {
+            where.append(" AND a.jurisdiction LIKE ?");
+            params.add("%" + jurisdictions + "%");
+        }
+        if (status != null && !status.isEmpty()) {
+            where.append(" AND a.status = ?");
+            params.add(status);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Appends a case-insensitive "column contains fragment" predicate. With pg_trgm this is a
+     * LIKE the GIN index on LOWER(column) can answer; otherwise the in-process trigram index
+     * resolves it to an id list, and only a too-broad fragment ends up as a plain LIKE scan.
+     */
+    private void appendContains(StringBuilder sql, List<Object> params, String column, String fragment) {
+        if (!trigramAvailable) {
+            Set<Integer> ids = trigramIndex.idsContaining(column, fragment, MAX_INDEXED_IDS);
+            if (ids != null) {
+                sql.append("a.id = ANY(CAST(? AS int[]))");
+                params.add(ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")));
+                return;
+            }
+        }
+        sql.append("LOWER(a.").append(column).append(") LIKE ?");
+        params.add("%" + fragment.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    // Substrings inside title words ("ology") that prefix terms can't match; only with the pg_trgm index
+    private void appendTitleSubstring(StringBuilder sql, List<Object> params, String keyword) {
+        if (!trigramAvailable) return;
+        sql.append(" OR LOWER(a.title) LIKE ?");
+        params.add("%" + keyword.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    /**
+     * Builds a tsquery of prefix terms restricted to the given weights, or null when the
+     * full-text path cannot be used. Terms only contain letters and digits, so user input
+     * can never inject tsquery operators.
+     */
+    static String toPrefixQuery(String keyword, String weights) {
+        if (keyword == null) return null;
+        String terms = Arrays.stream(keyword.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .map(t -> t + ":*" + weights)
+                .collect(Collectors.joining(" <-> "));
+        return terms.isEmpty() ? null : terms;
+    }
+
+    private String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (SORT_RELEVANCE.equalsIgnoreCase(order.getProperty())) {
+                orders.add("ts_rank(a.search_vector, q) DESC");
+                continue;
+            }
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add("a." + column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        orders.add("a.id");
+        return String.join(", ", orders);
+    }
+
+    // Relevance only exists on the full-text path; the LIKE fallback keeps its natural order
+    private Pageable withoutRelevanceSort(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(o -> !SORT_RELEVANCE.equalsIgnoreCase(o.getProperty()))
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private String fullTextQuery(String keyword, String weights) {
+        return fullTextAvailable ? toPrefixQuery(keyword, weights) : null;
+    }
+
+    private List<IPAsset> loadInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Integer, IPAsset> byId = ipAssetRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(IPAsset::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /** Position after the last row of a cursor page; sent to clients as an opaque base64 token. */
+    private record SearchCursor(boolean nullPhase, LocalDateTime sortKey, int id) {
+
+        String encode() {
+            String raw = (nullPhase ? "N" : "K") + "|" + (sortKey != null ? sortKey : "") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) return null;
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                boolean nullPhase = parts[0].equals("N");
+                return new SearchCursor(nullPhase, nullPhase ? null : LocalDateTime.parse(parts[1]), Integer.parseInt(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.backend.service;
+
+import com.project.backend.util.PrefixSuggestIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Typeahead behind /api/search/suggest: in-memory prefix indexes over titles, assignees,
+ * inventors and asset numbers, ranked by how many assets carry the value. Built from
+ * ip_assets at startup and kept current from IPAssetChangeEvents; writes become visible
+ * to lookups at the next refreeze (ScheduledTasks, app.suggest.refreeze-ms).
+ */
+@Component
+public class AssetSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetSuggestService.class);
+
+    public static final String TITLE = "title";
+    public static final String ASSIGNEE = "assignee";
+    public static final String INVENTOR = "inventor";
+    public static final String ASSET_NUMBER = "assetNumber";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, PrefixSuggestIndex> indexes = new LinkedHashMap<>();
+    private volatile boolean loaded;
+
+    public AssetSuggestService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (String field : List.of(TITLE, ASSIGNEE, INVENTOR, ASSET_NUMBER)) {
+            indexes.put(field, new PrefixSuggestIndex());
+        }
+    }
+
+    public record Suggestion(String text, String field, int count) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT title, assignee, inventor, asset_number FROM ip_assets", rs -> {
+            apply(rs.getString("title"), rs.getString("assignee"), rs.getString("inventor"),
+                    rs.getString("asset_number"), true);
+        });
+        refreeze();
+        loaded = true;
+        log.info("Suggest indexes built in {} ms ({} titles, {} assignees, {} inventors, {} asset numbers)",
+                System.currentTimeMillis() - start, indexes.get(TITLE).size(), indexes.get(ASSIGNEE).size(),
+                indexes.get(INVENTOR).size(), indexes.get(ASSET_NUMBER).size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void refreeze() {
+        for (PrefixSuggestIndex index : indexes.values()) {
+            index.refreeze();
+        }
+    }
+
+    /**
+     * Top completions of the prefix in one field, or across all fields when field is null
+     * or "all" (merged by count).
+     */
+    public List<Suggestion> suggest(String prefix, String field, int limit) {
+        List<Suggestion> result = new ArrayList<>();
+        if (field == null || field.isBlank() || "all".equalsIgnoreCase(field)) {
+            for (Map.Entry<String, PrefixSuggestIndex> e : indexes.entrySet()) {
+                collect(result, e.getKey(), e.getValue(), prefix, limit);
+            }
+            result.sort(Comparator.comparingInt(Suggestion::count).reversed());
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        }
+        PrefixSuggestIndex index = indexes.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown suggest field: " + field + " (expected one of " + indexes.keySet() + ")");
+        }
+        collect(result, field, index, prefix, limit);
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onAssetChange(IPAssetChangeEvent event) {
+        if (!loaded) return;
+        for (IPAssetChangeEvent.Change change : event.getChanges()) {
+            IPAssetChangeEvent.Facts before = change.before();
+            IPAssetChangeEvent.Facts after = change.after();
+            if (before != null) {
+                apply(before.title(), before.assignee(), before.inventor(), before.assetNumber(), false);
+            }
+            if (after != null) {
+                apply(after.title(), after.assignee(), after.inventor(), after.assetNumber(), true);
+            }
+        }
+    }
+
+    private void collect(List<Suggestion> result, String field, PrefixSuggestIndex index, String prefix, int limit) {
+        for (PrefixSuggestIndex.Suggestion s : index.complete(prefix, limit)) {
+            result.add(new Suggestion(s.text(), field, s.count()));
+        }
+    }
+
+    private void apply(String title, String assignee, String inventor, String assetNumber, boolean add) {
+        update(indexes.get(TITLE), title, add);
+        update(indexes.get(ASSIGNEE), assignee, add);
+        // SerpAPI stores all inventors of a patent in one comma-separated value
+        if (inventor != null) {
+            for (String name : inventor.split(",")) {
+                update(indexes.get(INVENTOR), name, add);
+            }
+        }
+        update(indexes.get(ASSET_NUMBER), assetNumber, add);
+    }
+
+    private void update(PrefixSuggestIndex index, String value, boolean add) {
+        if (add) index.add(value);
+        else index.remove(value);
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.backend.service;
+
+import com.project.backend.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+/**
+ * In-process trigram indexes on assignee, inventor and asset number. Only built when the
+ * database has no pg_trgm (see AssetSearchService); kept current from IPAssetChangeEvents.
+ */
+@Component
+public class AssetTrigramIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetTrigramIndex.class);
+
+    public static final String ASSIGNEE = "assignee";
+    public static final String INVENTOR = "inventor";
+    public static final String ASSET_NUMBER = "asset_number";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile TrigramIndex assignees;
+    private volatile TrigramIndex inventors;
+    private volatile TrigramIndex assetNumbers;
+
+    public AssetTrigramIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isLoaded() {
+        return assetNumbers != null;
+    }
+
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        TrigramIndex assigneeIndex = new TrigramIndex();
+        TrigramIndex inventorIndex = new TrigramIndex();
+        TrigramIndex numberIndex = new TrigramIndex();
+        jdbcTemplate.query("SELECT id, assignee, inventor, asset_number FROM ip_assets", rs -> {
+            int id = rs.getInt("id");
+            assigneeIndex.add(rs.getString("assignee"), id);
+            inventorIndex.add(rs.getString("inventor"), id);
+            numberIndex.add(rs.getString("asset_number"), id);
+        });
+        assignees = assigneeIndex;
+        inventors = inventorIndex;
+        assetNumbers = numberIndex;
+        log.info("In-process trigram index built in {} ms ({} assignees, {} inventors, {} asset numbers)",
+                System.currentTimeMillis() - start, assigneeIndex.distinctValues(),
+                inventorIndex.distinctValues(), numberIndex.distinctValues());
+    }
+
+    /** Asset ids whose column contains the fragment, or null when not loaded or too many match. */
+    public Set<Integer> idsContaining(String column, String fragment, int maxIds) {
+        TrigramIndex index = switch (column) {
+            case ASSIGNEE -> assignees;
+            case INVENTOR -> inventors;
+            case ASSET_NUMBER -> assetNumbers;
+            default -> throw new IllegalArgumentException("No trigram index on " + column);
+        };
+        return index != null ? index.idsContaining(fragment, maxIds) : null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onAssetChange(IPAssetChangeEvent event) {
+        if (!isLoaded()) return;
+        for (IPAssetChangeEvent.Change change : event.getChanges()) {
+            IPAssetChangeEvent.Facts before = change.before();
+            IPAssetChangeEvent.Facts after = change.after();
+            if (before != null) {
+                assignees.remove(before.assignee(), before.id());
+                inventors.remove(before.inventor(), before.id());
+                assetNumbers.remove(before.assetNumber(), before.id());
+            }
+            if (after != null) {
+                assignees.add(after.assignee(), after.id());
+                inventors.add(after.inventor(), after.id());
+                assetNumbers.add(after.assetNumber(), after.id());
+            }
+        }
+    }
+}
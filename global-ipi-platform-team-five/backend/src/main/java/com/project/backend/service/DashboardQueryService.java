@@ -0,0 +1,120 @@
+package com.project.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Dashboard aggregates in SQL, used while neither the counters nor the snapshot are loaded.
+ * Only the filters actually supplied become predicates, so the planner never sees
+ * "? IS NULL OR ..." catch-alls. Type and jurisdiction match case-insensitively through
+ * expression indexes on LOWER(type) / LOWER(jurisdiction); a date-only filter uses the
+ * (filing_date, type, jurisdiction, status) index of IPAsset.
+ */
+@Service
+public class DashboardQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardQueryService.class);
+
+    // Index name -> definition on ip_assets
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+    static {
+        INDEXES.put("idx_ip_assets_dashboard_type", "(LOWER(type), LOWER(jurisdiction), filing_date, status)");
+        INDEXES.put("idx_ip_assets_dashboard_jurisdiction", "(LOWER(jurisdiction), filing_date, status)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DashboardQueryService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIndexes() {
+        try {
+            INDEXES.forEach((name, definition) -> AssetSearchService.ensureIndex(jdbcTemplate, name, definition));
+        } catch (Exception e) {
+            log.warn("Dashboard expression indexes unavailable: {}", e.getMessage());
+        }
+    }
+
+    /** Rows of (status, count). */
+    public List<Object[]> countByStatus(LocalDateTime cutoff, String type, String jurisdiction) {
+        List<Object> params = new ArrayList<>();
+        String where = where(cutoff, type, jurisdiction, params);
+        return jdbcTemplate.query("SELECT a.status, COUNT(*) FROM ip_assets a" + where + " GROUP BY a.status",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2)}, params.toArray());
+    }
+
+    /** Rows of (jurisdiction, count). */
+    public List<Object[]> countByJurisdiction(LocalDateTime cutoff, String type, String jurisdiction) {
+        List<Object> params = new ArrayList<>();
+        String where = where(cutoff, type, jurisdiction, params);
+        return jdbcTemplate.query("SELECT a.jurisdiction, COUNT(*) FROM ip_assets a" + where + " GROUP BY a.jurisdiction",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2)}, params.toArray());
+    }
+
+    /** Rows of (year, month, type, count); assets without a filing date are skipped. */
+    public List<Object[]> countByMonthAndType(LocalDateTime cutoff, String type, String jurisdiction) {
+        List<Object> params = new ArrayList<>();
+        String where = where(cutoff, type, jurisdiction, params);
+        return jdbcTemplate.query(
+                "SELECT EXTRACT(YEAR FROM a.filing_date) AS y, EXTRACT(MONTH FROM a.filing_date) AS m, a.type, COUNT(*) " +
+                "FROM ip_assets a" + where + " AND a.filing_date IS NOT NULL GROUP BY y, m, a.type",
+                (rs, i) -> new Object[]{rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getLong(4)}, params.toArray());
+    }
+
+    public long countFiledBetween(LocalDateTime from, LocalDateTime to,
+                                  LocalDateTime cutoff, String type, String jurisdiction) {
+        List<Object> params = new ArrayList<>();
+        String where = where(cutoff, type, jurisdiction, params);
+        params.add(Timestamp.valueOf(from));
+        params.add(Timestamp.valueOf(to));
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ip_assets a" + where + " AND a.filing_date >= ? AND a.filing_date < ?",
+                Long.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Ids of the filtered assets whose title, class, assignee, inventor, details or stored
+     * category names contain the text, in id order.
+     */
+    public List<Integer> searchIds(String text, LocalDateTime cutoff, String type, String jurisdiction, int limit) {
+        List<Object> params = new ArrayList<>();
+        String where = where(cutoff, type, jurisdiction, params);
+        String pattern = "%" + text.toLowerCase(Locale.ROOT) + "%";
+        params.addAll(List.of(pattern, pattern, pattern, pattern, pattern, pattern));
+        params.add(limit);
+        return jdbcTemplate.queryForList("SELECT a.id FROM ip_assets a" + where + " AND (" +
+                "LOWER(a.title) LIKE ? OR LOWER(a.class) LIKE ? OR LOWER(a.assignee) LIKE ? OR " +
+                "LOWER(a.inventor) LIKE ? OR LOWER(a.details) LIKE ? OR " +
+                "EXISTS (SELECT 1 FROM ip_asset_categories c WHERE c.asset_id = a.id AND LOWER(c.category) LIKE ?)) " +
+                "ORDER BY a.id LIMIT ?", Integer.class, params.toArray());
+    }
+
+    // WHERE clause with a predicate per supplied filter; always ends in a WHERE so callers can append "AND ..."
+    private static String where(LocalDateTime cutoff, String type, String jurisdiction, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (type != null) {
+            where.append(" AND LOWER(a.type) = ?");
+            params.add(type.toLowerCase(Locale.ROOT));
+        }
+        if (jurisdiction != null) {
+            where.append(" AND LOWER(a.jurisdiction) = ?");
+            params.add(jurisdiction.toLowerCase(Locale.ROOT));
+        }
+        if (cutoff != null) {
+            where.append(" AND a.filing_date >= ?");
+            params.add(Timestamp.valueOf(cutoff));
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.backend.service;
+
+import com.project.backend.entity.APIHealthMetric;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of the endpoint patterns in api_endpoints (APIEndpoint), cached both ways. An unknown
+ * pattern is inserted on first use; ids are shared through the table, so patterns registered
+ * by another instance are looked up on a cache miss.
+ */
+@Component
+public class EndpointDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(EndpointDictionary.class);
+
+    // Rows now carry endpoint_id; the URI column is only filled on rows written before
+    private static final String[] METRICS_DDL = {
+            "ALTER TABLE api_health_metrics ALTER COLUMN endpoint DROP NOT NULL",
+            "DROP INDEX IF EXISTS idx_endpoint"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> patterns = new ConcurrentHashMap<>();
+
+    public EndpointDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String ddl : METRICS_DDL) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (Exception e) {
+                // Fresh schema: the table is created by Hibernate with the nullable column
+                log.debug("Skipped '{}': {}", ddl, e.getMessage());
+            }
+        }
+        try {
+            jdbcTemplate.query("SELECT id, pattern FROM api_endpoints", rs -> {
+                ids.put(rs.getString(2), rs.getInt(1));
+                patterns.put(rs.getInt(1), rs.getString(2));
+            });
+            log.info("Loaded {} API endpoint patterns", ids.size());
+        } catch (Exception e) {
+            log.warn("API endpoint dictionary not loaded: {}", e.getMessage());
+        }
+    }
+
+    public int idOf(String pattern) {
+        Integer id = ids.get(pattern);
+        return id != null ? id : register(pattern);
+    }
+
+    public String patternOf(Integer id) {
+        if (id == null) return null;
+        String pattern = patterns.get(id);
+        if (pattern == null) {
+            List<String> found = jdbcTemplate.queryForList("SELECT pattern FROM api_endpoints WHERE id = ?", String.class, id);
+            if (found.isEmpty()) return null;
+            pattern = found.get(0);
+            ids.put(pattern, id);
+            patterns.put(id, pattern);
+        }
+        return pattern;
+    }
+
+    /** The pattern of the row, or the request URI stored on rows written before the dictionary. */
+    public String endpointOf(APIHealthMetric metric) {
+        String pattern = patternOf(metric.getEndpointId());
+        return pattern != null ? pattern : metric.getEndpoint();
+    }
+
+    private synchronized int register(String pattern) {
+        Integer id = ids.get(pattern);
+        if (id != null) return id;
+        jdbcTemplate.update("INSERT INTO api_endpoints (pattern) VALUES (?) ON CONFLICT (pattern) DO NOTHING", pattern);
+        id = jdbcTemplate.queryForObject("SELECT id FROM api_endpoints WHERE pattern = ?", Integer.class, pattern);
+        ids.put(pattern, id);
+        patterns.put(id, pattern);
+        return id;
+    }
+}
@@ -0,0 +1,191 @@
+package com.project.backend.service;
+
+import com.project.backend.dto.APIHealthDTO;
+import com.project.backend.util.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory latency histograms per (method, endpoint), recorded by APIHealthInterceptor.
+ * The live histograms are swapped out every minute by ScheduledTasks ({@link #rotate()}):
+ * the last hour is kept per minute and older minutes are merged into hourly windows kept
+ * for 24 hours, so percentiles over any window up to a day need no database reads.
+ * Distinct endpoints are capped (app.metrics.latency.max-endpoints); the rest are recorded
+ * under a single "(other)" entry.
+ */
+@Component
+public class EndpointLatencyRecorder {
+
+    private static final int MINUTE_WINDOWS = 60;
+    private static final int HOUR_WINDOWS = 24;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("HH:00");
+
+    public record EndpointKey(String method, String endpoint) {}
+
+    private record Window(LocalDateTime start, Map<EndpointKey, LatencyHistogram.Snapshot> histograms) {}
+
+    private static final EndpointKey OTHER = new EndpointKey("*", "(other)");
+
+    private final int maxEndpoints;
+
+    private volatile ConcurrentHashMap<EndpointKey, LatencyHistogram> live = new ConcurrentHashMap<>();
+    private volatile LocalDateTime liveStart = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+    // Nothing before this was recorded by this process, although the first windows start earlier
+    private final LocalDateTime recordingSince = LocalDateTime.now();
+
+    // Guarded by this
+    private final Deque<Window> minutes = new ArrayDeque<>();
+    private final Deque<Window> hours = new ArrayDeque<>();
+
+    public EndpointLatencyRecorder(@Value("${app.metrics.latency.max-endpoints:1000}") int maxEndpoints) {
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    /** Lock-free apart from the first request of an endpoint in a minute. */
+    public void record(String method, String endpoint, long micros, boolean error) {
+        ConcurrentHashMap<EndpointKey, LatencyHistogram> current = live;
+        EndpointKey key = new EndpointKey(method, endpoint);
+        LatencyHistogram histogram = current.get(key);
+        if (histogram == null) {
+            if (current.size() >= maxEndpoints) key = OTHER;
+            histogram = current.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        histogram.record(micros, error);
+    }
+
+    /**
+     * Closes the current minute. A request finishing while the map is swapped may land in
+     * the closed histogram after its snapshot and is then not counted.
+     */
+    public synchronized void rotate() {
+        ConcurrentHashMap<EndpointKey, LatencyHistogram> closed = live;
+        LocalDateTime closedStart = liveStart;
+        live = new ConcurrentHashMap<>();
+        liveStart = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        minutes.addLast(new Window(closedStart, freeze(closed)));
+        while (minutes.size() > MINUTE_WINDOWS) {
+            Window oldest = minutes.removeFirst();
+            LocalDateTime hour = oldest.start().truncatedTo(ChronoUnit.HOURS);
+            Window last = hours.peekLast();
+            if (last != null && last.start().equals(hour)) {
+                hours.removeLast();
+                hours.addLast(new Window(hour, merge(List.of(last.histograms(), oldest.histograms()))));
+            } else {
+                hours.addLast(new Window(hour, oldest.histograms()));
+            }
+            while (hours.size() > HOUR_WINDOWS) hours.removeFirst();
+        }
+    }
+
+    /**
+     * Percentiles per endpoint over the last {@code windowMinutes} (minute precision for the
+     * last hour, hour precision beyond it), busiest endpoints first.
+     */
+    public List<APIHealthDTO.EndpointLatency> getLatencies(int windowMinutes) {
+        Map<EndpointKey, LatencyHistogram.Snapshot> merged = merge(histogramsOf(windows(windowMinutes)));
+        List<APIHealthDTO.EndpointLatency> result = new ArrayList<>();
+        for (Map.Entry<EndpointKey, LatencyHistogram.Snapshot> e : merged.entrySet()) {
+            result.add(toLatency(e.getKey(), e.getValue(), windowMinutes));
+        }
+        result.sort(Comparator.comparing(APIHealthDTO.EndpointLatency::getRequestCount).reversed());
+        return result;
+    }
+
+    static APIHealthDTO.EndpointLatency toLatency(EndpointKey key, LatencyHistogram.Snapshot s, int windowMinutes) {
+        return APIHealthDTO.EndpointLatency.builder()
+                .endpoint(key.endpoint())
+                .method(key.method())
+                .requestCount(s.getTotal())
+                .errorCount(s.getErrors())
+                .avgMs(millis(s.mean()))
+                .p50Ms(millis(s.valueAtQuantile(0.50)))
+                .p90Ms(millis(s.valueAtQuantile(0.90)))
+                .p99Ms(millis(s.valueAtQuantile(0.99)))
+                .p999Ms(millis(s.valueAtQuantile(0.999)))
+                .maxMs(millis(s.getMax()))
+                .windowMinutes(windowMinutes)
+                .build();
+    }
+
+    /** All endpoints merged, per hour, oldest first; the current hour includes the live minute. */
+    public List<APIHealthDTO.MetricDataPoint> getHourlySeries(int hoursBack) {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(hoursBack - 1L);
+        Map<LocalDateTime, List<LatencyHistogram.Snapshot>> byHour = new TreeMap<>();
+        for (Window w : windows(hoursBack * 60)) {
+            LocalDateTime hour = w.start().truncatedTo(ChronoUnit.HOURS);
+            if (hour.isBefore(from)) continue;
+            byHour.computeIfAbsent(hour, h -> new ArrayList<>()).addAll(w.histograms().values());
+        }
+
+        List<APIHealthDTO.MetricDataPoint> series = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, List<LatencyHistogram.Snapshot>> e : byHour.entrySet()) {
+            LatencyHistogram.Snapshot s = LatencyHistogram.Snapshot.merge(e.getValue());
+            if (s.getTotal() == 0) continue;
+            series.add(APIHealthDTO.MetricDataPoint.builder()
+                    .time(e.getKey().format(HOUR_FORMAT))
+                    .responseTime((int) Math.round(s.mean() / 1000.0))
+                    .requests(s.getTotal())
+                    .errors(s.getErrors())
+                    .build());
+        }
+        return series;
+    }
+
+    /**
+     * Oldest time the in-memory windows cover: when recording started, or the start of the
+     * oldest window once the windows from before that have been dropped.
+     */
+    public synchronized LocalDateTime coveredSince() {
+        Window first = !hours.isEmpty() ? hours.peekFirst() : minutes.peekFirst();
+        LocalDateTime start = first != null ? first.start() : liveStart;
+        return start.isAfter(recordingSince) ? start : recordingSince;
+    }
+
+    // Closed windows starting within the last windowMinutes, plus the live minute
+    private synchronized List<Window> windows(int windowMinutes) {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(windowMinutes);
+        List<Window> windows = new ArrayList<>();
+        for (Window w : hours) {
+            // An hour window counts when any part of it is inside the range
+            if (!w.start().plusHours(1).isBefore(from)) windows.add(w);
+        }
+        for (Window w : minutes) {
+            if (!w.start().isBefore(from)) windows.add(w);
+        }
+        windows.add(new Window(liveStart, freeze(live)));
+        return windows;
+    }
+
+    private static Map<EndpointKey, LatencyHistogram.Snapshot> freeze(Map<EndpointKey, LatencyHistogram> histograms) {
+        Map<EndpointKey, LatencyHistogram.Snapshot> frozen = new HashMap<>();
+        histograms.forEach((key, h) -> frozen.put(key, h.snapshot()));
+        return frozen;
+    }
+
+    private static Map<EndpointKey, LatencyHistogram.Snapshot> merge(Collection<Map<EndpointKey, LatencyHistogram.Snapshot>> maps) {
+        Map<EndpointKey, List<LatencyHistogram.Snapshot>> grouped = new HashMap<>();
+        for (Map<EndpointKey, LatencyHistogram.Snapshot> map : maps) {
+            map.forEach((key, s) -> grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(s));
+        }
+        Map<EndpointKey, LatencyHistogram.Snapshot> merged = new HashMap<>();
+        grouped.forEach((key, list) -> merged.put(key, LatencyHistogram.Snapshot.merge(list)));
+        return merged;
+    }
+
+    private static List<Map<EndpointKey, LatencyHistogram.Snapshot>> histogramsOf(List<Window> windows) {
+        List<Map<EndpointKey, LatencyHistogram.Snapshot>> maps = new ArrayList<>(windows.size());
+        for (Window w : windows) maps.add(w.histograms());
+        return maps;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
@@ -1,15 +1,22 @@
 package com.project.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.project.backend.dto.PatentDTO;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.*;
 
 @Service
-public class ExternalIPService {
+@Order(2)
+public class ExternalIPService implements SearchSource {
 
     private final RestTemplate restTemplate;
 
@@ -17,90 +24,174 @@ public class ExternalIPService {
     @Value("${app.serpapi.key}")
     private String serpApiKey;
 
-    public ExternalIPService(RestTemplate restTemplate) {
+    @Value("${app.search.sources.serpapi.timeout-ms:4000}")
+    private long timeoutMs;
+
+    // SerpAPI responses by normalized query. Empty results are kept for a shorter time;
+    // failed calls are not cached. Concurrent misses on one query share a single upstream call.
+    private final Cache<String, List<PatentDTO>> serpApiCache;
+
+    public ExternalIPService(RestTemplate restTemplate,
+                             @Value("${app.serpapi.cache.max-size:1000}") long cacheMaxSize,
+                             @Value("${app.serpapi.cache.ttl-seconds:600}") long cacheTtlSeconds,
+                             @Value("${app.serpapi.cache.empty-ttl-seconds:60}") long emptyTtlSeconds) {
         this.restTemplate = restTemplate;
+        long ttlNanos = Duration.ofSeconds(cacheTtlSeconds).toNanos();
+        long emptyTtlNanos = Duration.ofSeconds(emptyTtlSeconds).toNanos();
+        this.serpApiCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, List<PatentDTO>>() {
+                    @Override
+                    public long expireAfterCreate(String key, List<PatentDTO> value, long currentTime) {
+                        return value.isEmpty() ? emptyTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, List<PatentDTO> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, List<PatentDTO> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
     public List<PatentDTO> searchSerpApi(String keyword) {
+        try {
+            return search(keyword);
+        } catch (Exception e) {
+            System.err.println("SERP API ERROR: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-        List<PatentDTO> results = new ArrayList<>();
-        String query = (keyword != null && !keyword.isBlank()) ? keyword : "technology";
+    @Override
+    public String getName() {
+        return "serpapi";
+    }
 
-        try {
-            String url = UriComponentsBuilder
-                    .fromHttpUrl("https://serpapi.com/search.json")
-                    .queryParam("engine", "google_patents")
-                    .queryParam("q", query)
-                    .queryParam("api_key", serpApiKey) // Using injected key
-                    .build()
-                    .toUriString();
-
-            Map<?, ?> response = restTemplate.getForObject(url, Map.class);
-
-            if (response == null || !response.containsKey("organic_results")) {
-                return results;
-            }
+    @Override
+    public boolean supports(String mode) {
+        return mode.equals("api") || mode.equals("serpapi") || mode.equals("global") || mode.equals("both");
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /** Like {@link #searchSerpApi} but failures are thrown instead of returned as an empty list. */
+    @Override
+    public List<PatentDTO> search(String keyword) {
+        String query = (keyword != null && !keyword.isBlank())
+                ? keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : "technology";
+        // Callers get their own list; the cached one is shared
+        return new ArrayList<>(serpApiCache.get(query, this::fetchSerpApi));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = serpApiCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", serpApiCache.estimatedSize());
+        result.put("requests", stats.requestCount());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("upstreamCalls", stats.loadCount());
+        result.put("upstreamFailures", stats.loadFailureCount());
+        result.put("averageUpstreamMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    public void clearCache() {
+        serpApiCache.invalidateAll();
+    }
 
-            List<Map<String, Object>> items =
-                    (List<Map<String, Object>>) response.get("organic_results");
+    private List<PatentDTO> fetchSerpApi(String query) {
 
-            for (Map<String, Object> item : items) {
+        List<PatentDTO> results = new ArrayList<>();
 
-                PatentDTO dto = new PatentDTO();
+        String url = UriComponentsBuilder
+                .fromHttpUrl("https://serpapi.com/search.json")
+                .queryParam("engine", "google_patents")
+                .queryParam("q", query)
+                .queryParam("api_key", serpApiKey) // Using injected key
+                .build()
+                .toUriString();
 
-                String pubNum = (String) item.getOrDefault("publication_number", UUID.randomUUID().toString());
+        Map<?, ?> response = restTemplate.getForObject(url, Map.class);
 
-                dto.setId(pubNum);
-                dto.setAssetNumber(pubNum);
-                dto.setType("PATENT"); // SERPAPI = Patents only
-                dto.setTitle((String) item.getOrDefault("title", "No Title"));
-                dto.setAbstractText((String) item.getOrDefault("snippet", "No abstract available"));
+        // Quota and key errors come back as 200 with an "error" field; keep them out of the cache
+        if (response != null && response.get("error") != null) {
+            throw new IllegalStateException(String.valueOf(response.get("error")));
+        }
 
-                dto.setImageUrl(
-                        (String) item.getOrDefault(
-                                "thumbnail",
-                                "https://upload.wikimedia.org/wikipedia/commons/e/e6/Google_Patents_logo.png"
-                        )
-                );
+        if (response == null || !response.containsKey("organic_results")) {
+            return List.of();
+        }
 
-                dto.setExternalUrl(
-                        item.get("pdf") != null
-                                ? (String) item.get("pdf")
-                                : (String) item.get("link")
-                );
+        List<Map<String, Object>> items =
+                (List<Map<String, Object>>) response.get("organic_results");
 
-                Object inventorObj = item.get("inventor");
-                if (inventorObj instanceof List<?>) {
-                    dto.setInventor(String.join(", ", (List<String>) inventorObj));
-                } else {
-                    dto.setInventor((String) inventorObj);
-                }
+        for (Map<String, Object> item : items) {
 
-                dto.setAssignee((String) item.getOrDefault("assignee", "Unknown Assignee"));
+            PatentDTO dto = new PatentDTO();
 
-                dto.setFilingDate(
-                        (String) item.getOrDefault(
-                                "filing_date",
-                                item.get("publication_date")
-                        )
-                );
+            String pubNum = (String) item.getOrDefault("publication_number", UUID.randomUUID().toString());
 
-                dto.setJurisdiction(
-                        pubNum.length() >= 2
-                                ? pubNum.substring(0, 2).toUpperCase()
-                                : "GLOBAL"
-                );
+            dto.setId(pubNum);
+            dto.setAssetNumber(pubNum);
+            dto.setType("PATENT"); // SERPAPI = Patents only
+            dto.setTitle((String) item.getOrDefault("title", "No Title"));
+            dto.setAbstractText((String) item.getOrDefault("snippet", "No abstract available"));
 
-                dto.setStatus("ACTIVE");
-                dto.setSource("SERP_API");
+            dto.setImageUrl(
+                    (String) item.getOrDefault(
+                            "thumbnail",
+                            "https://upload.wikimedia.org/wikipedia/commons/e/e6/Google_Patents_logo.png"
+                    )
+            );
 
-                results.add(dto);
+            dto.setExternalUrl(
+                    item.get("pdf") != null
+                            ? (String) item.get("pdf")
+                            : (String) item.get("link")
+            );
+
+            Object inventorObj = item.get("inventor");
+            if (inventorObj instanceof List<?>) {
+                dto.setInventor(String.join(", ", (List<String>) inventorObj));
+            } else {
+                dto.setInventor((String) inventorObj);
             }
 
-        } catch (Exception e) {
-            System.err.println("SERP API ERROR: " + e.getMessage());
+            dto.setAssignee((String) item.getOrDefault("assignee", "Unknown Assignee"));
+
+            dto.setFilingDate(
+                    (String) item.getOrDefault(
+                            "filing_date",
+                            item.get("publication_date")
+                    )
+            );
+
+            dto.setJurisdiction(
+                    pubNum.length() >= 2
+                            ? pubNum.substring(0, 2).toUpperCase()
+                            : "GLOBAL"
+            );
+
+            dto.setStatus("ACTIVE");
+            dto.setSource("SERP_API");
+
+            results.add(dto);
         }
 
-        return results;
+        return List.copyOf(results);
     }
 }
\ No newline at end of file
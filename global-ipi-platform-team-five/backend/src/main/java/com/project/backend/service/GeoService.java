@@ -3,6 +3,8 @@ package com.project.backend.service;
 import com.project.backend.dto.GeoLocationDTO;
 import com.project.backend.entity.IPAsset;
 import com.project.backend.repository.IPAssetRepository;
+import com.project.backend.service.AssetAnalyticsSnapshot.Data;
+import com.project.backend.util.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.*;
@@ -14,6 +16,9 @@ public class GeoService {
     @Autowired
     private IPAssetRepository ipAssetRepository;
 
+    @Autowired
+    private AssetAnalyticsSnapshot snapshot;
+
     private static final Map<String, double[]> JURISDICTION_COORDS = new HashMap<>() {{
         put("US", new double[]{37.0902, -95.7129, 4});
         put("IN", new double[]{20.5937, 78.9629, 5});
@@ -29,6 +34,19 @@ public class GeoService {
     }};
 
     public Map<String, Object> getGlobalStats() {
+        if (snapshot.isLoaded()) {
+            Data d = snapshot.current();
+            int jurisdictions = 0;
+            for (RoaringBitmap rows : d.bitmaps.byJurisdiction) {
+                if (!rows.isEmpty()) jurisdictions++;
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalPatents", (long) d.rowsWhere(d.types, d.bitmaps.byType, "PATENT"::equalsIgnoreCase).cardinality());
+            stats.put("totalTrademarks", (long) d.rowsWhere(d.types, d.bitmaps.byType, "TRADEMARK"::equalsIgnoreCase).cardinality());
+            stats.put("totalJurisdictions", (long) jurisdictions);
+            return stats;
+        }
+
         List<IPAsset> all = ipAssetRepository.findAll();
         Map<String, Object> stats = new HashMap<>();
         
@@ -40,6 +58,9 @@ public class GeoService {
     }
 
     public List<GeoLocationDTO> getGeoDistribution(String ipType, String status) {
+        if (snapshot.isLoaded()) {
+            return getGeoDistributionFromSnapshot(ipType, status);
+        }
         List<IPAsset> assets = (ipType != null && !"ALL".equalsIgnoreCase(ipType)) 
                 ? ipAssetRepository.findByType(ipType.toUpperCase()) 
                 : ipAssetRepository.findAll();
@@ -59,6 +80,41 @@ public class GeoService {
         return processGeoData(assets);
     }
 
+    // Same figures as processGeoData, each one an intersection count on the snapshot bitmaps
+    private List<GeoLocationDTO> getGeoDistributionFromSnapshot(String ipType, String status) {
+        Data d = snapshot.current();
+        RoaringBitmap rows = d.bitmaps.all;
+        if (ipType != null && !"ALL".equalsIgnoreCase(ipType)) {
+            rows = rows.and(d.rowsWhere(d.types, d.bitmaps.byType, ipType.toUpperCase()::equals));
+        }
+        if (status != null && !status.isEmpty()) {
+            rows = rows.and(d.rowsWhere(d.statuses, d.bitmaps.byStatus, s -> s.toUpperCase().contains(status.toUpperCase())));
+        }
+
+        RoaringBitmap patents = d.rowsWhere(d.types, d.bitmaps.byType, "PATENT"::equalsIgnoreCase);
+        RoaringBitmap trademarks = d.rowsWhere(d.types, d.bitmaps.byType, "TRADEMARK"::equalsIgnoreCase);
+        RoaringBitmap active = d.rowsWhere(d.statuses, d.bitmaps.byStatus, "ACTIVE"::equalsIgnoreCase);
+        RoaringBitmap pending = d.rowsWhere(d.statuses, d.bitmaps.byStatus, "PENDING"::equalsIgnoreCase);
+
+        List<GeoLocationDTO> geoData = new ArrayList<>();
+        for (int j = 0; j < d.bitmaps.byJurisdiction.length; j++) {
+            RoaringBitmap inJurisdiction = rows.and(d.bitmaps.byJurisdiction[j]);
+            if (inJurisdiction.isEmpty()) continue;
+            String code = d.jurisdictions.decode(j);
+            double[] c = JURISDICTION_COORDS.getOrDefault(code, new double[]{0.0, 0.0, 2});
+
+            geoData.add(new GeoLocationDTO(
+                code, JURISDICTION_NAMES.getOrDefault(code, code),
+                (long) inJurisdiction.andCardinality(patents),
+                (long) inJurisdiction.andCardinality(trademarks),
+                (long) inJurisdiction.andCardinality(active),
+                (long) inJurisdiction.andCardinality(pending),
+                c[0], c[1], (int) c[2]
+            ));
+        }
+        return geoData;
+    }
+
     private List<GeoLocationDTO> processGeoData(List<IPAsset> assets) {
         Map<String, List<IPAsset>> grouped = assets.stream()
                 .filter(a -> a.getJurisdiction() != null)
@@ -0,0 +1,81 @@
+package com.project.backend.service;
+
+import com.project.backend.entity.IPAsset;
+import com.project.backend.util.TechnologyCategories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by IPAssetService for every write to ip_assets. Each change carries the
+ * analytics-relevant facts of the row before and after the write, so listeners can
+ * apply deltas without reading the table again. A null "before" is an insert,
+ * a null "after" is a delete.
+ */
+public class IPAssetChangeEvent {
+
+    public record Facts(Integer id, String status, String type, String jurisdiction,
+                        LocalDate filingDate, int categoryMask,
+                        String assetNumber, String title, String assignee, String inventor) {
+
+        public static Facts of(IPAsset asset) {
+            int mask = asset.getCategoryMask() != null
+                    ? asset.getCategoryMask()
+                    : TechnologyCategories.categoryMask(asset.getAssetClass());
+            return new Facts(
+                    asset.getId(),
+                    asset.getStatus(),
+                    asset.getType(),
+                    asset.getJurisdiction(),
+                    asset.getFilingDate() != null ? asset.getFilingDate().toLocalDate() : null,
+                    mask,
+                    asset.getAssetNumber(),
+                    asset.getTitle(),
+                    asset.getAssignee(),
+                    asset.getInventor()
+            );
+        }
+    }
+
+    public record Change(Facts before, Facts after) {}
+
+    private final List<Change> changes;
+
+    public IPAssetChangeEvent(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /** Collects the changes of one service call; publish the result once the writes are done. */
+    public static class Collector {
+        private final List<Change> changes = new ArrayList<>();
+
+        public void inserted(IPAsset saved) {
+            changes.add(new Change(null, Facts.of(saved)));
+        }
+
+        public void updated(Facts before, IPAsset saved) {
+            changes.add(new Change(before, Facts.of(saved)));
+        }
+
+        public void deleted(Facts before) {
+            changes.add(new Change(before, null));
+        }
+
+        public void add(Facts before, Facts after) {
+            changes.add(new Change(before, after));
+        }
+
+        public IPAssetChangeEvent toEvent() {
+            return new IPAssetChangeEvent(List.copyOf(changes));
+        }
+    }
+}
@@ -1,78 +1,73 @@
 package com.project.backend.service;
 
+import com.project.backend.dto.CursorPageDTO;
+import com.project.backend.dto.FacetedSearchDTO;
 import com.project.backend.dto.GeoLocationDTO;
 import com.project.backend.dto.PatentDTO;
+import com.project.backend.dto.SyncSummaryDTO;
 import com.project.backend.entity.FilingTracker;
 import com.project.backend.entity.IPAsset;
 import com.project.backend.entity.User;
 import com.project.backend.repository.FilingTrackerRepository;
 import com.project.backend.repository.IPAssetRepository;
 import com.project.backend.repository.UserRepository;
+import com.project.backend.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class IPAssetService {
 
+    private static final Logger log = LoggerFactory.getLogger(IPAssetService.class);
+
     private final IPAssetRepository ipAssetRepository;
     private final FilingTrackerRepository filingTrackerRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final ExternalIPService externalIPService;
+    private final AssetCategoryService assetCategoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssetBulkUpsertService assetBulkUpsertService;
+    private final AssetSearchService assetSearchService;
+    private final ApiResultWriter apiResultWriter;
 
     public IPAssetService(IPAssetRepository ipAssetRepository,
                           FilingTrackerRepository filingTrackerRepository,
                           UserRepository userRepository,
                           NotificationService notificationService,
-                          ExternalIPService externalIPService) {
+                          ExternalIPService externalIPService,
+                          AssetCategoryService assetCategoryService,
+                          ApplicationEventPublisher eventPublisher,
+                          AssetBulkUpsertService assetBulkUpsertService,
+                          AssetSearchService assetSearchService,
+                          ApiResultWriter apiResultWriter) {
         this.ipAssetRepository = ipAssetRepository;
         this.filingTrackerRepository = filingTrackerRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
         this.externalIPService = externalIPService;
+        this.assetCategoryService = assetCategoryService;
+        this.eventPublisher = eventPublisher;
+        this.assetBulkUpsertService = assetBulkUpsertService;
+        this.assetSearchService = assetSearchService;
+        this.apiResultWriter = apiResultWriter;
     }
 
-    @Transactional
-    public List<IPAsset> saveOrUpdateAll(List<IPAsset> apiAssets) {
-        List<IPAsset> savedAssets = new ArrayList<>();
-
-        for (IPAsset newAsset : apiAssets) {
-            String assetNumber = newAsset.getAssetNumber();
-
-            if (assetNumber == null || assetNumber.trim().isEmpty()) {
-                continue;
-            }
-
-            Optional<IPAsset> existingAssetOpt = ipAssetRepository.findByAssetNumber(assetNumber);
-
-            if (existingAssetOpt.isPresent()) {
-                IPAsset existingAsset = existingAssetOpt.get();
-                existingAsset.setTitle(truncate(newAsset.getTitle(), 255));
-                existingAsset.setStatus(newAsset.getStatus());
-                existingAsset.setAssetClass(newAsset.getAssetClass());
-                existingAsset.setAssignee(truncate(newAsset.getAssignee(), 255));
-                existingAsset.setDetails(truncate(newAsset.getDetails(), 1000));
-                existingAsset.setJurisdiction(newAsset.getJurisdiction());
-                existingAsset.setApiSource("api");
-                existingAsset.setLastUpdated(LocalDateTime.now());
-
-                savedAssets.add(ipAssetRepository.save(existingAsset));
-            } else {
-                newAsset.setAssetClass(newAsset.getAssetClass() != null ? newAsset.getAssetClass() : "Unknown");
-                newAsset.setApiSource("api");
-                newAsset.setLastUpdated(LocalDateTime.now());
-                savedAssets.add(ipAssetRepository.save(newAsset));
-            }
-        }
-        return savedAssets;
+    // Bulk sync: chunked JDBC upsert instead of one SELECT and one save per asset
+    public SyncSummaryDTO saveOrUpdateAll(List<IPAsset> apiAssets) {
+        return assetBulkUpsertService.upsert(apiAssets);
     }
 
     @Transactional
@@ -125,25 +120,111 @@ public class IPAssetService {
     public Page<IPAsset> search(String keyword, String type, String jurisdictions, String status, String source, 
                                  int page, int size, String sortBy, String sortDirection) {
 
-        if (keyword != null && keyword.trim().isEmpty()) {
-            keyword = null;
+        Criteria criteria = Criteria.of(keyword, type, source);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
+
+        if (criteria.fromApi()) {
+            List<IPAsset> apiAssets = enqueueApiResults(criteria.keyword());
+            long queried = System.nanoTime();
+            Page<IPAsset> local = assetSearchService.searchAssets(criteria.keyword(), criteria.type(), jurisdictions, status, "api", pageable);
+            return mergeUnsaved(local, queried, apiAssets, criteria.type(), jurisdictions, status);
         }
-        if (type == null) type = "ALL";
-        if (source == null || source.equalsIgnoreCase("local")) {
-            source = "all";
+
+        return assetSearchService.searchAssets(criteria.keyword(), criteria.type(), jurisdictions, status, criteria.source(), pageable);
+    }
+
+    public FacetedSearchDTO searchWithFacets(String keyword, String type, String jurisdictions, String status,
+                                             String source, int page, int size, String sortBy, String sortDirection) {
+
+        Criteria criteria = Criteria.of(keyword, type, source);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
+
+        if (criteria.fromApi()) {
+            List<IPAsset> apiAssets = enqueueApiResults(criteria.keyword());
+            // Facets count the stored rows; unsaved API results only join the first page
+            long queried = System.nanoTime();
+            FacetedSearchDTO result = assetSearchService.searchAssetsWithFacets(criteria.keyword(), criteria.type(), jurisdictions, status, "api", pageable);
+            result.setResults(mergeUnsaved(result.getResults(), queried, apiAssets, criteria.type(), jurisdictions, status));
+            return result;
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        return assetSearchService.searchAssetsWithFacets(criteria.keyword(), criteria.type(), jurisdictions, status, criteria.source(), pageable);
+    }
+
+    public CursorPageDTO<IPAsset> searchByCursor(String keyword, String type, String jurisdictions, String status,
+                                                 String source, String cursor, int size, String sortBy,
+                                                 String sortDirection, boolean withTotal) {
 
-        if ("api".equalsIgnoreCase(source)) {
-            System.out.println("Calling External API for: " + keyword);
-            List<PatentDTO> apiResults = externalIPService.searchSerpApi(keyword);
-            saveApiResultsToDatabase(apiResults);
-            return ipAssetRepository.searchAssets(keyword, type, jurisdictions, status, "api", pageable);
+        Criteria criteria = Criteria.of(keyword, type, source);
+        boolean ascending = Sort.Direction.fromString(sortDirection).isAscending();
+
+        // Only the first page pulls from the external API; later pages scroll what was saved.
+        // Exempt from the persist-behind queue: the cursor page is read from the table, so the
+        // results have to be stored before it.
+        if (criteria.fromApi() && (cursor == null || cursor.isEmpty())) {
+            saveApiResultsToDatabase(externalIPService.searchSerpApi(criteria.keyword()));
         }
 
-        return ipAssetRepository.searchAssets(keyword, type, jurisdictions, status, source, pageable);
+        return assetSearchService.searchAssetsByCursor(criteria.keyword(), criteria.type(), jurisdictions, status,
+                criteria.source(), sortBy, ascending, cursor, size, withTotal);
+    }
+
+    // Blank keyword means no keyword, no type means all types, and "local" (or none) means all sources
+    private record Criteria(String keyword, String type, String source) {
+        static Criteria of(String keyword, String type, String source) {
+            if (keyword != null && keyword.trim().isEmpty()) keyword = null;
+            if (type == null) type = "ALL";
+            if (source == null || source.equalsIgnoreCase("local")) source = "all";
+            else if (source.equalsIgnoreCase("api")) source = "api";
+            return new Criteria(keyword, type, source);
+        }
+
+        boolean fromApi() {
+            return "api".equals(source);
+        }
+    }
+
+    // Fetches the SerpAPI results and queues them to be persisted behind the response
+    private List<IPAsset> enqueueApiResults(String keyword) {
+        log.debug("Calling external API for: {}", keyword);
+        List<IPAsset> apiAssets = externalIPService.searchSerpApi(keyword).stream()
+                .map(apiResultWriter::toAsset).toList();
+        apiResultWriter.enqueue(apiAssets);
+        return apiAssets;
+    }
+
+    // API assets that match the filters but were not in the database when the local page was
+    // read (at System.nanoTime() "queried") go in front of the first page and count towards the
+    // total; later pages are the stored rows as they are
+    private Page<IPAsset> mergeUnsaved(Page<IPAsset> local, long queried, List<IPAsset> apiAssets,
+                                       String type, String jurisdictions, String status) {
+        Map<String, IPAsset> candidates = new LinkedHashMap<>();
+        for (IPAsset asset : apiAssets) {
+            if (asset.getAssetNumber() == null || asset.getAssetNumber().isEmpty()) continue;
+            if (!"ALL".equalsIgnoreCase(type) && !type.equalsIgnoreCase(asset.getType())) continue;
+            if (jurisdictions != null && !jurisdictions.isEmpty() && (asset.getJurisdiction() == null
+                    || !asset.getJurisdiction().toLowerCase(Locale.ROOT).contains(jurisdictions.toLowerCase(Locale.ROOT)))) continue;
+            if (status != null && !status.isEmpty() && !status.equalsIgnoreCase(asset.getStatus())) continue;
+            candidates.putIfAbsent(asset.getAssetNumber(), asset);
+        }
+        if (candidates.isEmpty()) return local;
+
+        // A row the background flush committed after the local query started is in the table
+        // but possibly not in the page, so it stays a candidate
+        for (String existing : ipAssetRepository.findExistingAssetNumbers(candidates.keySet())) {
+            if (!apiResultWriter.writtenSince(existing, queried)) candidates.remove(existing);
+        }
+        for (IPAsset asset : local.getContent()) candidates.remove(asset.getAssetNumber());
+        if (candidates.isEmpty()) return local;
+
+        long total = local.getTotalElements() + candidates.size();
+        if (local.getNumber() != 0) {
+            return new PageImpl<>(local.getContent(), local.getPageable(), total);
+        }
+        List<IPAsset> content = new ArrayList<>(candidates.values());
+        content.addAll(local.getContent());
+        int size = local.getPageable().isPaged() ? local.getPageable().getPageSize() : content.size();
+        return new PageImpl<>(content.subList(0, Math.min(size, content.size())), local.getPageable(), total);
     }
 
     @Transactional
@@ -155,7 +236,13 @@ public class IPAssetService {
         if (asset.getFilingDate() == null) {
             asset.setFilingDate(LocalDateTime.now());
         }
-        return ipAssetRepository.save(asset);
+        IPAssetChangeEvent.Facts before = asset.getId() == null ? null
+                : ipAssetRepository.findById(asset.getId()).map(IPAssetChangeEvent.Facts::of).orElse(null);
+        assetCategoryService.apply(asset);
+        IPAsset saved = ipAssetRepository.save(asset);
+        eventPublisher.publishEvent(new IPAssetChangeEvent(
+                List.of(new IPAssetChangeEvent.Change(before, IPAssetChangeEvent.Facts.of(saved)))));
+        return saved;
     }
 
     @Transactional
@@ -165,7 +252,11 @@ public class IPAssetService {
         }
         asset.setLastUpdated(LocalDateTime.now());
         asset.setApiSource("local");
-        return ipAssetRepository.save(asset);
+        assetCategoryService.apply(asset);
+        IPAsset saved = ipAssetRepository.save(asset);
+        eventPublisher.publishEvent(new IPAssetChangeEvent(
+                List.of(new IPAssetChangeEvent.Change(null, IPAssetChangeEvent.Facts.of(saved)))));
+        return saved;
     }
 
     public Optional<IPAsset> getAssetById(Integer id) {
@@ -175,68 +266,34 @@ public class IPAssetService {
     @Transactional
     public IPAsset updateAsset(Integer id, IPAsset updates) {
         return ipAssetRepository.findById(id).map(asset -> {
-            asset.setTitle(truncate(updates.getTitle(), 255));
+            IPAssetChangeEvent.Facts before = IPAssetChangeEvent.Facts.of(asset);
+            asset.setTitle(StringUtil.truncate(updates.getTitle(), 255));
             asset.setStatus(updates.getStatus());
             asset.setAssetClass(updates.getAssetClass());
-            asset.setAssignee(truncate(updates.getAssignee(), 255));
-            asset.setDetails(truncate(updates.getDetails(), 1000));
+            asset.setAssignee(StringUtil.truncate(updates.getAssignee(), 255));
+            asset.setDetails(StringUtil.truncate(updates.getDetails(), 1000));
             asset.setLastUpdated(LocalDateTime.now());
-            return ipAssetRepository.save(asset);
+            assetCategoryService.apply(asset);
+            IPAsset saved = ipAssetRepository.save(asset);
+            eventPublisher.publishEvent(new IPAssetChangeEvent(
+                    List.of(new IPAssetChangeEvent.Change(before, IPAssetChangeEvent.Facts.of(saved)))));
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Asset not found with ID: " + id));
     }
 
     @Transactional
     public void deleteAsset(Integer id) {
-        if (!ipAssetRepository.existsById(id)) {
-            throw new RuntimeException("Asset not found, deletion aborted.");
-        }
-        ipAssetRepository.deleteById(id);
+        IPAsset asset = ipAssetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Asset not found, deletion aborted."));
+        IPAssetChangeEvent.Facts before = IPAssetChangeEvent.Facts.of(asset);
+        ipAssetRepository.delete(asset);
+        eventPublisher.publishEvent(new IPAssetChangeEvent(List.of(new IPAssetChangeEvent.Change(before, null))));
     }
 
-    @Transactional
+    // One bulk insert of the results not stored yet (see ApiResultWriter for the queued path)
     public void saveApiResultsToDatabase(List<PatentDTO> dtos) {
         if (dtos == null || dtos.isEmpty()) return;
-
-        int saved = 0;
-        for (PatentDTO dto : dtos) {
-            try {
-                String assetId = (dto.getAssetNumber() != null && !dto.getAssetNumber().isEmpty()) 
-                                 ? dto.getAssetNumber() : dto.getId();
-
-                if (!ipAssetRepository.existsByAssetNumber(assetId)) {
-                    IPAsset asset = new IPAsset();
-                    asset.setAssetNumber(assetId);
-                    asset.setTitle(truncate(dto.getTitle(), 255));
-                    asset.setDetails(truncate(dto.getAbstractText(), 1000));
-                    asset.setType("PATENT");
-                    asset.setStatus("ACTIVE");
-                    asset.setJurisdiction(dto.getJurisdiction() != null ? dto.getJurisdiction() : "US");
-                    asset.setAssignee(truncate(dto.getAssignee(), 255));
-                    asset.setInventor(truncate(dto.getInventor(), 255));
-                    asset.setFilingDate(parseDate(dto.getFilingDate()));
-                    asset.setApiSource("api");
-                    asset.setLastUpdated(LocalDateTime.now());
-                    ipAssetRepository.save(asset);
-                    saved++;
-                }
-            } catch (Exception e) {
-                System.err.println("Error saving asset: " + e.getMessage());
-            }
-        }
-        System.out.println("Saved " + saved + " new API records");
-    }
-
-    private String truncate(String val, int length) {
-        if (val == null) return null;
-        return (val.length() > length) ? val.substring(0, length - 3) + "..." : val;
-    }
-
-    private LocalDateTime parseDate(String dateStr) {
-        try {
-            if (dateStr == null || dateStr.isEmpty()) return LocalDateTime.now();
-            return LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE).atStartOfDay();
-        } catch (Exception e) {
-            return LocalDateTime.now();
-        }
+        SyncSummaryDTO summary = apiResultWriter.writeNow(dtos.stream().map(apiResultWriter::toAsset).toList());
+        log.info("Saved {} new API records", summary.getInserted());
     }
-}
\ No newline at end of file
+}
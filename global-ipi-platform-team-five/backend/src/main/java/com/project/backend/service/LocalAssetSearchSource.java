@@ -0,0 +1,83 @@
+package com.project.backend.service;
+
+import com.project.backend.dto.PatentDTO;
+import com.project.backend.entity.IPAsset;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/** The local ip_assets table as a federated search source. */
+@Component
+@Order(1)
+public class LocalAssetSearchSource implements SearchSource {
+
+    private final AssetSearchService assetSearchService;
+
+    @Value("${app.search.sources.local.timeout-ms:2000}")
+    private long timeoutMs;
+
+    public LocalAssetSearchSource(AssetSearchService assetSearchService) {
+        this.assetSearchService = assetSearchService;
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean supports(String mode) {
+        return mode.equals("local") || mode.equals("global") || mode.equals("both");
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public List<PatentDTO> search(String keyword) {
+
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<IPAsset> assets = assetSearchService.searchByKeyword(keyword);
+        List<PatentDTO> results = new ArrayList<>();
+
+        for (IPAsset ip : assets) {
+
+            PatentDTO dto = new PatentDTO();
+
+            dto.setId(String.valueOf(ip.getId()));
+            dto.setTitle(ip.getTitle());
+            dto.setAbstractText(ip.getDetails());
+            dto.setAssetNumber(ip.getAssetNumber());
+            dto.setAssignee(ip.getAssignee());
+            dto.setInventor(ip.getInventor());
+            dto.setStatus(ip.getStatus());
+            dto.setType(ip.getType());
+            dto.setSource("LOCAL_DB");
+            dto.setJurisdiction(ip.getJurisdiction());
+
+            dto.setFilingDate(
+                    ip.getFilingDate() != null
+                            ? ip.getFilingDate().toString()
+                            : "N/A"
+            );
+
+            // Placeholder images
+            if ("TRADEMARK".equalsIgnoreCase(ip.getType())) {
+                dto.setImageUrl("https://via.placeholder.com/150/0000FF/FFFFFF?text=TM");
+            } else {
+                dto.setImageUrl("https://via.placeholder.com/150?text=PATENT");
+            }
+
+            results.add(dto);
+        }
+
+        return results;
+    }
+}
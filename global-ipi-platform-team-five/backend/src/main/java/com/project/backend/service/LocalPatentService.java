@@ -3,7 +3,6 @@ package com.project.backend.service;
 import com.project.backend.dto.SearchRequestDTO;
 import com.project.backend.dto.SearchResponseDTO;
 import com.project.backend.entity.IPAsset;
-import com.project.backend.repository.IPAssetRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,16 +11,16 @@ import java.util.stream.Collectors;
 @Service
 public class LocalPatentService {
 
-    private final IPAssetRepository repository;
+    private final AssetSearchService assetSearchService;
 
-    public LocalPatentService(IPAssetRepository repository) {
-        this.repository = repository;
+    public LocalPatentService(AssetSearchService assetSearchService) {
+        this.assetSearchService = assetSearchService;
     }
 
     public List<SearchResponseDTO> search(SearchRequestDTO request) {
 
-        // Call advancedSearch directly on the repository
-        List<IPAsset> assets = repository.advancedSearch(
+        // Keyword goes through the full-text index when it is available
+        List<IPAsset> assets = assetSearchService.advancedSearch(
                 request.getKeyword(),
                 request.getAssignee(),
                 request.getInventor(),
@@ -0,0 +1,215 @@
+package com.project.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Retention for the append-only metric tables (api_health_metrics, user_activities,
+ * system_metrics). With app.metrics.partitioning.enabled each table is converted once into
+ * daily range partitions on timestamp (the existing rows become a single "_legacy"
+ * partition), partitions are created app.metrics.partitioning.premake-days ahead, and
+ * retention drops whole days. Without partitioning, or for the rows left in partial
+ * partitions, rows are deleted by id in chunks of app.metrics.retention.batch-size, each
+ * committed on its own with app.metrics.retention.pause-ms between chunks, so no long
+ * transaction holds locks on the table.
+ */
+@Service
+public class MetricRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricRetentionService.class);
+
+    private static final String TIMESTAMP_COLUMN = "timestamp";
+
+    // Tables partitioned by day on timestamp when partitioning is enabled
+    private static final List<String> PARTITIONED_TABLES = List.of("api_health_metrics", "user_activities", "system_metrics");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // Upper bound of a range partition as printed by pg_get_expr: "... TO ('2026-10-19 00:00:00')"
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})");
+
+    /** Outcome of one purge: rows deleted in chunks plus whole partitions dropped. */
+    public record Result(String table, String mode, long rowsRemoved, int partitionsDropped, long durationMs) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean partitioningEnabled;
+    private final int premakeDays;
+    private final int batchSize;
+    private final long pauseMs;
+
+    private volatile List<Result> lastRun = List.of();
+    private volatile LocalDateTime lastRunAt;
+
+    public MetricRetentionService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.metrics.partitioning.enabled:false}") boolean partitioningEnabled,
+                                  @Value("${app.metrics.partitioning.premake-days:7}") int premakeDays,
+                                  @Value("${app.metrics.retention.batch-size:5000}") int batchSize,
+                                  @Value("${app.metrics.retention.pause-ms:50}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitioningEnabled = partitioningEnabled;
+        this.premakeDays = Math.max(1, premakeDays);
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMs = Math.max(0, pauseMs);
+    }
+
+    // Idempotent: converts the tables on the first start with partitioning enabled
+    @EventListener(ApplicationReadyEvent.class)
+    public void initPartitions() {
+        if (!partitioningEnabled) return;
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                if (!isPartitioned(table)) convert(table);
+                createPartitions(table);
+            } catch (Exception e) {
+                log.warn("Partitioning of {} not available, retention falls back to batched deletes: {}",
+                        table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes the rows of table whose timestamp is before the cutoff: drops the daily
+     * partitions that end by the cutoff, then deletes what is left in chunks.
+     */
+    public Result purgeBefore(String table, LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        int dropped = 0;
+        String mode = "batched";
+        if (isPartitioned(table)) {
+            mode = "partitions";
+            createPartitions(table);
+            dropped = dropPartitionsBefore(table, cutoff);
+        }
+        long rows = deleteInChunks(table, TIMESTAMP_COLUMN + " < ?", Timestamp.valueOf(cutoff));
+        return new Result(table, mode, rows, dropped, System.currentTimeMillis() - start);
+    }
+
+    /** Chunked delete of the rows matching a condition on a table that is not partitioned by it. */
+    public Result purgeWhere(String table, String condition, Object... args) {
+        long start = System.currentTimeMillis();
+        long rows = deleteInChunks(table, condition, args);
+        return new Result(table, "batched", rows, 0, System.currentTimeMillis() - start);
+    }
+
+    /** Records the results of a retention run for {@link #getLastRun()}. */
+    public void report(List<Result> results) {
+        lastRun = List.copyOf(results);
+        lastRunAt = LocalDateTime.now();
+        for (Result r : results) {
+            log.info("Retention {} ({}): {} rows removed, {} partitions dropped in {} ms",
+                    r.table(), r.mode(), r.rowsRemoved(), r.partitionsDropped(), r.durationMs());
+        }
+    }
+
+    public Map<String, Object> getLastRun() {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("partitioningEnabled", partitioningEnabled);
+        run.put("lastRunAt", lastRunAt);
+        run.put("results", lastRun);
+        return run;
+    }
+
+    private long deleteInChunks(String table, String condition, Object... args) {
+        String sql = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table +
+                " WHERE " + condition + " LIMIT " + batchSize + ")";
+        long total = 0;
+        while (true) {
+            int deleted = jdbcTemplate.update(sql, args);
+            total += deleted;
+            if (deleted < batchSize) return total;
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return total;
+                }
+            }
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')", String.class, table);
+        return kinds.contains("p");
+    }
+
+    /*
+     * Swaps the table for a partitioned copy in one transaction. Ids keep coming from a plain
+     * sequence (identity columns can't span partitions) started after the existing rows.
+     */
+    private void convert(String table) {
+        String legacy = table + "_legacy";
+        String sequence = table + "_id_seq";
+        String firstDay = LocalDate.now().plusDays(1).toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+            jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            // A partition can't keep its own primary key; the parent's (id, timestamp) key covers it once attached
+            for (String pk : jdbcTemplate.queryForList(
+                    "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'p'", String.class, legacy)) {
+                jdbcTemplate.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT \"" + pk + "\"");
+            }
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS) " +
+                    "PARTITION BY RANGE (" + TIMESTAMP_COLUMN + ")");
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence);
+            // A serial column's sequence would otherwise go with the legacy partition
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY NONE");
+            jdbcTemplate.execute("SELECT setval('" + sequence + "', (SELECT COALESCE(MAX(id), 0) + 1 FROM " + legacy + "), false)");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (id, " + TIMESTAMP_COLUMN + ")");
+            jdbcTemplate.execute("CREATE INDEX " + table + "_ts_idx ON " + table + " (" + TIMESTAMP_COLUMN + ")");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + legacy +
+                    " FOR VALUES FROM (MINVALUE) TO ('" + firstDay + "')");
+            jdbcTemplate.execute("CREATE TABLE " + table + "_default PARTITION OF " + table + " DEFAULT");
+        });
+        log.info("Converted {} to daily partitions; existing rows kept in {}", table, legacy);
+    }
+
+    // Today's and the next premake-days partitions; days already covered (legacy) are skipped
+    private void createPartitions(String table) {
+        LocalDate day = LocalDate.now();
+        for (int i = 0; i <= premakeDays; i++, day = day.plusDays(1)) {
+            String partition = table + "_p" + day.format(PARTITION_SUFFIX);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table +
+                        " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+            } catch (Exception e) {
+                log.debug("Partition {} not created: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    // Drops the partitions whose upper bound is at or before the cutoff (the default partition has none)
+    private int dropPartitionsBefore(String table, LocalDateTime cutoff) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", table);
+        int dropped = 0;
+        for (Map<String, Object> partition : partitions) {
+            Matcher upper = UPPER_BOUND.matcher(String.valueOf(partition.get("bound")));
+            if (!upper.find() || LocalDate.parse(upper.group(1)).atStartOfDay().isAfter(cutoff)) continue;
+            jdbcTemplate.execute("DROP TABLE " + partition.get("name"));
+            dropped++;
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.backend.service;
+
+import com.project.backend.util.TechnologyCategories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The asset changes delivered while a rebuild reads ip_assets, for the in-memory structures
+ * that swap in a rebuilt copy (AssetCounterStore, AssetLeaderboards). Buffering starts
+ * before the rebuild query; the rows of the changed assets are then read again in the same
+ * snapshot, and {@link #replay} moves each asset from its snapshot state to the state after
+ * its latest change. Changes the snapshot already saw therefore cancel out instead of being
+ * counted twice, and those it missed are not lost.
+ * <p>
+ * Not thread-safe: callers guard it with the lock of the structure being rebuilt, except
+ * for {@link #read}, which runs outside it inside the rebuild's transaction.
+ */
+final class PendingChanges {
+
+    private static final String STATE_SQL =
+            "SELECT id, status, type, jurisdiction, filing_date, category_mask, class, " +
+            "asset_number, title, assignee, inventor FROM ip_assets WHERE id = ANY(CAST(? AS int[]))";
+
+    private final List<IPAssetChangeEvent.Change> changes = new ArrayList<>();
+    // Snapshot state per changed asset; a null value means the row wasn't there
+    private final Map<Integer, IPAssetChangeEvent.Facts> snapshot = new HashMap<>();
+
+    void add(List<IPAssetChangeEvent.Change> delivered) {
+        changes.addAll(delivered);
+    }
+
+    /** Ids of changed assets whose snapshot state hasn't been read yet. */
+    Set<Integer> unread() {
+        Set<Integer> ids = new HashSet<>();
+        for (IPAssetChangeEvent.Change change : changes) {
+            Integer id = idOf(change);
+            if (id != null && !snapshot.containsKey(id)) ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the given assets as the snapshot of the current transaction sees them. Collects
+     * into a local map first so the caller can merge the result under its lock.
+     */
+    static Map<Integer, IPAssetChangeEvent.Facts> read(JdbcTemplate jdbcTemplate, Set<Integer> ids) {
+        Map<Integer, IPAssetChangeEvent.Facts> states = new HashMap<>();
+        for (Integer id : ids) states.put(id, null);
+        jdbcTemplate.query(STATE_SQL, rs -> {
+            int mask = rs.getInt("category_mask");
+            if (rs.wasNull()) {
+                String assetClass = rs.getString("class");
+                mask = assetClass == null ? 0 : TechnologyCategories.categoryMask(assetClass);
+            }
+            Timestamp filing = rs.getTimestamp("filing_date");
+            int id = rs.getInt("id");
+            states.put(id, new IPAssetChangeEvent.Facts(id, rs.getString("status"), rs.getString("type"),
+                    rs.getString("jurisdiction"), filing != null ? filing.toLocalDateTime().toLocalDate() : null,
+                    mask, rs.getString("asset_number"), rs.getString("title"),
+                    rs.getString("assignee"), rs.getString("inventor")));
+        }, ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")));
+        return states;
+    }
+
+    void putSnapshot(Map<Integer, IPAssetChangeEvent.Facts> states) {
+        snapshot.putAll(states);
+    }
+
+    /**
+     * Applies the buffered changes to a rebuilt structure: per asset, removes its snapshot
+     * state and adds the state after its latest change. Changes without an id can't be
+     * matched to the snapshot and are applied as they are.
+     */
+    void replay(Consumer<IPAssetChangeEvent.Facts> remove, Consumer<IPAssetChangeEvent.Facts> add) {
+        Map<Integer, IPAssetChangeEvent.Facts> latest = new LinkedHashMap<>();
+        for (IPAssetChangeEvent.Change change : changes) {
+            Integer id = idOf(change);
+            if (id == null) {
+                if (change.before() != null) remove.accept(change.before());
+                if (change.after() != null) add.accept(change.after());
+            } else {
+                latest.put(id, change.after());
+            }
+        }
+        for (Map.Entry<Integer, IPAssetChangeEvent.Facts> entry : latest.entrySet()) {
+            IPAssetChangeEvent.Facts before = snapshot.get(entry.getKey());
+            if (before != null) remove.accept(before);
+            if (entry.getValue() != null) add.accept(entry.getValue());
+        }
+    }
+
+    int size() {
+        return changes.size();
+    }
+
+    private static Integer idOf(IPAssetChangeEvent.Change change) {
+        return change.after() != null ? change.after().id() : change.before().id();
+    }
+}
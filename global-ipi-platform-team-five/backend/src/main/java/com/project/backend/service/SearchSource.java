@@ -0,0 +1,24 @@
+package com.project.backend.service;
+
+import com.project.backend.dto.PatentDTO;
+
+import java.util.List;
+
+/**
+ * One backend of the federated search in {@link UnifiedSearchService}. Sources are queried
+ * concurrently; each gets its own deadline and reports ok, timeout or error on its own.
+ */
+public interface SearchSource {
+
+    /** Name used in the per-source status of the response. */
+    String getName();
+
+    /** Whether this source takes part in the given search mode (local, api, global, ...). */
+    boolean supports(String mode);
+
+    /** How long the federated search waits for this source. */
+    long getTimeoutMs();
+
+    /** Blocking search; exceptions are reported as an error status for this source. */
+    List<PatentDTO> search(String keyword);
+}
@@ -1,110 +1,114 @@
 package com.project.backend.service;
 
+import com.project.backend.dto.FederatedSearchDTO;
 import com.project.backend.dto.PatentDTO;
-import com.project.backend.entity.IPAsset;
-import com.project.backend.repository.IPAssetRepository;
+import com.project.backend.util.SearchResultMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class UnifiedSearchService {
 
-    private final IPAssetRepository repository;
-    private final ExternalIPService externalIPService;
+    private static final Logger log = LoggerFactory.getLogger(UnifiedSearchService.class);
 
-    public UnifiedSearchService(IPAssetRepository repository,
-                                ExternalIPService externalIPService) {
-        this.repository = repository;
-        this.externalIPService = externalIPService;
+    private final List<SearchSource> sources;
+    private final AsyncTaskExecutor searchExecutor;
+
+    public UnifiedSearchService(List<SearchSource> sources,
+                                @Qualifier("searchExecutor") AsyncTaskExecutor searchExecutor) {
+        this.sources = sources;
+        this.searchExecutor = searchExecutor;
     }
 
     /**
      * source:
      *  local   -> DB only
      *  api     -> SerpAPI only
+     *  wipo    -> WIPO only
      *  global  -> DB + API
      *  both    -> DB + API
      */
     public List<PatentDTO> search(String keyword, String source, String type) {
+        return searchWithStatus(keyword, source, type, null).getResults();
+    }
 
-        List<PatentDTO> results = new ArrayList<>();
+    /**
+     * Queries every source of the mode at once. Each source has its own deadline from the
+     * start of the search; results of the sources that answered in time are merged
+     * (see {@link SearchResultMerger}) and returned with an ok / timeout / error status per source.
+     * A source past its deadline is cancelled, which interrupts its worker thread; a blocking
+     * socket read ignores the interrupt, so the pooled RestTemplate's read timeout is what
+     * frees the thread in that case.
+     */
+    public FederatedSearchDTO searchWithStatus(String keyword, String source, String type, String jurisdiction) {
 
+        long start = System.currentTimeMillis();
         String mode = (source == null) ? "global" : source.trim().toLowerCase();
 
-        // 🔹 LOCAL DATABASE
-        if (mode.equals("local") || mode.equals("global") || mode.equals("both")) {
-            System.out.println(">>> 📦 FETCHING LOCAL DB DATA");
-            results.addAll(searchFromDatabase(keyword));
-        }
-
-        // 🔹 EXTERNAL API (SAFE)
-        if (mode.equals("api") || mode.equals("serpapi") || mode.equals("global") || mode.equals("both")) {
+        Map<SearchSource, Future<List<PatentDTO>>> pending = new LinkedHashMap<>();
+        Map<String, Long> elapsed = new ConcurrentHashMap<>();
+        for (SearchSource searchSource : sources) {
+            if (!searchSource.supports(mode)) continue;
+            log.debug("Fetching {} results", searchSource.getName());
+            Future<List<PatentDTO>> future;
             try {
-                System.out.println(">>> 🌐 FETCHING API DATA");
-                results.addAll(externalIPService.searchSerpApi(keyword));
-            } catch (Exception e) {
-                System.err.println(">>> ❌ SERP API FAILED");
-                e.printStackTrace();
+                future = searchExecutor.submit(() -> {
+                    try {
+                        return searchSource.search(keyword);
+                    } finally {
+                        elapsed.put(searchSource.getName(), System.currentTimeMillis() - start);
+                    }
+                });
+            } catch (RuntimeException rejected) {
+                future = CompletableFuture.failedFuture(rejected);
             }
+            pending.put(searchSource, future);
         }
 
-        // 🔹 TYPE FILTER
-        if (type != null && !"ALL".equalsIgnoreCase(type)) {
-            results = results.stream()
-                    .filter(dto ->
-                            dto.getType() != null &&
-                            dto.getType().equalsIgnoreCase(type)
-                    )
-                    .collect(Collectors.toList());
-        }
-
-        System.out.println(">>> ✅ TOTAL RESULTS RETURNED: " + results.size());
-
-        return results;
-    }
-
-    // ================= LOCAL DB SEARCH =================
+        FederatedSearchDTO response = new FederatedSearchDTO();
+        List<List<PatentDTO>> bySource = new ArrayList<>();
 
-    private List<PatentDTO> searchFromDatabase(String keyword) {
-
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return Collections.emptyList();
+        for (Map.Entry<SearchSource, Future<List<PatentDTO>>> entry : pending.entrySet()) {
+            SearchSource searchSource = entry.getKey();
+            long remaining = start + searchSource.getTimeoutMs() - System.currentTimeMillis();
+            FederatedSearchDTO.SourceStatus.Builder status = FederatedSearchDTO.SourceStatus.builder();
+            try {
+                List<PatentDTO> sourceResults = entry.getValue().get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+                bySource.add(sourceResults);
+                status.status(FederatedSearchDTO.OK).resultCount(sourceResults.size());
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                log.warn("Federated search source {} timed out after {} ms", searchSource.getName(), searchSource.getTimeoutMs());
+                status.status(FederatedSearchDTO.TIMEOUT).resultCount(0);
+            } catch (ExecutionException e) {
+                log.warn("Federated search source {} failed: {}", searchSource.getName(), e.getCause().getMessage());
+                status.status(FederatedSearchDTO.ERROR).resultCount(0).error(e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                status.status(FederatedSearchDTO.ERROR).resultCount(0).error("interrupted");
+            }
+            long duration = elapsed.getOrDefault(searchSource.getName(), System.currentTimeMillis() - start);
+            response.getSources().put(searchSource.getName(), status.durationMs(duration).build());
         }
 
-        List<IPAsset> assets = repository.searchByKeyword(keyword);
-        List<PatentDTO> results = new ArrayList<>();
-
-        for (IPAsset ip : assets) {
-
-            PatentDTO dto = new PatentDTO();
+        // 🔹 DEDUPE + TYPE/JURISDICTION FILTER + RANKING
+        List<PatentDTO> results = SearchResultMerger.merge(bySource, keyword, type, jurisdiction);
 
-            dto.setId(String.valueOf(ip.getId()));
-            dto.setTitle(ip.getTitle());
-            dto.setAbstractText(ip.getDetails());
-            dto.setAssignee(ip.getAssignee());
-            dto.setStatus(ip.getStatus());
-            dto.setType(ip.getType());
-            dto.setSource("LOCAL_DB");
-            dto.setJurisdiction(ip.getJurisdiction());
-
-            dto.setFilingDate(
-                    ip.getFilingDate() != null
-                            ? ip.getFilingDate().toString()
-                            : "N/A"
-            );
-
-            // Placeholder images
-            if ("TRADEMARK".equalsIgnoreCase(ip.getType())) {
-                dto.setImageUrl("https://via.placeholder.com/150/0000FF/FFFFFF?text=TM");
-            } else {
-                dto.setImageUrl("https://via.placeholder.com/150?text=PATENT");
-            }
-
-            results.add(dto);
-        }
+        log.debug("Federated search for '{}' returned {} results", keyword, results.size());
 
-        return results;
+        response.setResults(results);
+        response.setDurationMs(System.currentTimeMillis() - start);
+        return response;
     }
 }
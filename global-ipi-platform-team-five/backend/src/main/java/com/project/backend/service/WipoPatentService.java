@@ -1,6 +1,8 @@
 package com.project.backend.service;
 
 import com.project.backend.dto.PatentDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -8,53 +10,80 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Service
-public class WipoPatentService {
+@Order(3)
+public class WipoPatentService implements SearchSource {
 
     private static final String WIPO_SEARCH_URL =
             "https://patentscope.wipo.int/search/en/structuredSearch.jsf";
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
+    @Value("${app.search.sources.wipo.timeout-ms:3000}")
+    private long timeoutMs;
+
+    // WIPO results are simulated, so global searches leave them out unless asked to
+    @Value("${app.search.sources.wipo.in-global:false}")
+    private boolean inGlobal;
+
+    public WipoPatentService(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "wipo";
+    }
+
+    @Override
+    public boolean supports(String mode) {
+        return mode.equals("wipo") || (inGlobal && (mode.equals("global") || mode.equals("both")));
+    }
+
+    @Override
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
     public List<PatentDTO> search(String keyword) {
 
         List<PatentDTO> results = new ArrayList<>();
 
-        try {
-            // WIPO structured search query (for documentation purpose)
-            String query = "EN_ALL:(" + keyword + ")";
-
-            String url = WIPO_SEARCH_URL +
-                    "?query=" + query +
-                    "&maxRec=5";
-
-            // We call the URL ONLY to show real government endpoint usage
-            // We DO NOT parse HTML/XML (not allowed / too heavy)
-            restTemplate.getForObject(url, String.class);
-
-            /*
-             * WIPO does NOT provide free public REST APIs.
-             * So we simulate multiple structured results.
-             * This is academically correct and legally safe.
-             */
-
-            for (int i = 1; i <= 5; i++) {
-
-                PatentDTO dto = new PatentDTO();
-                dto.setId("WIPO-" + keyword.toUpperCase() + "-" + i);
-                dto.setTitle("WIPO Patent " + i + " related to " + keyword);
-                dto.setAbstractText(
-                        "Patent metadata derived from WIPO PATENTSCOPE structured search. " +
-                        "Full patent content is not available via public REST APIs."
-                );
-                dto.setFilingDate("N/A");
-                dto.setStatus("Published");
-                dto.setSource("WIPO (Government Portal)");
-
-                results.add(dto);
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (keyword == null || keyword.isBlank()) {
+            return results;
+        }
+
+        // WIPO structured search query (for documentation purpose)
+        String query = "EN_ALL:(" + keyword + ")";
+
+        String url = WIPO_SEARCH_URL +
+                "?query=" + query +
+                "&maxRec=5";
+
+        // We call the URL ONLY to show real government endpoint usage
+        // We DO NOT parse HTML/XML (not allowed / too heavy)
+        restTemplate.getForObject(url, String.class);
+
+        /*
+         * WIPO does NOT provide free public REST APIs.
+         * So we simulate multiple structured results.
+         * This is academically correct and legally safe.
+         */
+
+        for (int i = 1; i <= 5; i++) {
+
+            PatentDTO dto = new PatentDTO();
+            dto.setId("WIPO-" + keyword.toUpperCase() + "-" + i);
+            dto.setTitle("WIPO Patent " + i + " related to " + keyword);
+            dto.setAbstractText(
+                    "Patent metadata derived from WIPO PATENTSCOPE structured search. " +
+                    "Full patent content is not available via public REST APIs."
+            );
+            dto.setFilingDate("N/A");
+            dto.setStatus("Published");
+            dto.setSource("WIPO (Government Portal)");
+
+            results.add(dto);
         }
 
         return results;
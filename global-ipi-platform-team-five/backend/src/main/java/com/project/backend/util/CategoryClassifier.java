@@ -0,0 +1,120 @@
+package com.project.backend.util;
+
+import java.util.*;
+
+/**
+ * Compiled matcher for the technology category rules.
+ * All patterns (IPC prefixes such as "G06N" as well as keywords such as "ROBOT") go into
+ * one trie whose failure links turn it into an Aho-Corasick automaton, so a code is scanned
+ * once no matter how many patterns there are. Each state knows the best (lowest id) category
+ * of any pattern that ends there, which reproduces the "first rule wins" order of the rules.
+ */
+public final class CategoryClassifier {
+
+    private static final int ALPHABET = 128;
+
+    private final int[] symbolOf = new int[ALPHABET];
+    private final int symbols;
+    private final int[][] next;       // [state][symbol] -> state, fully resolved (no fail lookups at scan time)
+    private final int[] bestCategory; // lowest category id matched in this state, or Integer.MAX_VALUE
+    private final int noMatch;
+
+    /**
+     * @param rules   category id -> patterns, in priority order (lower id wins)
+     * @param noMatch category returned when no pattern occurs in the code
+     */
+    public CategoryClassifier(Map<Integer, List<String>> rules, int noMatch) {
+        this.noMatch = noMatch;
+
+        Arrays.fill(symbolOf, -1);
+        int symbolCount = 0;
+        for (List<String> patterns : rules.values()) {
+            for (String pattern : patterns) {
+                for (char ch : pattern.toCharArray()) {
+                    if (ch >= ALPHABET) throw new IllegalArgumentException("Non-ASCII pattern: " + pattern);
+                    if (symbolOf[ch] < 0) symbolOf[ch] = symbolCount++;
+                }
+            }
+        }
+        this.symbols = symbolCount;
+
+        // 1. Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        trie.add(newRow());
+        output.add(Integer.MAX_VALUE);
+
+        for (Map.Entry<Integer, List<String>> rule : rules.entrySet()) {
+            for (String pattern : rule.getValue()) {
+                int state = 0;
+                for (char ch : pattern.toCharArray()) {
+                    int symbol = symbolOf[ch];
+                    if (trie.get(state)[symbol] < 0) {
+                        trie.get(state)[symbol] = trie.size();
+                        trie.add(newRow());
+                        output.add(Integer.MAX_VALUE);
+                    }
+                    state = trie.get(state)[symbol];
+                }
+                output.set(state, Math.min(output.get(state), rule.getKey()));
+            }
+        }
+
+        // 2. Failure links (BFS), folded directly into the transition table
+        int states = trie.size();
+        int[] fail = new int[states];
+        this.next = trie.toArray(new int[0][]);
+        this.bestCategory = new int[states];
+        for (int s = 0; s < states; s++) bestCategory[s] = output.get(s);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            int child = next[0][symbol];
+            if (child < 0) {
+                next[0][symbol] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            bestCategory[state] = Math.min(bestCategory[state], bestCategory[fail[state]]);
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                int child = next[state][symbol];
+                if (child < 0) {
+                    next[state][symbol] = next[fail[state]][symbol];
+                } else {
+                    fail[child] = next[fail[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[symbols];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    // Lowest category id whose pattern occurs anywhere in the (already upper-cased) text
+    public int classify(String upperText) {
+        int state = 0;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < upperText.length(); i++) {
+            char ch = upperText.charAt(i);
+            int symbol = ch < ALPHABET ? symbolOf[ch] : -1;
+            state = symbol < 0 ? 0 : next[state][symbol];
+            if (bestCategory[state] < best) {
+                best = bestCategory[state];
+                if (best == 0) break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? noMatch : best;
+    }
+
+    public int stateCount() {
+        return next.length;
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.backend.util;
+
+/**
+ * How many assets carry each pair of technology categories, as upper-triangular matrices
+ * of primitive counts (pair (i, j), i &lt; j, at {@link #index(int, int)}). One matrix covers
+ * all assets and one per category covers the assets in that category, so the convergence
+ * of "all" or of a single-category landscape is an array copy. Any other landscape mask is
+ * answered from the per-mask asset counts (2^COUNT entries). Updates are signed deltas so
+ * class changes are applied as remove old mask / add new mask. Not thread safe.
+ */
+public final class CategoryCooccurrence {
+
+    public static final int PAIRS = TechnologyCategories.COUNT * (TechnologyCategories.COUNT - 1) / 2;
+    public static final int ALL = -1;
+
+    private final long[] byMask = new long[1 << TechnologyCategories.COUNT];
+    private final long[] all = new long[PAIRS];
+    private final long[][] byCategory = new long[TechnologyCategories.COUNT][PAIRS];
+
+    public static int index(int i, int j) {
+        // Row i of the triangle starts after the (COUNT - 1) + ... + (COUNT - i) pairs of earlier rows
+        return i * (2 * TechnologyCategories.COUNT - i - 1) / 2 + (j - i - 1);
+    }
+
+    public void add(int mask, long delta) {
+        if (mask <= 0 || mask >= byMask.length) return;
+        byMask[mask] += delta;
+        if (Integer.bitCount(mask) < 2) return;
+        for (int i = 0; i < TechnologyCategories.COUNT; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            for (int j = i + 1; j < TechnologyCategories.COUNT; j++) {
+                if ((mask & (1 << j)) == 0) continue;
+                int pair = index(i, j);
+                all[pair] += delta;
+                for (int m = mask; m != 0; m &= m - 1) {
+                    byCategory[Integer.numberOfTrailingZeros(m)][pair] += delta;
+                }
+            }
+        }
+    }
+
+    /** Pair counts over the assets whose mask intersects the landscape mask ({@link #ALL} for every asset). */
+    public long[] pairs(int landscapeMask) {
+        if (landscapeMask == ALL) return all.clone();
+        if (Integer.bitCount(landscapeMask) == 1) {
+            return byCategory[Integer.numberOfTrailingZeros(landscapeMask)].clone();
+        }
+        long[] pairs = new long[PAIRS];
+        for (int mask = 1; mask < byMask.length; mask++) {
+            if (byMask[mask] == 0 || (mask & landscapeMask) == 0 || Integer.bitCount(mask) < 2) continue;
+            for (int i = 0; i < TechnologyCategories.COUNT; i++) {
+                if ((mask & (1 << i)) == 0) continue;
+                for (int j = i + 1; j < TechnologyCategories.COUNT; j++) {
+                    if ((mask & (1 << j)) != 0) pairs[index(i, j)] += byMask[mask];
+                }
+            }
+        }
+        return pairs;
+    }
+}
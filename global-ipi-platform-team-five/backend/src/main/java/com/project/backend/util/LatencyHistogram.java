@@ -0,0 +1,177 @@
+package com.project.backend.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in the HdrHistogram layout: values below 64 have a bucket
+ * each, above that every power of two is split into 32 equal buckets, so any recorded value
+ * is known to within 1/32 (about 3%) and usually 1/64. Values are microseconds up to about
+ * 19 hours; larger ones land in the last bucket. Recording is lock-free (one atomic add per
+ * counter) so it can sit on the request path; {@link #snapshot()} gives an immutable sparse
+ * copy that can be merged with others and queried for percentiles.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int HALF = SUB >> 1;
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value, boolean error) {
+        long v = Math.max(0, Math.min(value, MAX_VALUE));
+        counts.incrementAndGet(index(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+        if (error) errors.incrementAndGet();
+    }
+
+    public Snapshot snapshot() {
+        long[] dense = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) dense[i] = counts.get(i);
+        return Snapshot.of(dense, total.get(), errors.get(), sum.get(), max.get());
+    }
+
+    /** Histogram of the first length values, without going through the atomic counters. */
+    public static Snapshot snapshotOf(long[] values, int length, long errors) {
+        long[] dense = new long[BUCKETS];
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < length; i++) {
+            long v = Math.max(0, Math.min(values[i], MAX_VALUE));
+            dense[index(v)]++;
+            sum += v;
+            max = Math.max(max, v);
+        }
+        return Snapshot.of(dense, length, errors, sum, max);
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS + 1;
+        int sub = (int) (v >>> shift);
+        return SUB + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    // Highest value that maps to the bucket
+    static long highestValue(int index) {
+        if (index < SUB) return index;
+        int shift = (index - SUB) / HALF + 1;
+        long sub = (index - SUB) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** Immutable histogram: only the non-empty buckets are kept. */
+    public static final class Snapshot {
+        public static final Snapshot EMPTY = new Snapshot(new int[0], new long[0], 0, 0, 0, 0);
+
+        private final int[] indexes;
+        private final long[] counts;
+        private final long total;
+        private final long errors;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(int[] indexes, long[] counts, long total, long errors, long sum, long max) {
+            this.indexes = indexes;
+            this.counts = counts;
+            this.total = total;
+            this.errors = errors;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        private static Snapshot of(long[] dense, long total, long errors, long sum, long max) {
+            int n = 0;
+            for (long c : dense) if (c > 0) n++;
+            int[] indexes = new int[n];
+            long[] counts = new long[n];
+            n = 0;
+            for (int i = 0; i < dense.length; i++) {
+                if (dense[i] > 0) {
+                    indexes[n] = i;
+                    counts[n++] = dense[i];
+                }
+            }
+            return new Snapshot(indexes, counts, total, errors, sum, max);
+        }
+
+        public static Snapshot merge(Collection<Snapshot> snapshots) {
+            if (snapshots.size() == 1) return snapshots.iterator().next();
+            long[] dense = new long[BUCKETS];
+            long total = 0;
+            long errors = 0;
+            long sum = 0;
+            long max = 0;
+            for (Snapshot s : snapshots) {
+                for (int i = 0; i < s.indexes.length; i++) dense[s.indexes[i]] += s.counts[i];
+                total += s.total;
+                errors += s.errors;
+                sum += s.sum;
+                max = Math.max(max, s.max);
+            }
+            return of(dense, total, errors, sum, max);
+        }
+
+        /**
+         * Value at the quantile (0..1): the upper edge of the bucket holding the ranked
+         * sample, capped at the recorded maximum. 0 when empty.
+         */
+        public long valueAtQuantile(double quantile) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < indexes.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestValue(indexes[i]), max);
+            }
+            return max;
+        }
+
+        /** Non-empty buckets as "index:count" pairs separated by commas, for storage. */
+        public String encode() {
+            StringBuilder sb = new StringBuilder(indexes.length * 8);
+            for (int i = 0; i < indexes.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(indexes[i]).append(':').append(counts[i]);
+            }
+            return sb.toString();
+        }
+
+        /** Inverse of {@link #encode()}; the totals are stored beside the buckets. */
+        public static Snapshot decode(String buckets, long total, long errors, long sum, long max) {
+            if (buckets == null || buckets.isEmpty()) return new Snapshot(new int[0], new long[0], total, errors, sum, max);
+            String[] parts = buckets.split(",");
+            int[] indexes = new int[parts.length];
+            long[] counts = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                int colon = parts[i].indexOf(':');
+                indexes[i] = Integer.parseInt(parts[i], 0, colon, 10);
+                counts[i] = Long.parseLong(parts[i], colon + 1, parts[i].length(), 10);
+            }
+            return new Snapshot(indexes, counts, total, errors, sum, max);
+        }
+
+        public double mean() {
+            return total == 0 ? 0.0 : (double) sum / total;
+        }
+
+        public long getTotal() { return total; }
+        public long getErrors() { return errors; }
+        public long getSum() { return sum; }
+        public long getMax() { return max; }
+
+        public int bucketCount() {
+            return indexes.length;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.project.backend.util;
+
+import java.util.*;
+
+/**
+ * Prefix completion over a set of strings weighted by how many rows carry them.
+ * Writes go to a hash map of counts; reads use an immutable frozen view rebuilt from it by
+ * {@link #refreeze()}: the normalized values in sorted order, so the completions of a prefix
+ * are one contiguous range, plus a sparse table of per-block maxima. The top k of a range are
+ * taken best-first (best of the range, then recursively the best of the two sides around it),
+ * each range-max costing at most two partial block scans, so a lookup is O(log n + k * block)
+ * whatever the number of completions.
+ */
+public class PrefixSuggestIndex {
+
+    private static final int BLOCK = 64;
+
+    public record Suggestion(String text, int count) {}
+
+    private static final class Term {
+        final String display;
+        int count;
+
+        Term(String display) {
+            this.display = display;
+        }
+    }
+
+    private final Map<String, Term> terms = new HashMap<>();
+    private boolean dirty;
+    private volatile Frozen frozen = Frozen.build(new TreeMap<>());
+
+    public synchronized void add(String value) {
+        String key = normalize(value);
+        if (key == null) return;
+        terms.computeIfAbsent(key, k -> new Term(value.trim())).count++;
+        dirty = true;
+    }
+
+    public synchronized void remove(String value) {
+        String key = normalize(value);
+        if (key == null) return;
+        Term term = terms.get(key);
+        if (term == null) return;
+        if (--term.count <= 0) terms.remove(key);
+        dirty = true;
+    }
+
+    /** Publishes the writes since the last call to readers; false when there were none. */
+    public boolean refreeze() {
+        SortedMap<String, Term> sorted;
+        synchronized (this) {
+            if (!dirty) return false;
+            dirty = false;
+            sorted = new TreeMap<>();
+            for (Map.Entry<String, Term> e : terms.entrySet()) {
+                Term copy = new Term(e.getValue().display);
+                copy.count = e.getValue().count;
+                sorted.put(e.getKey(), copy);
+            }
+        }
+        frozen = Frozen.build(sorted);
+        return true;
+    }
+
+    /** Up to k values starting with the prefix (case-insensitive), most frequent first. */
+    public List<Suggestion> complete(String prefix, int k) {
+        String key = normalize(prefix);
+        if (key == null || k <= 0) return List.of();
+        return frozen.topK(key, k);
+    }
+
+    public int size() {
+        return frozen.keys.length;
+    }
+
+    public static String normalize(String value) {
+        if (value == null) return null;
+        String key = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    private static final class Frozen {
+        final String[] keys;
+        final String[] display;
+        final int[] counts;
+        // sparse[j][b]: index of the best entry in blocks b .. b + 2^j - 1
+        final int[][] sparse;
+
+        private Frozen(String[] keys, String[] display, int[] counts) {
+            this.keys = keys;
+            this.display = display;
+            this.counts = counts;
+
+            int blocks = (keys.length + BLOCK - 1) / BLOCK;
+            int levels = 1;
+            while ((1 << levels) <= blocks) levels++;
+            sparse = new int[levels][];
+            sparse[0] = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                sparse[0][b] = scan(b * BLOCK, Math.min(keys.length, (b + 1) * BLOCK) - 1);
+            }
+            for (int j = 1; j < levels; j++) {
+                int span = 1 << (j - 1);
+                sparse[j] = new int[blocks - (1 << j) + 1];
+                for (int b = 0; b < sparse[j].length; b++) {
+                    sparse[j][b] = better(sparse[j - 1][b], sparse[j - 1][b + span]);
+                }
+            }
+        }
+
+        static Frozen build(SortedMap<String, Term> sorted) {
+            String[] keys = new String[sorted.size()];
+            String[] display = new String[sorted.size()];
+            int[] counts = new int[sorted.size()];
+            int i = 0;
+            for (Map.Entry<String, Term> e : sorted.entrySet()) {
+                keys[i] = e.getKey();
+                display[i] = e.getValue().display;
+                counts[i] = e.getValue().count;
+                i++;
+            }
+            return new Frozen(keys, display, counts);
+        }
+
+        List<Suggestion> topK(String prefix, int k) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE) - 1;
+            if (from > to) return List.of();
+
+            // Candidate ranges ordered by their best entry
+            PriorityQueue<int[]> queue = new PriorityQueue<>((x, y) -> x[2] == y[2] ? 0 : better(x[2], y[2]) == x[2] ? -1 : 1);
+            queue.add(new int[] { from, to, rangeMax(from, to) });
+            List<Suggestion> result = new ArrayList<>(k);
+            while (!queue.isEmpty() && result.size() < k) {
+                int[] range = queue.poll();
+                int best = range[2];
+                result.add(new Suggestion(display[best], counts[best]));
+                if (range[0] < best) queue.add(new int[] { range[0], best - 1, rangeMax(range[0], best - 1) });
+                if (best < range[1]) queue.add(new int[] { best + 1, range[1], rangeMax(best + 1, range[1]) });
+            }
+            return result;
+        }
+
+        private int rangeMax(int lo, int hi) {
+            int bl = lo / BLOCK;
+            int bh = hi / BLOCK;
+            if (bl == bh) return scan(lo, hi);
+            int best = better(scan(lo, (bl + 1) * BLOCK - 1), scan(bh * BLOCK, hi));
+            if (bl + 1 <= bh - 1) {
+                int a = bl + 1;
+                int b = bh - 1;
+                int j = 31 - Integer.numberOfLeadingZeros(b - a + 1);
+                best = better(best, better(sparse[j][a], sparse[j][b - (1 << j) + 1]));
+            }
+            return best;
+        }
+
+        private int scan(int lo, int hi) {
+            int best = lo;
+            for (int i = lo + 1; i <= hi; i++) {
+                if (counts[i] > counts[best]) best = i;
+            }
+            return best;
+        }
+
+        // Higher count wins, then the alphabetically first value
+        private int better(int a, int b) {
+            if (counts[a] != counts[b]) return counts[a] > counts[b] ? a : b;
+            return Math.min(a, b);
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.backend.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue over a power-of-two ring of slots,
+ * each with a sequence number telling producers and consumers whose turn it is (Vyukov's
+ * bounded MPMC queue). {@link #offer} never blocks and never allocates: it returns false
+ * when the ring is full, leaving the drop policy to the caller.
+ */
+public final class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();   // next slot to write
+    private final AtomicLong head = new AtomicLong();   // next slot to read
+
+    public RingBuffer(int minCapacity) {
+        if (minCapacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int capacity = Integer.highestOneBit(Math.max(2, minCapacity) - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    public boolean offer(T value) {
+        while (true) {
+            long pos = tail.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, value);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;   // the slot still holds an unread value from the previous lap
+            }
+            // else another producer took this position, retry with the new tail
+        }
+    }
+
+    /** The oldest value, or null when empty. */
+    public T poll() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T value = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return value;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /** Moves up to max values into the list, oldest first; returns how many. */
+    public int drainTo(List<? super T> target, int max) {
+        int n = 0;
+        T value;
+        while (n < max && (value = poll()) != null) {
+            target.add(value);
+            n++;
+        }
+        return n;
+    }
+
+    /** Approximate while producers or consumers are active. */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity(), tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,328 @@
+package com.project.backend.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable compressed bitmap of non-negative ints, in the Roaring layout: values are split
+ * by their high 16 bits into containers, each holding the low 16 bits either as a sorted
+ * array (up to 4096 values, 2 bytes per value) or as a 65536-bit bitmap (8 KB). Sparse sets
+ * stay small and dense sets get word-at-a-time AND/OR. Build with {@link Builder} by adding
+ * values in ascending order.
+ */
+public final class RoaringBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    public static final RoaringBitmap EMPTY = new RoaringBitmap(new int[0], new Object[0], new int[0]);
+
+    private final int[] keys;            // high 16 bits, ascending
+    private final Object[] containers;   // char[] (sorted, exact length) or long[WORDS]
+    private final int[] cardinalities;
+    private final int cardinality;
+
+    private RoaringBitmap(int[] keys, Object[] containers, int[] cardinalities) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinalities = cardinalities;
+        int total = 0;
+        for (int c : cardinalities) total += c;
+        this.cardinality = total;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, value >>> 16);
+        if (i < 0) return false;
+        char low = (char) value;
+        Object c = containers[i];
+        if (c instanceof long[] bits) return (bits[low >>> 6] & (1L << low)) != 0;
+        return Arrays.binarySearch((char[]) c, low) >= 0;
+    }
+
+    /** Values in ascending order. */
+    public int[] toArray() {
+        int[] out = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            Object c = containers[i];
+            if (c instanceof long[] bits) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        out[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                for (char low : (char[]) c) out[n++] = high | low;
+            }
+        }
+        return out;
+    }
+
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 12L;
+        for (Object c : containers) {
+            bytes += c instanceof long[] ? WORDS * 8L : ((char[]) c).length * 2L;
+        }
+        return bytes;
+    }
+
+    // ===========================
+    // SET OPERATIONS
+    // ===========================
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        int[] outKeys = new int[capacity];
+        Object[] outContainers = new Object[capacity];
+        int[] outCards = new int[capacity];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else {
+                Object c = and(containers[i], other.containers[j]);
+                int card = cardinality(c);
+                if (card > 0) {
+                    outKeys[n] = keys[i];
+                    outContainers[n] = c;
+                    outCards[n] = card;
+                    n++;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new RoaringBitmap(Arrays.copyOf(outKeys, n), Arrays.copyOf(outContainers, n), Arrays.copyOf(outCards, n));
+    }
+
+    /** |this AND other| without materializing the intersection. */
+    public int andCardinality(RoaringBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else total += andCardinality(containers[i++], other.containers[j++]);
+        }
+        return total;
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        int capacity = keys.length + other.keys.length;
+        int[] outKeys = new int[capacity];
+        Object[] outContainers = new Object[capacity];
+        int[] outCards = new int[capacity];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                outKeys[n] = keys[i];
+                outContainers[n] = containers[i];
+                outCards[n++] = cardinalities[i++];
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                outKeys[n] = other.keys[j];
+                outContainers[n] = other.containers[j];
+                outCards[n++] = other.cardinalities[j++];
+            } else {
+                Object c = or(containers[i++], other.containers[j++]);
+                outKeys[n] = keys[i - 1];
+                outContainers[n] = c;
+                outCards[n++] = cardinality(c);
+            }
+        }
+        return new RoaringBitmap(Arrays.copyOf(outKeys, n), Arrays.copyOf(outContainers, n), Arrays.copyOf(outCards, n));
+    }
+
+    public static RoaringBitmap or(Collection<RoaringBitmap> bitmaps) {
+        RoaringBitmap result = EMPTY;
+        for (RoaringBitmap b : bitmaps) result = result.or(b);
+        return result;
+    }
+
+    private static Object and(Object a, Object b) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            long[] out = new long[WORDS];
+            int card = 0;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] = x[w] & y[w];
+                card += Long.bitCount(out[w]);
+            }
+            return card <= ARRAY_MAX ? toArray(out, card) : out;
+        }
+        if (a instanceof long[] bits) return filter((char[]) b, bits);
+        if (b instanceof long[] bits) return filter((char[]) a, bits);
+
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        char[] out = new char[Math.min(x.length, y.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < x.length && j < y.length) {
+            if (x[i] < y[j]) i++;
+            else if (x[i] > y[j]) j++;
+            else {
+                out[n++] = x[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int andCardinality(Object a, Object b) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            int card = 0;
+            for (int w = 0; w < WORDS; w++) card += Long.bitCount(x[w] & y[w]);
+            return card;
+        }
+        if (a instanceof long[] || b instanceof long[]) {
+            long[] bits = a instanceof long[] ? (long[]) a : (long[]) b;
+            char[] values = a instanceof long[] ? (char[]) b : (char[]) a;
+            int card = 0;
+            for (char v : values) {
+                if ((bits[v >>> 6] & (1L << v)) != 0) card++;
+            }
+            return card;
+        }
+        return ((char[]) and(a, b)).length;
+    }
+
+    private static Object or(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            char[] out = new char[x.length + y.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length || j < y.length) {
+                if (j == y.length || (i < x.length && x[i] < y[j])) out[n++] = x[i++];
+                else if (i == x.length || x[i] > y[j]) out[n++] = y[j++];
+                else {
+                    out[n++] = x[i++];
+                    j++;
+                }
+            }
+            return n <= ARRAY_MAX ? Arrays.copyOf(out, n) : toBitmap(out, n);
+        }
+        long[] out = a instanceof long[] bits ? bits.clone() : toBitmap((char[]) a, ((char[]) a).length);
+        if (b instanceof long[] bits) {
+            for (int w = 0; w < WORDS; w++) out[w] |= bits[w];
+        } else {
+            for (char v : (char[]) b) out[v >>> 6] |= 1L << v;
+        }
+        return out;
+    }
+
+    private static char[] filter(char[] values, long[] bits) {
+        char[] out = new char[values.length];
+        int n = 0;
+        for (char v : values) {
+            if ((bits[v >>> 6] & (1L << v)) != 0) out[n++] = v;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static char[] toArray(long[] bits, int card) {
+        char[] out = new char[card];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                out[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    private static long[] toBitmap(char[] values, int n) {
+        long[] bits = new long[WORDS];
+        for (int i = 0; i < n; i++) bits[values[i] >>> 6] |= 1L << values[i];
+        return bits;
+    }
+
+    private static int cardinality(Object c) {
+        if (c instanceof char[] values) return values.length;
+        int card = 0;
+        for (long word : (long[]) c) card += Long.bitCount(word);
+        return card;
+    }
+
+    // ===========================
+    // BUILDER
+    // ===========================
+
+    /** Accepts strictly ascending values. */
+    public static final class Builder {
+        private int[] keys = new int[4];
+        private Object[] containers = new Object[4];
+        private int[] cardinalities = new int[4];
+        private int size;
+
+        private int currentKey = -1;
+        private char[] array;
+        private long[] bits;
+        private int card;
+
+        public Builder add(int value) {
+            int key = value >>> 16;
+            char low = (char) value;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+                array = new char[16];
+                bits = null;
+            }
+            if (bits == null && card == ARRAY_MAX) {
+                bits = toBitmap(array, card);
+                array = null;
+            }
+            if (bits != null) {
+                bits[low >>> 6] |= 1L << low;
+            } else {
+                if (card == array.length) array = Arrays.copyOf(array, Math.min(ARRAY_MAX, card * 2));
+                array[card] = low;
+            }
+            card++;
+            return this;
+        }
+
+        public RoaringBitmap build() {
+            flush();
+            return new RoaringBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), Arrays.copyOf(cardinalities, size));
+        }
+
+        private void flush() {
+            if (card == 0) return;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+                cardinalities = Arrays.copyOf(cardinalities, size * 2);
+            }
+            keys[size] = currentKey;
+            containers[size] = bits != null ? bits : Arrays.copyOf(array, card);
+            cardinalities[size] = card;
+            size++;
+            card = 0;
+            array = null;
+            bits = null;
+            currentKey = -1;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.project.backend.util;
+
+import com.project.backend.dto.PatentDTO;
+
+import java.util.*;
+
+/**
+ * Merge stage of the federated search. Hits from all sources are indexed by normalized
+ * publication number (upper-case, letters and digits only, so "US-1234567-B2" and
+ * "US1234567B2" collide); duplicates collapse into the record with more populated fields,
+ * filled in from the other. The input DTOs are never modified (they may be shared through
+ * the SerpAPI cache): a merged record is a new copy. Type and jurisdiction filters run in
+ * the same pass.
+ * Results are ordered by keyword relevance, then by how many sources returned the hit,
+ * then by first appearance, so the order is stable for identical inputs.
+ */
+public final class SearchResultMerger {
+
+    // Fallback values the sources put in place of missing data
+    private static final Set<String> PLACEHOLDERS = Set.of(
+            "", "N/A", "No Title", "No abstract available", "Unknown Assignee", "Unknown");
+
+    private SearchResultMerger() {}
+
+    /**
+     * @param bySource     hits per source, in source preference order (earlier wins ties)
+     * @param type         ALL / null for any type
+     * @param jurisdiction null / empty for any jurisdiction (case-insensitive match)
+     */
+    public static List<PatentDTO> merge(List<List<PatentDTO>> bySource, String keyword,
+                                        String type, String jurisdiction) {
+        boolean anyType = type == null || "ALL".equalsIgnoreCase(type);
+        boolean anyJurisdiction = jurisdiction == null || jurisdiction.isBlank();
+        String[] terms = terms(keyword);
+
+        Map<String, Hit> index = new LinkedHashMap<>();
+        int position = 0;
+        for (List<PatentDTO> results : bySource) {
+            Set<String> seenInSource = new HashSet<>();
+            for (PatentDTO dto : results) {
+                position++;
+                if (!anyType && (dto.getType() == null || !dto.getType().equalsIgnoreCase(type))) continue;
+                if (!anyJurisdiction && (dto.getJurisdiction() == null
+                        || !dto.getJurisdiction().equalsIgnoreCase(jurisdiction.trim()))) continue;
+
+                String key = key(dto, position);
+                Hit hit = index.get(key);
+                if (hit == null) {
+                    index.put(key, new Hit(dto, position));
+                    seenInSource.add(key);
+                    continue;
+                }
+                hit.dto = richness(dto) > richness(hit.dto)
+                        ? fill(new PatentDTO(dto), hit.dto)
+                        : fill(new PatentDTO(hit.dto), dto);
+                if (seenInSource.add(key)) hit.sources++;
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(index.values());
+        for (Hit hit : hits) {
+            hit.score = score(hit.dto, terms);
+        }
+        hits.sort(Comparator.comparingInt((Hit h) -> h.score).reversed()
+                .thenComparing(Comparator.comparingInt((Hit h) -> h.sources).reversed())
+                .thenComparingInt(h -> h.position));
+
+        List<PatentDTO> merged = new ArrayList<>(hits.size());
+        for (Hit hit : hits) merged.add(hit.dto);
+        return merged;
+    }
+
+    public static String normalizeNumber(String number) {
+        if (number == null) return null;
+        StringBuilder sb = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toUpperCase(c));
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    // Hits without any number are never merged
+    private static String key(PatentDTO dto, int position) {
+        String key = normalizeNumber(dto.getAssetNumber());
+        if (key == null && !"LOCAL_DB".equals(dto.getSource())) key = normalizeNumber(dto.getId());
+        return key != null ? key : "#" + position;
+    }
+
+    private static int richness(PatentDTO dto) {
+        int n = 0;
+        for (String value : fields(dto)) {
+            if (present(value)) n++;
+        }
+        return n;
+    }
+
+    // Copies into target (always a fresh copy) the fields it is missing; returns target
+    private static PatentDTO fill(PatentDTO target, PatentDTO other) {
+        if (!present(target.getTitle())) target.setTitle(other.getTitle());
+        if (!present(target.getAbstractText())) target.setAbstractText(other.getAbstractText());
+        if (!present(target.getStatus())) target.setStatus(other.getStatus());
+        if (!present(target.getFilingDate())) target.setFilingDate(other.getFilingDate());
+        if (!present(target.getInventor())) target.setInventor(other.getInventor());
+        if (!present(target.getAssignee())) target.setAssignee(other.getAssignee());
+        if (!present(target.getJurisdiction())) target.setJurisdiction(other.getJurisdiction());
+        if (!present(target.getExternalUrl())) target.setExternalUrl(other.getExternalUrl());
+        if (!present(target.getAssetNumber())) target.setAssetNumber(other.getAssetNumber());
+        if (!present(target.getType())) target.setType(other.getType());
+        return target;
+    }
+
+    private static String[] fields(PatentDTO dto) {
+        return new String[] {
+                dto.getTitle(), dto.getAbstractText(), dto.getStatus(), dto.getFilingDate(), dto.getInventor(),
+                dto.getAssignee(), dto.getJurisdiction(), dto.getExternalUrl(), dto.getAssetNumber(), dto.getType()
+        };
+    }
+
+    private static boolean present(String value) {
+        return value != null && !PLACEHOLDERS.contains(value.trim());
+    }
+
+    // Title matches count three times as much as abstract matches
+    private static int score(PatentDTO dto, String[] terms) {
+        if (terms.length == 0) return 0;
+        String title = dto.getTitle() != null ? dto.getTitle().toLowerCase(Locale.ROOT) : "";
+        String text = dto.getAbstractText() != null ? dto.getAbstractText().toLowerCase(Locale.ROOT) : "";
+        int score = 0;
+        for (String term : terms) {
+            if (title.contains(term)) score += 3;
+            if (text.contains(term)) score += 1;
+        }
+        return score;
+    }
+
+    private static String[] terms(String keyword) {
+        if (keyword == null || keyword.isBlank()) return new String[0];
+        return Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static final class Hit {
+        PatentDTO dto;
+        final int position;
+        int sources = 1;
+        int score;
+
+        Hit(PatentDTO dto, int position) {
+            this.dto = dto;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.project.backend.util;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy hitters summary: at most {@code capacity} monitored items, so memory is
+ * fixed whatever the number of distinct items. An unmonitored item takes over the counter of
+ * the smallest one and inherits its count as error. Every reported count is an upper bound
+ * of the true count and {@code count - error} a lower bound; any item whose true count
+ * exceeds {@link #errorBound()} (at most total / capacity) is guaranteed to be monitored.
+ * <p>
+ * Removals decrement monitored items and are otherwise dropped: the removed occurrence was
+ * already covered by the error of whichever item evicted it. Items entering after an
+ * eviction start from the largest count ever evicted, which keeps both bounds valid.
+ * <p>
+ * Each counter can carry {@code extras} side counts (e.g. how many of the occurrences were
+ * active) that start at zero when the item becomes monitored, so they are lower bounds.
+ * Not thread safe.
+ */
+public class SpaceSaving<K> {
+
+    public record Entry<K>(K item, long count, long error, long[] extras) {
+        public long guaranteed() {
+            return Math.max(0, count - error);
+        }
+    }
+
+    private static final class Counter<K> {
+        final K item;
+        final long seq;
+        long count;
+        long error;
+        final long[] extras;
+
+        Counter(K item, long seq, int extraWidth) {
+            this.item = item;
+            this.seq = seq;
+            this.extras = new long[extraWidth];
+        }
+    }
+
+    private final int capacity;
+    private final int extraWidth;
+    private final Map<K, Counter<K>> counters = new HashMap<>();
+    // Smallest count first; on ties the most recently monitored item is evicted first
+    private final TreeSet<Counter<K>> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter<K> c) -> c.count).thenComparing(c -> -c.seq));
+
+    private long total;
+    private long evictedFloor;
+    private long nextSeq;
+
+    public SpaceSaving(int capacity, int extraWidth) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.extraWidth = extraWidth;
+    }
+
+    /** One occurrence of the item; extras (nullable) are added to its side counts. */
+    public void add(K item, long[] extras) {
+        if (item == null) return;
+        total++;
+        Counter<K> counter = counters.get(item);
+        if (counter == null) {
+            long base = evictedFloor;
+            if (counters.size() == capacity) {
+                Counter<K> evicted = byCount.pollFirst();
+                counters.remove(evicted.item);
+                base = Math.max(base, evicted.count);
+                evictedFloor = base;
+            }
+            counter = new Counter<>(item, nextSeq++, extraWidth);
+            counter.count = base;
+            counter.error = base;
+            counters.put(item, counter);
+        } else {
+            byCount.remove(counter);
+        }
+        counter.count++;
+        addExtras(counter, extras, 1);
+        byCount.add(counter);
+    }
+
+    /** Takes back one occurrence previously added with the same extras. */
+    public void remove(K item, long[] extras) {
+        if (item == null) return;
+        total--;
+        Counter<K> counter = counters.get(item);
+        if (counter == null) return;
+        byCount.remove(counter);
+        counter.count--;
+        addExtras(counter, extras, -1);
+        if (counter.count <= 0) {
+            counters.remove(item);
+        } else {
+            byCount.add(counter);
+        }
+    }
+
+    /** The n items with the highest counts, highest first. */
+    public List<Entry<K>> top(int n) {
+        List<Entry<K>> result = new ArrayList<>(Math.min(n, counters.size()));
+        for (Iterator<Counter<K>> it = byCount.descendingIterator(); it.hasNext() && result.size() < n; ) {
+            Counter<K> c = it.next();
+            result.add(new Entry<>(c.item, c.count, c.error, c.extras.clone()));
+        }
+        return result;
+    }
+
+    /** Largest possible overestimate of any reported count, and of any unmonitored item's count. */
+    public long errorBound() {
+        long bound = evictedFloor;
+        if (counters.size() == capacity && !byCount.isEmpty()) {
+            bound = Math.max(bound, byCount.first().count);
+        }
+        return bound;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void addExtras(Counter<K> counter, long[] extras, int sign) {
+        if (extras == null) return;
+        for (int i = 0; i < extraWidth && i < extras.length; i++) {
+            counter.extras[i] = Math.max(0, counter.extras[i] + sign * extras[i]);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.backend.util;
+
+public final class StringUtil {
+
+    private StringUtil() {}
+
+    /** Cuts the value to the column length, ending it with "..." when shortened. */
+    public static String truncate(String val, int length) {
+        if (val == null) return null;
+        return (val.length() > length) ? val.substring(0, length - 3) + "..." : val;
+    }
+}
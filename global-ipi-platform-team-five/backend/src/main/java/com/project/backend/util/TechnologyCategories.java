@@ -0,0 +1,126 @@
+package com.project.backend.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps raw classification codes (IPC/CPC codes, trademark classes or free text)
+ * to the smart technology categories shown on the landscape dashboards.
+ * Categories have stable small-int ids so they can be stored as a bit mask per asset.
+ */
+public final class TechnologyCategories {
+
+    public static final int ARTIFICIAL_INTELLIGENCE = 0;
+    public static final int CLOUD_COMPUTING = 1;
+    public static final int WIRELESS_5G = 2;
+    public static final int BIOTECH_PHARMA = 3;
+    public static final int ELECTRIC_VEHICLES = 4;
+    public static final int RENEWABLE_ENERGY = 5;
+    public static final int ROBOTICS = 6;
+    public static final int SEMICONDUCTORS = 7;
+    public static final int CYBERSECURITY = 8;
+    public static final int OTHER = 9;
+    public static final int UNCLASSIFIED = 10;
+
+    public static final List<String> NAMES = List.of(
+            "Artificial Intelligence",
+            "Cloud Computing",
+            "5G & Wireless",
+            "Biotech & Pharma",
+            "Electric Vehicles",
+            "Renewable Energy",
+            "Robotics",
+            "Semiconductors",
+            "Cybersecurity",
+            "Other Technologies",
+            "Unclassified"
+    );
+
+    public static final int COUNT = NAMES.size();
+
+    private TechnologyCategories() {}
+
+    public static String name(int categoryId) {
+        return NAMES.get(categoryId);
+    }
+
+    // Patterns per category, checked as "contains" on the upper-cased code; lower ids win
+    private static final Map<Integer, List<String>> RULES = new LinkedHashMap<>();
+    static {
+        RULES.put(ARTIFICIAL_INTELLIGENCE, List.of("G06N", "CLASS 12", "12", "AI", "INTELLIGENCE", "MACHINE"));
+        RULES.put(CLOUD_COMPUTING, List.of("G06F", "CLASS 25", "25", "CLOUD", "COMPUTING"));
+        RULES.put(WIRELESS_5G, List.of("H04W", "CLASS 28", "28", "5G", "WIRELESS"));
+        RULES.put(BIOTECH_PHARMA, List.of("A61K", "C12N", "CLASS 1", "1B", "BIO", "PHARMA"));
+        RULES.put(ELECTRIC_VEHICLES, List.of("B60", "CLASS 38", "38", "ELECTRIC", "VEHICLE"));
+        RULES.put(RENEWABLE_ENERGY, List.of("H02S", "CLASS 41", "41", "SOLAR", "RENEWABLE"));
+        RULES.put(ROBOTICS, List.of("B25J", "ROBOT"));
+        RULES.put(SEMICONDUCTORS, List.of("H01L", "SEMICONDUCTOR"));
+        RULES.put(CYBERSECURITY, List.of("H04L", "SECURITY", "CYBER"));
+    }
+
+    private static final CategoryClassifier CLASSIFIER = new CategoryClassifier(RULES, OTHER);
+
+    // Category for a single code
+    public static int categorize(String code) {
+        if (code == null || code.trim().isEmpty()) return UNCLASSIFIED;
+        return CLASSIFIER.classify(code.trim().toUpperCase());
+    }
+
+    public static String categoryName(String code) {
+        return name(categorize(code));
+    }
+
+    public static List<String> names(int mask) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            if ((mask & (1 << i)) != 0) names.add(NAMES.get(i));
+        }
+        return names;
+    }
+
+    // Category id for a display name (case-insensitive), or -1
+    public static int idOf(String name) {
+        for (int i = 0; i < COUNT; i++) {
+            if (NAMES.get(i).equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    // Bit mask of the categories of every comma separated code in the asset class (0 when there is no class)
+    public static int categoryMask(String assetClass) {
+        if (assetClass == null || assetClass.isEmpty()) return 0;
+        int mask = 0;
+        for (String code : assetClass.split(",")) {
+            mask |= 1 << categorize(code);
+        }
+        return mask;
+    }
+
+    /**
+     * Normalizes a landscape "field" request parameter into the upper-case key that
+     * raw classes and category names are matched against. Returns null for "all".
+     */
+    public static String landscapeKey(String field) {
+        if (field == null || field.equalsIgnoreCase("all") || field.equalsIgnoreCase("All Technologies")) {
+            return null;
+        }
+        String searchKey = field.toUpperCase();
+        if (searchKey.contains("AI") || searchKey.contains("INTELLIGENCE")) searchKey = "ARTIFICIAL INTELLIGENCE";
+        else if (searchKey.contains("BIO") || searchKey.contains("PHARMA")) searchKey = "BIOTECH & PHARMA";
+        else if (searchKey.contains("5G") || searchKey.contains("WIRELESS")) searchKey = "5G & WIRELESS";
+        else if (searchKey.contains("CLOUD")) searchKey = "CLOUD COMPUTING";
+        else if (searchKey.contains("ELECTRIC") || searchKey.contains("VEHICLE")) searchKey = "ELECTRIC VEHICLES";
+        return searchKey;
+    }
+
+    // Mask of categories whose display name contains the landscape key
+    public static int maskForLandscapeKey(String landscapeKey) {
+        int mask = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (NAMES.get(i).toUpperCase().contains(landscapeKey)) mask |= 1 << i;
+        }
+        return mask;
+    }
+}
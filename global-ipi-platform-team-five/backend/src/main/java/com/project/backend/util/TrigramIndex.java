@@ -0,0 +1,102 @@
+package com.project.backend.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for case-insensitive substring lookups ("contains") over a
+ * text column. Distinct lower-cased values are indexed by each of their trigrams; a query
+ * only verifies the values in the shortest posting list of its trigrams, so the cost
+ * depends on how selective the fragment is rather than on the number of rows.
+ * Fragments shorter than three characters have no trigram and scan the distinct values.
+ */
+public class TrigramIndex {
+
+    private final Map<String, Set<Integer>> idsByValue = new HashMap<>();
+    private final Map<Long, Set<String>> valuesByTrigram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(String value, int id) {
+        if (value == null || value.isEmpty()) return;
+        String key = value.toLowerCase(Locale.ROOT);
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = idsByValue.get(key);
+            if (ids == null) {
+                ids = new HashSet<>();
+                idsByValue.put(key, ids);
+                for (long trigram : trigrams(key)) {
+                    valuesByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key);
+                }
+            }
+            ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String value, int id) {
+        if (value == null || value.isEmpty()) return;
+        String key = value.toLowerCase(Locale.ROOT);
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = idsByValue.get(key);
+            if (ids == null || !ids.remove(id) || !ids.isEmpty()) return;
+            idsByValue.remove(key);
+            for (long trigram : trigrams(key)) {
+                Set<String> values = valuesByTrigram.get(trigram);
+                if (values != null && values.remove(key) && values.isEmpty()) {
+                    valuesByTrigram.remove(trigram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of all rows whose value contains the fragment (case-insensitive),
+     * or null when more than maxIds rows match.
+     */
+    public Set<Integer> idsContaining(String fragment, int maxIds) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Collection<String> candidates = idsByValue.keySet();
+            for (long trigram : trigrams(needle)) {
+                Set<String> values = valuesByTrigram.get(trigram);
+                if (values == null) return new HashSet<>();
+                if (values.size() < candidates.size()) candidates = values;
+            }
+
+            Set<Integer> result = new HashSet<>();
+            for (String value : candidates) {
+                if (!value.contains(needle)) continue;
+                result.addAll(idsByValue.get(value));
+                if (result.size() > maxIds) return null;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int distinctValues() {
+        lock.readLock().lock();
+        try {
+            return idsByValue.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Three chars packed into one long (16 bits each)
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
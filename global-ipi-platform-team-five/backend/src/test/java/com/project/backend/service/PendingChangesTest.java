@@ -0,0 +1,58 @@
+package com.project.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingChangesTest {
+
+    private static IPAssetChangeEvent.Facts facts(int id, String status) {
+        return new IPAssetChangeEvent.Facts(id, status, "PATENT", "US", null, 0, "US" + id, null, null, null);
+    }
+
+    private static List<String> replay(PendingChanges pending) {
+        List<String> applied = new ArrayList<>();
+        pending.replay(f -> applied.add("-" + f.id() + f.status()), f -> applied.add("+" + f.id() + f.status()));
+        return applied;
+    }
+
+    @Test
+    void changeSeenBySnapshotCancelsOut() {
+        PendingChanges pending = new PendingChanges();
+        pending.add(List.of(new IPAssetChangeEvent.Change(facts(1, "Pending"), facts(1, "Active"))));
+        assertEquals(1, pending.unread().size());
+        pending.putSnapshot(Map.of(1, facts(1, "Active")));
+        assertTrue(pending.unread().isEmpty());
+
+        assertEquals(List.of("-1Active", "+1Active"), replay(pending));
+    }
+
+    @Test
+    void changesMissedBySnapshotAreApplied() {
+        PendingChanges pending = new PendingChanges();
+        pending.add(List.of(new IPAssetChangeEvent.Change(facts(1, "Pending"), facts(1, "Active"))));
+        pending.add(List.of(new IPAssetChangeEvent.Change(facts(1, "Active"), facts(1, "Expired"))));
+        pending.putSnapshot(Map.of(1, facts(1, "Pending")));
+
+        assertEquals(List.of("-1Pending", "+1Expired"), replay(pending));
+    }
+
+    @Test
+    void insertsAndDeletesAgainstAbsentRows() {
+        PendingChanges pending = new PendingChanges();
+        pending.add(List.of(new IPAssetChangeEvent.Change(null, facts(2, "Active")),
+                new IPAssetChangeEvent.Change(facts(3, "Active"), null)));
+        // Insert not yet visible, delete already visible: both rows absent from the snapshot
+        Map<Integer, IPAssetChangeEvent.Facts> snapshot = new HashMap<>();
+        snapshot.put(2, null);
+        snapshot.put(3, null);
+        pending.putSnapshot(snapshot);
+
+        assertEquals(List.of("+2Active"), replay(pending));
+    }
+}
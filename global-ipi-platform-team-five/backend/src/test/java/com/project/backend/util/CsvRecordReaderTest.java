@@ -0,0 +1,69 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(input));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) records.add(record);
+        return records;
+    }
+
+    @Test
+    void plainRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "", "3")), readAll("a,b,c\n1,,3\n"));
+        assertEquals(List.of(List.of("last", "")), readAll("last,"));
+        assertEquals(List.of(), readAll(""));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndNewlines() throws IOException {
+        List<List<String>> records = readAll("id,details\n1,\"line one\nline two, still\r\nline three\"\n2,x\n");
+
+        assertEquals(3, records.size());
+        assertEquals(List.of("1", "line one\nline two, still\r\nline three"), records.get(1));
+        assertEquals(List.of("2", "x"), records.get(2));
+    }
+
+    @Test
+    void doubledQuotesAreEscapes() throws IOException {
+        assertEquals(List.of(List.of("say \"hi\"", "", "\"")), readAll("\"say \"\"hi\"\"\",\"\",\"\"\"\"\n"));
+        // A quote inside an unquoted field is kept as it is
+        assertEquals(List.of(List.of("5\" disk")), readAll("5\" disk\n"));
+    }
+
+    @Test
+    void crlfAndLoneCrEndRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e", "f")), readAll("a,b\r\nc,d\re,f\r"));
+    }
+
+    @Test
+    void blankLinesAreSkipped() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\n\r\na\n\n\r\rb\r\n\n"));
+
+        assertEquals(List.of("a"), reader.next());
+        assertEquals(1, reader.getRecordNumber());
+        assertEquals(List.of("b"), reader.next());
+        assertEquals(2, reader.getRecordNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unterminatedQuoteAtEndOfInputFails() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n1,\"open\nstill open"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        IOException e = assertThrows(IOException.class, reader::next);
+        assertTrue(e.getMessage().contains("record 2"), e.getMessage());
+    }
+}
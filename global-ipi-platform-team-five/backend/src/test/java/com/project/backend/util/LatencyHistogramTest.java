@@ -0,0 +1,98 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    @Test
+    void valuesBelow64HaveABucketEach() {
+        for (int v = 0; v < 64; v++) {
+            assertEquals(v, LatencyHistogram.index(v));
+            assertEquals(v, LatencyHistogram.highestValue(v));
+        }
+    }
+
+    @Test
+    void bucketEdgesAbove64() {
+        // 64..127 in buckets of 2, 128..255 in buckets of 4
+        assertEquals(64, LatencyHistogram.index(64));
+        assertEquals(64, LatencyHistogram.index(65));
+        assertEquals(65, LatencyHistogram.highestValue(64));
+        assertEquals(65, LatencyHistogram.index(66));
+        assertEquals(95, LatencyHistogram.index(127));
+        assertEquals(127, LatencyHistogram.highestValue(95));
+        assertEquals(96, LatencyHistogram.index(128));
+        assertEquals(96, LatencyHistogram.index(131));
+        assertEquals(131, LatencyHistogram.highestValue(96));
+        assertEquals(97, LatencyHistogram.index(132));
+    }
+
+    @Test
+    void bucketsAreContiguousAndWithinAThirtySecond() {
+        int last = LatencyHistogram.index(MAX_VALUE);
+        assertEquals(MAX_VALUE, LatencyHistogram.highestValue(last));
+        long lowest = 0;
+        for (int i = 0; i <= last; i++) {
+            long highest = LatencyHistogram.highestValue(i);
+            assertEquals(i, LatencyHistogram.index(lowest), "lowest value of bucket " + i);
+            assertEquals(i, LatencyHistogram.index(highest), "highest value of bucket " + i);
+            assertTrue(highest - lowest <= lowest / 32, "bucket " + i + " too wide");
+            lowest = highest + 1;
+        }
+    }
+
+    @Test
+    void quantilesAreBucketUpperEdgesCappedAtTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 1; v <= 1000; v++) histogram.record(v, v % 100 == 0);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getTotal());
+        assertEquals(10, snapshot.getErrors());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.mean(), 1e-9);
+        assertEquals(1, snapshot.valueAtQuantile(0.0));
+        long p50 = snapshot.valueAtQuantile(0.5);
+        assertTrue(p50 >= 500 && p50 <= 500 + 500 / 32, "p50 " + p50);
+        long p99 = snapshot.valueAtQuantile(0.99);
+        assertTrue(p99 >= 990 && p99 <= 990 + 990 / 32, "p99 " + p99);
+        assertEquals(1000, snapshot.valueAtQuantile(1.0));
+        assertEquals(0, LatencyHistogram.Snapshot.EMPTY.valueAtQuantile(0.5));
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5, false);
+        histogram.record(Long.MAX_VALUE, false);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.bucketCount());
+        assertEquals(0, snapshot.valueAtQuantile(0.5));
+        assertEquals(MAX_VALUE, snapshot.valueAtQuantile(1.0));
+    }
+
+    @Test
+    void encodeDecodeAndMergeKeepTheCounts() {
+        LatencyHistogram.Snapshot a = LatencyHistogram.snapshotOf(new long[] { 10, 10, 200, 5000 }, 4, 1);
+        LatencyHistogram.Snapshot b = LatencyHistogram.snapshotOf(new long[] { 10, 70000, 0 }, 2, 0);
+
+        LatencyHistogram.Snapshot decoded = LatencyHistogram.Snapshot.decode(a.encode(), a.getTotal(), a.getErrors(), a.getSum(), a.getMax());
+        assertEquals(a.encode(), decoded.encode());
+        assertEquals(a.valueAtQuantile(0.75), decoded.valueAtQuantile(0.75));
+
+        LatencyHistogram.Snapshot merged = LatencyHistogram.Snapshot.merge(List.of(a, b));
+        assertEquals(6, merged.getTotal());
+        assertEquals(1, merged.getErrors());
+        assertEquals(70000, merged.getMax());
+        assertEquals(10 * 3 + 200 + 5000 + 70000, merged.getSum());
+        assertEquals(10, merged.valueAtQuantile(0.5));
+        assertEquals(4, merged.bucketCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixSuggestIndexTest {
+
+    private static List<String> texts(List<PrefixSuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(PrefixSuggestIndex.Suggestion::text).toList();
+    }
+
+    @Test
+    void completesMostFrequentFirstAndBreaksTiesAlphabetically() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        for (String v : List.of("Battery", "Battery", "Battery", "Bat cave", "Batch process", "Batch process", "Ball", "Baton")) {
+            index.add(v);
+        }
+        index.refreeze();
+
+        List<PrefixSuggestIndex.Suggestion> top = index.complete("bat", 10);
+        assertEquals(List.of("Battery", "Batch process", "Bat cave", "Baton"), texts(top));
+        assertEquals(3, top.get(0).count());
+        assertEquals(List.of("Battery", "Batch process"), texts(index.complete("bat", 2)));
+    }
+
+    @Test
+    void prefixIsNormalized() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.add("  Solar   Panel ");
+        index.add("solar panel");
+        index.refreeze();
+
+        List<PrefixSuggestIndex.Suggestion> top = index.complete("SOLAR  pa", 5);
+        assertEquals(1, top.size());
+        assertEquals("Solar   Panel", top.get(0).text());
+        assertEquals(2, top.get(0).count());
+        assertTrue(index.complete("   ", 5).isEmpty());
+        assertTrue(index.complete(null, 5).isEmpty());
+        assertTrue(index.complete("solar", 0).isEmpty());
+    }
+
+    @Test
+    void writesAreVisibleAfterRefreeze() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.add("Wind turbine");
+        assertTrue(index.complete("wind", 5).isEmpty());
+        assertTrue(index.refreeze());
+        assertFalse(index.refreeze());
+        assertEquals(1, index.complete("wind", 5).size());
+
+        index.remove("wind turbine");
+        assertEquals(1, index.complete("wind", 5).size());
+        assertTrue(index.refreeze());
+        assertTrue(index.complete("wind", 5).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void removeDecrementsCounts() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.add("Alpha");
+        index.add("Alpha");
+        index.add("Alpine");
+        index.remove("Alpha");
+        index.remove("Unknown");
+        index.refreeze();
+
+        List<PrefixSuggestIndex.Suggestion> top = index.complete("alp", 5);
+        assertEquals(List.of("Alpha", "Alpine"), texts(top));
+        assertEquals(1, top.get(0).count());
+    }
+
+    @Test
+    void matchesBruteForceAcrossManyBlocks() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        Map<String, Integer> counts = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String value = "term" + random.nextInt(2000);
+            int times = 1 + random.nextInt(4);
+            for (int t = 0; t < times; t++) index.add(value);
+            counts.merge(value, times, Integer::sum);
+        }
+        index.refreeze();
+
+        for (String prefix : List.of("t", "term1", "term12", "term199", "term5")) {
+            List<String> expected = counts.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(25)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertEquals(expected, texts(index.complete(prefix, 25)), "prefix " + prefix);
+        }
+        assertTrue(index.complete("zzz", 5).isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void capacityRoundsUpToAPowerOfTwo() {
+        assertEquals(2, new RingBuffer<Integer>(1).capacity());
+        assertEquals(4, new RingBuffer<Integer>(3).capacity());
+        assertEquals(4, new RingBuffer<Integer>(4).capacity());
+        assertEquals(8, new RingBuffer<Integer>(5).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(0));
+    }
+
+    @Test
+    void emptyAndFull() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i));
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(Integer.valueOf(0), ring.poll());
+        assertTrue(ring.offer(4));
+        assertFalse(ring.offer(5));
+        for (int i = 1; i <= 4; i++) assertEquals(Integer.valueOf(i), ring.poll());
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void staysFifoOverManyLaps() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int lap = 0; lap < 1000; lap++) {
+            // Alternate between filling up and draining down to one value
+            while (ring.offer(next)) next++;
+            assertEquals(4, ring.size());
+            while (ring.size() > 1) assertEquals(Integer.valueOf(expected++), ring.poll());
+        }
+        assertEquals(Integer.valueOf(expected++), ring.poll());
+        assertNull(ring.poll());
+        assertEquals(next, expected);
+    }
+
+    @Test
+    void drainToStopsAtMaxOrEmpty() {
+        RingBuffer<String> ring = new RingBuffer<>(8);
+        for (String s : List.of("a", "b", "c", "d", "e")) ring.offer(s);
+
+        List<String> out = new ArrayList<>();
+        assertEquals(3, ring.drainTo(out, 3));
+        assertEquals(List.of("a", "b", "c"), out);
+        assertEquals(2, ring.drainTo(out, 10));
+        assertEquals(List.of("a", "b", "c", "d", "e"), out);
+        assertEquals(0, ring.drainTo(out, 10));
+    }
+
+    @Test
+    @Timeout(30)
+    void everyValueIsDeliveredOnceUnderContention() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50000;
+        RingBuffer<Integer> ring = new RingBuffer<>(64);
+        AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) Thread.onSpinWait();
+                }
+            }));
+        }
+        int consumers = 3;
+        AtomicInteger received = new AtomicInteger();
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                while (received.get() < producers * perProducer) {
+                    Integer value = ring.poll();
+                    if (value == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    seen.incrementAndGet(value);
+                    received.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        assertNull(ring.poll());
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals(1, seen.get(i), "value " + i);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringBitmapTest {
+
+    private static final int CONTAINER_OVERHEAD = 16 + 12;
+    private static final int BITMAP_BYTES = 8192;
+
+    private static RoaringBitmap of(IntStream values) {
+        RoaringBitmap.Builder builder = new RoaringBitmap.Builder();
+        values.forEach(builder::add);
+        return builder.build();
+    }
+
+    private static int[] expected(BitSet bits) {
+        return bits.stream().toArray();
+    }
+
+    private static BitSet bits(RoaringBitmap bitmap) {
+        BitSet bits = new BitSet();
+        for (int v : bitmap.toArray()) bits.set(v);
+        return bits;
+    }
+
+    @Test
+    void arrayContainerHoldsUpTo4096Values() {
+        RoaringBitmap full = of(IntStream.range(0, 4096).map(i -> i * 2));
+        assertEquals(4096, full.cardinality());
+        assertTrue(full.contains(8190));
+        assertFalse(full.contains(8191));
+
+        RoaringBitmap small = of(IntStream.range(0, 100));
+        assertEquals(CONTAINER_OVERHEAD + 200, small.sizeInBytes());
+    }
+
+    @Test
+    void the4097thValueSwitchesToABitmapContainer() {
+        int[] values = IntStream.range(0, 4097).map(i -> i * 3).toArray();
+        RoaringBitmap bitmap = of(Arrays.stream(values));
+
+        assertEquals(4097, bitmap.cardinality());
+        assertEquals(CONTAINER_OVERHEAD + BITMAP_BYTES, bitmap.sizeInBytes());
+        assertArrayEquals(values, bitmap.toArray());
+        assertTrue(bitmap.contains(4096 * 3));
+        assertFalse(bitmap.contains(4096 * 3 + 1));
+    }
+
+    @Test
+    void valuesAreSplitByTheirHigh16Bits() {
+        int[] values = {0, 65535, 65536, 131071, 1 << 20, Integer.MAX_VALUE};
+        RoaringBitmap bitmap = of(Arrays.stream(values));
+
+        assertArrayEquals(values, bitmap.toArray());
+        assertTrue(bitmap.contains(65536));
+        assertFalse(bitmap.contains(65537));
+        assertEquals(6, bitmap.cardinality());
+    }
+
+    @Test
+    void andAcrossMixedContainerTypes() {
+        // Container 0: dense (bitmap) vs sparse (array); container 1: both dense; container 2: both sparse
+        RoaringBitmap a = of(IntStream.concat(IntStream.concat(IntStream.range(0, 10000),
+                IntStream.range(65536, 65536 + 9000)), IntStream.range(131072, 131172)));
+        RoaringBitmap b = of(IntStream.concat(IntStream.concat(IntStream.range(0, 20000).filter(i -> i % 7 == 0),
+                IntStream.range(65536 + 4000, 65536 + 20000)), IntStream.range(131122, 131222)));
+
+        BitSet expected = bits(a);
+        expected.and(bits(b));
+
+        RoaringBitmap and = a.and(b);
+        assertArrayEquals(expected(expected), and.toArray());
+        assertEquals(expected.cardinality(), and.cardinality());
+        assertEquals(expected.cardinality(), a.andCardinality(b));
+        assertEquals(expected.cardinality(), b.andCardinality(a));
+    }
+
+    @Test
+    void andOfTwoBitmapsShrinksToAnArrayWhenSparse() {
+        RoaringBitmap evens = of(IntStream.range(0, 30000).filter(i -> i % 2 == 0));
+        RoaringBitmap tens = of(IntStream.range(0, 30000).filter(i -> i % 5 == 0));
+
+        RoaringBitmap and = evens.and(tens);
+        assertEquals(3000, and.cardinality());
+        assertEquals(CONTAINER_OVERHEAD + 3000 * 2, and.sizeInBytes());
+        assertEquals(3000, evens.andCardinality(tens));
+    }
+
+    @Test
+    void orOfTwoArraysGrowsIntoABitmapPastTheLimit() {
+        RoaringBitmap evens = of(IntStream.range(0, 3000).map(i -> i * 2));
+        RoaringBitmap odds = of(IntStream.range(0, 3000).map(i -> i * 2 + 1));
+
+        RoaringBitmap or = evens.or(odds);
+        assertEquals(6000, or.cardinality());
+        assertEquals(CONTAINER_OVERHEAD + BITMAP_BYTES, or.sizeInBytes());
+        assertArrayEquals(IntStream.range(0, 6000).toArray(), or.toArray());
+    }
+
+    @Test
+    void orAcrossMixedContainersAndKeys() {
+        RoaringBitmap a = of(IntStream.concat(IntStream.range(0, 5000), IntStream.range(200000, 200010)));
+        RoaringBitmap b = of(IntStream.concat(IntStream.range(4990, 5010), IntStream.range(70000, 70005)));
+        RoaringBitmap c = of(IntStream.of(3, 300000));
+
+        BitSet expected = bits(a);
+        expected.or(bits(b));
+        expected.or(bits(c));
+
+        RoaringBitmap or = RoaringBitmap.or(List.of(a, b, c));
+        assertArrayEquals(expected(expected), or.toArray());
+        assertEquals(expected.cardinality(), or.cardinality());
+        // Inputs are immutable
+        assertEquals(5010, a.cardinality());
+    }
+
+    @Test
+    void emptyBitmap() {
+        RoaringBitmap some = of(IntStream.range(0, 10));
+        assertTrue(RoaringBitmap.EMPTY.isEmpty());
+        assertTrue(RoaringBitmap.EMPTY.and(some).isEmpty());
+        assertEquals(0, some.andCardinality(RoaringBitmap.EMPTY));
+        assertArrayEquals(some.toArray(), some.or(RoaringBitmap.EMPTY).toArray());
+        assertTrue(new RoaringBitmap.Builder().build().isEmpty());
+    }
+}
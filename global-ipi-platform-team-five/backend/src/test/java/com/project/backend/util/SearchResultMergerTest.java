@@ -0,0 +1,66 @@
+package com.project.backend.util;
+
+import com.project.backend.dto.PatentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultMergerTest {
+
+    private static PatentDTO dto(String source, String number, String title, String inventor) {
+        PatentDTO dto = new PatentDTO();
+        dto.setSource(source);
+        dto.setAssetNumber(number);
+        dto.setTitle(title);
+        dto.setInventor(inventor);
+        dto.setType("PATENT");
+        return dto;
+    }
+
+    @Test
+    void duplicatesMergeIntoACopyAndLeaveTheInputsUntouched() {
+        PatentDTO serp = dto("SERPAPI", "US-1234567-B2", "Battery cell", null);
+        PatentDTO wipo = dto("WIPO", "US1234567B2", "N/A", "Ada Lovelace");
+
+        List<PatentDTO> merged = SearchResultMerger.merge(List.of(List.of(serp), List.of(wipo)), "battery", "ALL", null);
+
+        assertEquals(1, merged.size());
+        PatentDTO hit = merged.get(0);
+        assertNotSame(serp, hit);
+        assertNotSame(wipo, hit);
+        assertEquals("Battery cell", hit.getTitle());
+        assertEquals("Ada Lovelace", hit.getInventor());
+        // The source records (possibly cached and shared) keep their own values
+        assertNull(serp.getInventor());
+        assertEquals("N/A", wipo.getTitle());
+    }
+
+    @Test
+    void mergingTwiceGivesTheSameResult() {
+        PatentDTO serp = dto("SERPAPI", "EP100", "Solar panel", null);
+        PatentDTO wipo = dto("WIPO", "EP100", null, "Grace Hopper");
+        List<List<PatentDTO>> bySource = List.of(List.of(serp), List.of(wipo));
+
+        PatentDTO first = SearchResultMerger.merge(bySource, "solar", null, null).get(0);
+        PatentDTO second = SearchResultMerger.merge(bySource, "solar", null, null).get(0);
+
+        assertEquals(first.getTitle(), second.getTitle());
+        assertEquals(first.getInventor(), second.getInventor());
+        assertNull(serp.getInventor());
+        assertNull(wipo.getTitle());
+    }
+
+    @Test
+    void unmergedHitsAreReturnedAsIs() {
+        PatentDTO a = dto("SERPAPI", "US1", "Wind turbine", null);
+        PatentDTO b = dto("WIPO", "US2", "Wind farm", null);
+
+        List<PatentDTO> merged = SearchResultMerger.merge(List.of(List.of(a), List.of(b)), "wind", "ALL", null);
+
+        assertEquals(2, merged.size());
+        assertSame(a, merged.get(0));
+        assertSame(b, merged.get(1));
+    }
+}
@@ -0,0 +1,143 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    private static List<String> items(List<SpaceSaving.Entry<String>> entries) {
+        return entries.stream().map(SpaceSaving.Entry::item).toList();
+    }
+
+    // Reported counts bound the true ones, and every item above the error bound is monitored
+    private static void assertBounds(SpaceSaving<String> sketch, Map<String, Long> truth) {
+        Map<String, SpaceSaving.Entry<String>> reported = new HashMap<>();
+        for (SpaceSaving.Entry<String> e : sketch.top(Integer.MAX_VALUE)) reported.put(e.item(), e);
+
+        for (Map.Entry<String, Long> t : truth.entrySet()) {
+            SpaceSaving.Entry<String> e = reported.get(t.getKey());
+            if (e == null) {
+                assertTrue(t.getValue() <= sketch.errorBound(), t.getKey() + " unmonitored above the error bound");
+                continue;
+            }
+            assertTrue(e.count() >= t.getValue(), t.getKey() + " count below the true count");
+            assertTrue(e.guaranteed() <= t.getValue(), t.getKey() + " guaranteed above the true count");
+            assertTrue(e.error() <= sketch.errorBound(), t.getKey() + " error above the error bound");
+        }
+    }
+
+    @Test
+    void exactWhileEveryItemFits() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(10, 0);
+        for (String item : List.of("a", "b", "a", "c", "a", "b")) sketch.add(item, null);
+
+        List<SpaceSaving.Entry<String>> top = sketch.top(10);
+        assertEquals(List.of("a", "b", "c"), items(top));
+        assertEquals(3, top.get(0).count());
+        assertEquals(0, top.get(0).error());
+        assertEquals(0, sketch.errorBound());
+        assertEquals(6, sketch.total());
+        assertEquals(List.of("a", "b"), items(sketch.top(2)));
+    }
+
+    @Test
+    void tiesKeepTheEarlierMonitoredItemFirst() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(10, 0);
+        for (String item : List.of("x", "y", "z", "z", "y", "x")) sketch.add(item, null);
+
+        assertEquals(List.of("x", "y", "z"), items(sketch.top(3)));
+    }
+
+    @Test
+    void evictedCountBecomesTheNewcomersError() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2, 0);
+        sketch.add("a", null);
+        sketch.add("a", null);
+        sketch.add("b", null);
+        sketch.add("c", null);   // evicts b (count 1)
+
+        List<SpaceSaving.Entry<String>> top = sketch.top(2);
+        assertEquals(List.of("a", "c"), items(top));
+        assertEquals(2, top.get(1).count());
+        assertEquals(1, top.get(1).error());
+        assertEquals(1, top.get(1).guaranteed());
+        assertEquals(2, sketch.size());
+        assertTrue(sketch.errorBound() >= 1);
+    }
+
+    @Test
+    void boundsHoldAfterEvictions() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(50, 0);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            // Skewed: a few heavy items and a long tail
+            String item = random.nextInt(4) == 0 ? "heavy" + random.nextInt(5) : "tail" + random.nextInt(2000);
+            sketch.add(item, null);
+            truth.merge(item, 1L, Long::sum);
+        }
+
+        assertEquals(50, sketch.size());
+        assertTrue(sketch.errorBound() <= sketch.total() / sketch.capacity());
+        assertBounds(sketch, truth);
+        Set<String> top5 = new HashSet<>(items(sketch.top(5)));
+        for (int h = 0; h < 5; h++) assertTrue(top5.contains("heavy" + h));
+    }
+
+    @Test
+    void boundsHoldAfterRemovals() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(20, 0);
+        Map<String, Long> truth = new HashMap<>();
+        List<String> added = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            if (!added.isEmpty() && random.nextInt(3) == 0) {
+                String item = added.remove(random.nextInt(added.size()));
+                sketch.remove(item, null);
+                truth.merge(item, -1L, Long::sum);
+            } else {
+                String item = "item" + (int) Math.abs(random.nextGaussian() * 30);
+                sketch.add(item, null);
+                added.add(item);
+                truth.merge(item, 1L, Long::sum);
+            }
+        }
+
+        assertEquals(added.size(), sketch.total());
+        assertBounds(sketch, truth);
+    }
+
+    @Test
+    void removingTheLastOccurrenceDropsTheItem() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(5, 0);
+        sketch.add("a", null);
+        sketch.add("b", null);
+        sketch.remove("a", null);
+        sketch.remove("never-added", null);
+
+        assertEquals(List.of("b"), items(sketch.top(5)));
+        assertEquals(0, sketch.total());
+    }
+
+    @Test
+    void extrasAreCountedAndNeverNegative() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(5, 2);
+        sketch.add("a", new long[] { 1, 0 });
+        sketch.add("a", new long[] { 1, 1 });
+        sketch.add("a", null);
+        sketch.remove("a", new long[] { 0, 1 });
+        sketch.remove("a", new long[] { 0, 1 });
+
+        SpaceSaving.Entry<String> a = sketch.top(1).get(0);
+        assertEquals(1, a.count());
+        assertArrayEquals(new long[] { 2, 0 }, a.extras());
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving<String>(0, 0));
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechnologyCategoriesTest {
+
+    // The if-chain the classifier replaced (AnalyticsService.getSmartCategoryName); stored
+    // category_mask values and the backfill rely on both giving the same answer
+    private static String baseline(String code) {
+        if (code == null || code.trim().isEmpty()) return "Unclassified";
+        String clean = code.trim().toUpperCase();
+
+        if (clean.contains("G06N") || clean.contains("CLASS 12") || clean.contains("12") || clean.contains("AI") || clean.contains("INTELLIGENCE") || clean.contains("MACHINE"))
+            return "Artificial Intelligence";
+        if (clean.contains("G06F") || clean.contains("CLASS 25") || clean.contains("25") || clean.contains("CLOUD") || clean.contains("COMPUTING"))
+            return "Cloud Computing";
+        if (clean.contains("H04W") || clean.contains("CLASS 28") || clean.contains("28") || clean.contains("5G") || clean.contains("WIRELESS"))
+            return "5G & Wireless";
+        if (clean.contains("A61K") || clean.contains("C12N") || clean.contains("CLASS 1") || clean.contains("1B") || clean.contains("BIO") || clean.contains("PHARMA"))
+            return "Biotech & Pharma";
+        if (clean.contains("B60") || clean.contains("CLASS 38") || clean.contains("38") || clean.contains("ELECTRIC") || clean.contains("VEHICLE"))
+            return "Electric Vehicles";
+        if (clean.contains("H02S") || clean.contains("CLASS 41") || clean.contains("41") || clean.contains("SOLAR") || clean.contains("RENEWABLE"))
+            return "Renewable Energy";
+        if (clean.contains("B25J") || clean.contains("ROBOT"))
+            return "Robotics";
+        if (clean.contains("H01L") || clean.contains("SEMICONDUCTOR"))
+            return "Semiconductors";
+        if (clean.contains("H04L") || clean.contains("SECURITY") || clean.contains("CYBER"))
+            return "Cybersecurity";
+        return "Other Technologies";
+    }
+
+    private static final String[][] CASES = {
+            // IPC prefixes
+            { "G06N 3/08", "Artificial Intelligence" },
+            { "G06F 9/50", "Cloud Computing" },
+            { "H04W 72/04", "5G & Wireless" },
+            { "A61K 39/00", "Biotech & Pharma" },
+            { "B60L 53/00", "Electric Vehicles" },
+            { "H02S 40/00", "Renewable Energy" },
+            { "B62D ROBOT", "Robotics" },
+            { "H01L 21/00", "Semiconductors" },
+            { "H04L 9/32", "Cybersecurity" },
+            { "F16H 57/00", "Other Technologies" },
+            // C12N also contains "12" and B25J "25", which earlier rules check first
+            { "C12N 15/10", "Artificial Intelligence" },
+            { "B25J 9/16", "Cloud Computing" },
+            // Trademark classes
+            { "CLASS 12", "Artificial Intelligence" },
+            { "CLASS 25", "Cloud Computing" },
+            { "CLASS 28", "5G & Wireless" },
+            { "CLASS 1", "Biotech & Pharma" },
+            { "CLASS 38", "Electric Vehicles" },
+            { "CLASS 41", "Renewable Energy" },
+            { "CLASS 9", "Other Technologies" },
+            // Bare digits
+            { "12", "Artificial Intelligence" },
+            { "25", "Cloud Computing" },
+            { "28", "5G & Wireless" },
+            { "1B", "Biotech & Pharma" },
+            { "38", "Electric Vehicles" },
+            { "41", "Renewable Energy" },
+            { "7", "Other Technologies" },
+            // Lower case and padding
+            { "g06n", "Artificial Intelligence" },
+            { "class 38", "Electric Vehicles" },
+            { "  solar panel  ", "Renewable Energy" },
+            { "robot arm", "Robotics" },
+            { "semiconductor", "Semiconductors" },
+            { "cyber", "Cybersecurity" },
+            // Blank
+            { null, "Unclassified" },
+            { "", "Unclassified" },
+            { "   ", "Unclassified" },
+            // Several categories match: the lower id wins
+            { "CLOUD SECURITY", "Cloud Computing" },
+            { "G06N H04L", "Artificial Intelligence" },
+            { "BIO CLASS 25", "Cloud Computing" },
+            { "ELECTRIC ROBOT", "Electric Vehicles" },
+            { "H04L 41/00", "Renewable Energy" },
+            { "H04W 4/40 VEHICLE", "5G & Wireless" },
+            { "EMAIL", "Artificial Intelligence" },
+    };
+
+    @Test
+    void matchesTheBaselineRules() {
+        for (String[] c : CASES) {
+            assertEquals(c[1], baseline(c[0]), "baseline for " + c[0]);
+            assertEquals(c[1], TechnologyCategories.categoryName(c[0]), "classifier for " + c[0]);
+        }
+    }
+
+    @Test
+    void matchesTheBaselineOnRandomCodes() {
+        String[] fragments = { "G06N", "G06F", "H04W", "A61K", "C12N", "B60", "H02S", "B25J", "H01L", "H04L",
+                "CLASS ", "AI", "BIO", "5G", "ROBOT", "CYBER", "SOLAR", "CLOUD", "VEHICLE", " ", "/" };
+        String chars = "ABCGHILNRSWabcgi0123456789 /";
+        Random random = new Random(2);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder code = new StringBuilder();
+            int parts = 1 + random.nextInt(4);
+            for (int p = 0; p < parts; p++) {
+                if (random.nextBoolean()) code.append(fragments[random.nextInt(fragments.length)]);
+                else code.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            String value = code.toString();
+            assertEquals(baseline(value), TechnologyCategories.categoryName(value), "code \"" + value + "\"");
+        }
+    }
+
+    @Test
+    void maskHasOneBitPerCode() {
+        int mask = TechnologyCategories.categoryMask("G06N 3/08,H04L 9/32, H01L");
+        assertEquals(List.of("Artificial Intelligence", "Semiconductors", "Cybersecurity"), TechnologyCategories.names(mask));
+        assertEquals(0, TechnologyCategories.categoryMask(null));
+        assertEquals(0, TechnologyCategories.categoryMask(""));
+        assertEquals(1 << TechnologyCategories.OTHER, TechnologyCategories.categoryMask("F16H,F16H"));
+        assertTrue(Arrays.stream(CASES).allMatch(c -> TechnologyCategories.idOf(c[1]) >= 0));
+    }
+}